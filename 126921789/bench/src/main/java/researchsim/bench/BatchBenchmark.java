@@ -0,0 +1,74 @@
+package researchsim.bench;
+
+import researchsim.scenario.BatchRunner;
+import researchsim.scenario.Scenario;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the throughput of {@link BatchRunner} in runs per second at 1, 2, 4, ... threads, up
+ * to the number of available processors, on a generated 15 x 15 map holding 40 animals.
+ * <p>
+ * Each run is one seed simulated for 200 ticks. Runs are independent, so throughput should
+ * grow close to linearly with the number of threads.
+ * <p>
+ * Usage: {@code BatchBenchmark [runs]}
+ */
+public class BatchBenchmark {
+
+    /**
+     * Width and height of the generated map
+     */
+    private static final int SIDE = 15;
+
+    /**
+     * Number of ticks in every run
+     */
+    private static final long TICKS = 200;
+
+    /**
+     * Number of animals placed on the generated map
+     */
+    private static final int ANIMALS = 40;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of runs per measurement
+     * @throws Exception if the generated scenario cannot be loaded
+     */
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Scenario template = Scenario.load(new StringReader(
+            ScenarioGenerator.generateAnimals("Batch benchmark", SIDE, ANIMALS, 5, 0)));
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d available processors%n", processors);
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < processors; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(processors);
+
+        // warm up
+        new BatchRunner(template, 1).run(IntStream.range(0, 200).toArray(), new long[] {TICKS},
+            result -> { });
+        double single = 0;
+        for (int threads : threadCounts) {
+            BatchRunner runner = new BatchRunner(template, threads);
+            int[] seeds = IntStream.range(0, runs).toArray();
+            long start = System.nanoTime();
+            runner.run(seeds, new long[] {TICKS}, result -> { });
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double rate = runs / seconds;
+            if (single == 0) {
+                single = rate;
+            }
+            System.out.printf("%2d threads %,10.0f runs/s %6.2fx%n", threads, rate,
+                rate / single);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package researchsim.bench;
+
+import researchsim.entities.EntityStore;
+import researchsim.scenario.AnimalController;
+import researchsim.scenario.ParallelMovementPolicy;
+import researchsim.scenario.RandomStreams;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+
+import java.io.StringReader;
+
+/**
+ * Compares the object model with the struct-of-arrays {@link EntityStore} on a generated
+ * 1,000 x 1,000 map holding 200,000 animals, for memory per entity and for ticks per second of
+ * a {@link ParallelMovementPolicy}.
+ * <p>
+ * Memory is the growth of the used heap, after a full collection, from an empty map to the
+ * populated one, divided by the number of animals. With the store enabled this includes the
+ * store's arrays and the shared coordinates the entities are handed, less the coordinates the
+ * entities no longer hold. Both runs use {@link RandomStreams.Mode#SPLIT} mode and end with
+ * the same map.
+ * <p>
+ * Usage: {@code EntityStoreBenchmark [ticks]}
+ */
+public class EntityStoreBenchmark {
+
+    /**
+     * Width and height of the generated map
+     */
+    private static final int SIDE = 1000;
+
+    /**
+     * Number of animals placed on the generated map
+     */
+    private static final int ANIMALS = 200000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of timed ticks per run
+     * @throws Exception if the generated scenario cannot be loaded
+     */
+    public static void main(String[] args) throws Exception {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        String empty = ScenarioGenerator.generateAnimals("Entity store benchmark", SIDE, 0, 10, 0);
+        String save = ScenarioGenerator.generateAnimals("Entity store benchmark", SIDE, ANIMALS, 10,
+            0);
+        System.out.printf("%d available processors%n", Runtime.getRuntime().availableProcessors());
+
+        String objects = measure("Objects", empty, save, false, ticks);
+        String store = measure("Entity store", empty, save, true, ticks);
+        if (!objects.equals(store)) {
+            throw new AssertionError("The entity store run ended with a different map.");
+        }
+    }
+
+    /**
+     * Prints the memory per entity and ticks per second of one model, returning the final map
+     */
+    private static String measure(String name, String empty, String save, boolean useStore,
+                                  int ticks) throws Exception {
+        // the empty scenario is kept by the manager until it is reset, so it is measured
+        ScenarioManager.getInstance().reset();
+        Scenario.load(new StringReader(empty));
+        long before = usedHeap();
+        ScenarioManager.getInstance().reset();
+
+        Scenario scenario = Scenario.load(new StringReader(save));
+        ScenarioManager.getInstance().addScenario(scenario);
+        if (useStore) {
+            scenario.enableEntityStore();
+        }
+        long after = usedHeap();
+
+        scenario.getRandomStreams().setMode(RandomStreams.Mode.SPLIT);
+        AnimalController controller = scenario.getController();
+        controller.setMovementPolicy(new ParallelMovementPolicy());
+        controller.move(); // warm up
+        controller.move();
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            controller.move();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-13s %6.1f bytes/entity %8.1f ms/tick %8.2f ticks/s%n", name,
+            (double) (after - before) / ANIMALS, seconds * 1000 / ticks, ticks / seconds);
+        scenario.disableEntityStore();
+        return scenario.encode();
+    }
+
+    /**
+     * Returns the bytes of heap in use after collecting garbage
+     */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,134 @@
+package researchsim.bench;
+
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+
+import java.io.FileReader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures how long {@link Scenario#load(Reader)} takes on a generated 1,000 x 1,000 save holding
+ * 100,000 entities, see {@link ScenarioGenerator#generate}, how long the same scenario takes to
+ * load from a binary save, read or memory-mapped, and how much heap the loaded scenario retains.
+ * <p>
+ * Usage: {@code LoadBenchmark [iterations]}
+ */
+public class LoadBenchmark {
+
+    /**
+     * Width and height of the generated map
+     */
+    private static final int SIDE = 1000;
+
+    /**
+     * Number of entities placed on the generated map
+     */
+    private static final int ENTITIES = 100000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of timed iterations
+     * @throws Exception if the save cannot be written or loaded
+     */
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path save = Files.createTempFile("load-benchmark", ".txt");
+        Path binary = Files.createTempFile("load-benchmark", ".rsim");
+        try {
+            Files.writeString(save, ScenarioGenerator.generate("Load benchmark", SIDE,
+                (double) ENTITIES / (SIDE * SIDE), 0));
+            System.out.printf("Save file: %,d bytes%n", Files.size(save));
+            for (int i = 0; i < 3; i++) {
+                load(save); // warm up
+            }
+            long total = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                load(save);
+                total += System.nanoTime() - start;
+            }
+            System.out.printf("Load: %.1f ms/op over %d iterations%n",
+                total / 1e6 / iterations, iterations);
+
+            try (OutputStream out = Files.newOutputStream(binary)) {
+                load(save).encodeBinary(out);
+            }
+            System.out.printf("Binary save file: %,d bytes%n", Files.size(binary));
+            for (int i = 0; i < 3; i++) {
+                loadBinary(binary); // warm up
+            }
+            total = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                loadBinary(binary);
+                total += System.nanoTime() - start;
+            }
+            System.out.printf("Binary load: %.1f ms/op over %d iterations%n",
+                total / 1e6 / iterations, iterations);
+
+            for (int i = 0; i < 3; i++) {
+                ScenarioManager.getInstance().reset();
+                Scenario.load(binary); // warm up
+            }
+            total = 0;
+            for (int i = 0; i < iterations; i++) {
+                ScenarioManager.getInstance().reset();
+                long start = System.nanoTime();
+                Scenario.load(binary);
+                total += System.nanoTime() - start;
+            }
+            System.out.printf("Mapped load: %.1f ms/op over %d iterations%n",
+                total / 1e6 / iterations, iterations);
+
+            ScenarioManager.getInstance().reset();
+            long before = usedHeap();
+            Scenario scenario = load(save);
+            long after = usedHeap();
+            System.out.printf("Retained heap: %,d bytes (%s)%n", after - before, scenario);
+
+            ScenarioManager.getInstance().reset();
+            scenario = null;
+            before = usedHeap();
+            Scenario mapped = Scenario.load(binary);
+            after = usedHeap();
+            System.out.printf("Mapped retained heap: %,d bytes (%s)%n", after - before, mapped);
+        } finally {
+            Files.delete(save);
+            Files.delete(binary);
+        }
+    }
+
+    /**
+     * Loads the save at the given path
+     */
+    private static Scenario load(Path save) throws Exception {
+        try (Reader reader = new FileReader(save.toFile())) {
+            return Scenario.load(reader);
+        }
+    }
+
+    /**
+     * Loads the binary save at the given path
+     */
+    private static Scenario loadBinary(Path save) throws Exception {
+        try (InputStream in = Files.newInputStream(save)) {
+            return Scenario.load(in);
+        }
+    }
+
+    /**
+     * Returns the heap in use after a garbage collection
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
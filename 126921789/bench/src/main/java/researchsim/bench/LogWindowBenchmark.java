@@ -0,0 +1,101 @@
+package researchsim.bench;
+
+import researchsim.display.LogWindow;
+import researchsim.entities.Fauna;
+import researchsim.entities.Size;
+import researchsim.logging.Logger;
+import researchsim.logging.MoveEvent;
+import researchsim.map.Coordinate;
+import researchsim.map.TileType;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+
+/**
+ * Measures the cost of updating the scenario log display as the log grows, comparing an
+ * incremental {@link LogWindow} with rebuilding the whole log text with
+ * {@link Logger#toString()}, as the display used to on every change.
+ * <p>
+ * The log grows in steps of {@value #EVENTS_PER_UPDATE} events, as after a turn, and each
+ * update is timed, averaged over several updates, at several log lengths. The window's cost
+ * should stay flat while the cost of rebuilding grows with the length of the log. Rebuilding
+ * is only timed up to {@value #REBUILD_LIMIT} events.
+ * <p>
+ * Usage: {@code LogWindowBenchmark [events]}
+ */
+public class LogWindowBenchmark {
+
+    /**
+     * Number of events logged between updates
+     */
+    private static final int EVENTS_PER_UPDATE = 100;
+
+    /**
+     * Number of updates averaged at each reported log length
+     */
+    private static final int TIMED_UPDATES = 20;
+
+    /**
+     * Longest log the full rebuild is timed on
+     */
+    private static final int REBUILD_LIMIT = 200000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of events to grow the log to
+     */
+    public static void main(String[] args) {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        ScenarioManager.getInstance().addScenario(new Scenario("Log window", 10, 10, 0));
+        Logger log = new Logger();
+        LogWindow window = new LogWindow();
+        Fauna fauna = new Fauna(Size.SMALL, new Coordinate(0, 0), TileType.LAND);
+
+        // warm up on a throwaway log so the first lengths are not timed in the interpreter
+        Logger warmUp = new Logger();
+        LogWindow warmUpWindow = new LogWindow();
+        for (int i = 0; i < 500; i++) {
+            addEvents(warmUp, fauna);
+            warmUpWindow.update(warmUp);
+        }
+
+        System.out.printf("%10s %16s %16s%n", "events", "window us/update", "rebuild us/update");
+        int report = 1000;
+        while (log.getEventCount() < total) {
+            addEvents(log, fauna);
+            if (log.getEventCount() < report) {
+                window.update(log);
+                continue;
+            }
+            long elapsed = 0;
+            for (int i = 0; i < TIMED_UPDATES; i++) {
+                addEvents(log, fauna);
+                long start = System.nanoTime();
+                window.update(log);
+                elapsed += System.nanoTime() - start;
+            }
+            double windowMicros = elapsed / 1e3 / TIMED_UPDATES;
+            String rebuild = "-";
+            if (log.getEventCount() <= REBUILD_LIMIT) {
+                long start = System.nanoTime();
+                int length = log.toString().length();
+                rebuild = String.format("%.0f", (System.nanoTime() - start) / 1e3);
+                if (length == 0) {
+                    throw new AssertionError("Empty log text");
+                }
+            }
+            System.out.printf("%,10d %16.0f %16s%n", log.getEventCount(), windowMicros, rebuild);
+            report *= 10;
+        }
+    }
+
+    /**
+     * Logs the events of one update
+     */
+    private static void addEvents(Logger log, Fauna fauna) {
+        for (int i = 0; i < EVENTS_PER_UPDATE; i++) {
+            int step = log.getEventCount();
+            log.add(new MoveEvent(fauna, new Coordinate(step % 10, step / 10 % 10)));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package researchsim.bench;
+
+import researchsim.scenario.AnimalController;
+import researchsim.scenario.MovementPolicy;
+import researchsim.scenario.ParallelMovementPolicy;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+import researchsim.scenario.SequentialMovementPolicy;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares {@link SequentialMovementPolicy} with {@link ParallelMovementPolicy} at 1, 2, 4, ...
+ * threads, up to the number of available processors, on a generated 1,000 x 1,000 map holding
+ * 200,000 animals.
+ * <p>
+ * The policies move different numbers of animals per call, so the figure to compare is moves
+ * per second, the number of animals actually moved divided by the time taken.
+ * <p>
+ * Usage: {@code MovementBenchmark [calls]}
+ */
+public class MovementBenchmark {
+
+    /**
+     * Width and height of the generated map
+     */
+    private static final int SIDE = 1000;
+
+    /**
+     * Number of animals placed on the generated map
+     */
+    private static final int ANIMALS = 200000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of timed calls to {@link AnimalController#move()} per policy
+     * @throws Exception if the generated scenario cannot be loaded
+     */
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String save = ScenarioGenerator.generateAnimals("Movement benchmark", SIDE, ANIMALS, 10,
+            0);
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d available processors%n", processors);
+
+        double sequential = measure("Sequential", save, new SequentialMovementPolicy(), calls);
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < processors; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(processors);
+        for (int threads : threadCounts) {
+            double parallel = measure("Parallel x" + threads, save,
+                new ParallelMovementPolicy(threads), calls);
+            System.out.printf("  speedup over sequential: %.2fx%n", parallel / sequential);
+        }
+    }
+
+    /**
+     * Prints and returns the moves per second a policy achieves
+     */
+    private static double measure(String name, String save, MovementPolicy policy, int calls)
+            throws Exception {
+        ScenarioManager.getInstance().reset();
+        Scenario scenario = Scenario.load(new StringReader(save));
+        ScenarioManager.getInstance().addScenario(scenario);
+        AnimalController controller = scenario.getController();
+        controller.setMovementPolicy(policy);
+        controller.move(); // warm up
+        controller.move();
+
+        int before = scenario.getLog().getEvents().size();
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            controller.move();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int moves = scenario.getLog().getEvents().size() - before;
+        double rate = moves / seconds;
+        System.out.printf("%-14s %8.1f ms/call %,12.0f moves/s%n", name,
+            seconds * 1000 / calls, rate);
+        return rate;
+    }
+}
@@ -0,0 +1,166 @@
+package researchsim.bench;
+
+import researchsim.entities.Entity;
+import researchsim.map.GridView;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares the old string-concatenating scenario encoder against {@link Scenario#encodeTo}
+ * streaming to a buffered file writer, on several map sizes.
+ * <p>
+ * For each size the time per save and the peak heap reached while saving are printed. Peak heap
+ * is read from the heap memory pools after a garbage collection, so it is only indicative.
+ * <p>
+ * Usage: {@code SaveBenchmark [iterations]}
+ */
+public class SaveBenchmark {
+
+    /**
+     * Width and height of the maps saved
+     */
+    private static final int[] SIDES = {100, 250, 500};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of timed iterations
+     * @throws Exception if a save cannot be written or loaded
+     */
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path save = Files.createTempFile("save-benchmark", ".txt");
+        try {
+            for (int side : SIDES) {
+                ScenarioManager.getInstance().reset();
+                Scenario scenario = generate(save, side);
+
+                long legacyTime = time(iterations, () -> saveLegacy(scenario, save));
+                long legacyPeak = peakHeap(() -> saveLegacy(scenario, save));
+                long streamTime = time(iterations, () -> saveStreaming(scenario, save));
+                long streamPeak = peakHeap(() -> saveStreaming(scenario, save));
+
+                System.out.printf("%dx%d (%,d bytes)%n", side, side, Files.size(save));
+                System.out.printf("  legacy:    %9.1f ms/op, peak heap %,d bytes%n",
+                    legacyTime / 1e6, legacyPeak);
+                System.out.printf("  streaming: %9.1f ms/op, peak heap %,d bytes%n",
+                    streamTime / 1e6, streamPeak);
+            }
+        } finally {
+            Files.delete(save);
+        }
+    }
+
+    /**
+     * A save operation
+     */
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    /**
+     * Returns the mean time in nanoseconds taken by the action after one warm up run
+     */
+    private static long time(int iterations, Action action) throws IOException {
+        action.run();
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            action.run();
+            total += System.nanoTime() - start;
+        }
+        return total / iterations;
+    }
+
+    /**
+     * Returns the peak heap use observed while running the action
+     */
+    private static long peakHeap(Action action) throws IOException {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        action.run();
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Saves the scenario by streaming it to a buffered writer
+     */
+    private static void saveStreaming(Scenario scenario, Path save) throws IOException {
+        try (Writer writer = new BufferedWriter(new FileWriter(save.toFile()))) {
+            scenario.encodeTo(writer);
+        }
+    }
+
+    /**
+     * Saves the scenario the way it was saved before streaming, by concatenating the whole save
+     * into one string
+     */
+    private static void saveLegacy(Scenario scenario, Path save) throws IOException {
+        GridView grid = scenario.getGridView();
+        String encode = scenario.getName() + System.lineSeparator()
+            + "Width:" + scenario.getWidth() + System.lineSeparator()
+            + "Height:" + scenario.getHeight() + System.lineSeparator()
+            + "Seed:" + scenario.getSeed() + System.lineSeparator()
+            + "=".repeat(scenario.getWidth()) + System.lineSeparator();
+        for (int y = 0; y < scenario.getHeight(); y++) {
+            for (int x = 0; x < scenario.getWidth(); x++) {
+                encode += grid.getType(x + y * scenario.getWidth()).encode();
+            }
+            encode += System.lineSeparator();
+        }
+        encode += "=".repeat(scenario.getWidth());
+        for (int i = 0; i < grid.getSize(); i++) {
+            Entity entity = grid.getContents(i);
+            if (entity != null) {
+                encode += System.lineSeparator() + entity.encode();
+            }
+        }
+        try (Writer writer = new FileWriter(save.toFile())) {
+            writer.write(encode);
+        }
+    }
+
+    /**
+     * Writes and loads a LAND scenario with flora on every seventh tile
+     */
+    private static Scenario generate(Path save, int side) throws Exception {
+        try (Writer writer = new BufferedWriter(new FileWriter(save.toFile()))) {
+            writer.write("Save benchmark " + side + "\nWidth:" + side + "\nHeight:" + side
+                + "\nSeed:0\n");
+            writer.write("=".repeat(side) + "\n");
+            String land = "L".repeat(side) + "\n";
+            for (int y = 0; y < side; y++) {
+                writer.write(land);
+            }
+            writer.write("=".repeat(side));
+            for (int i = 0; i < side * side; i += 7) {
+                writer.write("\nFlora-SMALL-" + i % side + "," + i / side);
+            }
+        }
+        try (Reader reader = new FileReader(save.toFile())) {
+            return Scenario.load(reader);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package researchsim.bench;
+
+import java.util.Random;
+
+/**
+ * Writes text saves of generated square scenarios for the benchmarks.
+ * <p>
+ * Entities are placed on randomly chosen free tiles: fauna with an OCEAN habitat on ocean, and
+ * elsewhere fauna with a LAND habitat or, if the save has flora, fauna and flora half and half.
+ * The same arguments always give the same save.
+ */
+public final class ScenarioGenerator {
+
+    /**
+     * Entity sizes in the save format
+     */
+    private static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE", "GIANT"};
+
+    private ScenarioGenerator() {
+    }
+
+    /**
+     * Returns the save of a generated scenario with varied terrain, a user, fauna and flora.
+     * <p>
+     * Every fifth row of the map is OCEAN and the other tiles are mostly LAND with some SAND
+     * and MOUNTAIN. The user stands on the LAND tile nearest the centre, and the given fraction
+     * of the remaining tiles hold fauna or flora.
+     *
+     * @param name    name of the scenario
+     * @param side    width and height of the map
+     * @param density fraction of the tiles holding an entity, between 0 and 1
+     * @param seed    seed of the scenario, also used to lay out the map
+     * @return text save of the scenario
+     */
+    public static String generate(String name, int side, double density, int seed) {
+        Random random = new Random(seed);
+        char[] tiles = new char[side * side];
+        for (int i = 0; i < tiles.length; i++) {
+            int roll = random.nextInt(100);
+            tiles[i] = (i / side) % 5 == 0 ? 'O' : roll < 80 ? 'L' : roll < 92 ? 'S' : 'X';
+        }
+        int entities = (int) Math.min(Math.round(density * tiles.length), tiles.length - 1);
+        return write(name, side, seed, tiles, nearestLand(tiles, side), entities, true, random);
+    }
+
+    /**
+     * Returns the save of a generated scenario holding only animals, on a LAND map crossed by
+     * rows of OCEAN.
+     *
+     * @param name       name of the scenario
+     * @param side       width and height of the map
+     * @param animals    number of animals, at most the number of tiles
+     * @param oceanEvery every how many rows of the map, starting with the first, are OCEAN
+     * @param seed       seed of the scenario, also used to place the animals
+     * @return text save of the scenario
+     */
+    public static String generateAnimals(String name, int side, int animals, int oceanEvery,
+                                         int seed) {
+        char[] tiles = new char[side * side];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = (i / side) % oceanEvery == 0 ? 'O' : 'L';
+        }
+        return write(name, side, seed, tiles, -1, animals, false, new Random(seed));
+    }
+
+    /**
+     * Returns the save of a map, with a user at the given tile if it is not negative and the
+     * given number of entities on random free tiles
+     */
+    private static String write(String name, int side, int seed, char[] tiles, int user,
+                                int entities, boolean flora, Random random) {
+        StringBuilder save = new StringBuilder(tiles.length * 2);
+        save.append(name).append("\nWidth:").append(side).append("\nHeight:").append(side)
+            .append("\nSeed:").append(seed).append('\n').append("=".repeat(side)).append('\n');
+        for (int y = 0; y < side; y++) {
+            save.append(tiles, y * side, side).append('\n');
+        }
+        save.append("=".repeat(side));
+
+        boolean[] used = new boolean[tiles.length];
+        if (user >= 0) {
+            used[user] = true;
+            save.append("\nUser-").append(user % side).append(',').append(user / side)
+                .append("-Bench");
+        }
+        for (int placed = 0; placed < entities; ) {
+            int index = random.nextInt(tiles.length);
+            if (used[index]) {
+                continue;
+            }
+            used[index] = true;
+            String size = SIZES[random.nextInt(SIZES.length)];
+            String at = "-" + (index % side) + "," + (index / side);
+            if (tiles[index] == 'O') {
+                save.append("\nFauna-").append(size).append(at).append("-OCEAN");
+            } else if (!flora || random.nextBoolean()) {
+                save.append("\nFauna-").append(size).append(at).append("-LAND");
+            } else {
+                save.append("\nFlora-").append(size).append(at);
+            }
+            placed++;
+        }
+        return save.toString();
+    }
+
+    /**
+     * Returns the index of the LAND tile nearest the centre of the map
+     */
+    private static int nearestLand(char[] tiles, int side) {
+        int centre = side / 2;
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < tiles.length; i++) {
+            int distance = Math.abs(i % side - centre) + Math.abs(i / side - centre);
+            if (tiles[i] == 'L' && distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
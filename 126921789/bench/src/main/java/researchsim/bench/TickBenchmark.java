@@ -0,0 +1,45 @@
+package researchsim.bench;
+
+import researchsim.scenario.Scenario;
+import researchsim.scenario.SimulationEngine;
+
+import java.io.StringReader;
+
+/**
+ * Measures how many ticks per second a {@link SimulationEngine} runs headless on a generated
+ * 200 x 200 map holding 4,000 animals.
+ * <p>
+ * Usage: {@code TickBenchmark [ticks]}
+ */
+public class TickBenchmark {
+
+    /**
+     * Width and height of the generated map
+     */
+    private static final int SIDE = 200;
+
+    /**
+     * Number of animals placed on the generated map
+     */
+    private static final int ANIMALS = 4000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of timed ticks
+     * @throws Exception if the generated scenario cannot be loaded
+     */
+    public static void main(String[] args) throws Exception {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        Scenario scenario = Scenario.load(new StringReader(
+            ScenarioGenerator.generateAnimals("Tick benchmark", SIDE, ANIMALS, 10, 0)));
+        SimulationEngine engine = new SimulationEngine(scenario);
+        engine.run(ticks / 10); // warm up
+
+        long start = System.nanoTime();
+        engine.run(ticks);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%,d ticks in %.2f s: %,.0f ticks/s%n", ticks, seconds,
+            ticks / seconds);
+    }
+}
@@ -0,0 +1,43 @@
+package researchsim.bench.jmh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmarks jar.
+ * <p>
+ * Passes its arguments on to the JMH runner, adding {@code -rf json -rff jmh-result.json} unless
+ * a result format or file is given, so that every run leaves results that can be compared with
+ * earlier runs. Any other JMH option may be given as usual, for example
+ * {@code java -jar benchmarks.jar ScenarioBenchmark -p side=100 -rff load.json}.
+ */
+public final class BenchmarkMain {
+
+    /**
+     * Result file written when none is given
+     */
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args JMH command line options
+     * @throws Exception if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add(DEFAULT_RESULT_FILE);
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,136 @@
+package researchsim.bench.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import researchsim.bench.ScenarioGenerator;
+import researchsim.entities.Entity;
+import researchsim.entities.Fauna;
+import researchsim.entities.User;
+import researchsim.logging.CollectEvent;
+import researchsim.logging.Event;
+import researchsim.logging.Logger;
+import researchsim.logging.MoveEvent;
+import researchsim.map.Coordinate;
+import researchsim.map.GridView;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Logger#add(Event)} on a mix of move and collect events taken from generated
+ * scenarios of several sizes and densities, with an unbounded log and with a bounded one that
+ * drops its oldest events.
+ * <p>
+ * Every call adds {@value #BATCH} events to a new log, so an unbounded log cannot grow without
+ * limit over a long run; the result is the time per event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    /**
+     * Number of events added by every call
+     */
+    private static final int BATCH = 4096;
+
+    /**
+     * Width and height of the map, above 15 the scenario is a large map
+     */
+    @Param({"15", "100", "500"})
+    public int side;
+
+    /**
+     * Fraction of the tiles holding an entity
+     */
+    @Param({"0.05", "0.25"})
+    public double density;
+
+    /**
+     * Most events kept in memory, 0 for an unbounded log
+     */
+    @Param({"0", "256"})
+    public int capacity;
+
+    /**
+     * Events added by every call, one in eight a collect event
+     */
+    private final Event[] events = new Event[BATCH];
+
+    /**
+     * Generates the scenario and the events.
+     *
+     * @throws IOException      never, the save is read from memory
+     * @throws BadSaveException if the generated save is invalid
+     */
+    @Setup
+    public void setUp() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(
+            ScenarioGenerator.generate("Logger benchmark", side, density, 0)));
+        ScenarioManager.getInstance().addScenario(scenario);
+        GridView grid = scenario.getGridView();
+        User user = null;
+        List<Entity> collectable = new ArrayList<>();
+        for (int i = 0; i < grid.getSize(); i++) {
+            Entity contents = grid.getContents(i);
+            if (contents instanceof User) {
+                user = (User) contents;
+            } else if (contents != null) {
+                collectable.add(contents);
+            }
+        }
+        List<Fauna> animals = scenario.getController().getAnimals();
+        for (int i = 0; i < BATCH; i++) {
+            if (i % 8 == 7) {
+                events[i] = new CollectEvent(user, collectable.get(i % collectable.size()));
+            } else {
+                Fauna animal = animals.get(i % animals.size());
+                Coordinate target = animal.getCoordinate().translate(i % 3 - 1, i % 5 - 2);
+                events[i] = new MoveEvent(animal, target);
+            }
+        }
+    }
+
+    /**
+     * Unloads the scenario.
+     */
+    @TearDown
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    /**
+     * Adds a batch of events to a new log.
+     *
+     * @return the log
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Logger add() {
+        Logger log = capacity == 0 ? new Logger() : new Logger(capacity);
+        for (Event event : events) {
+            log.add(event);
+        }
+        return log;
+    }
+}
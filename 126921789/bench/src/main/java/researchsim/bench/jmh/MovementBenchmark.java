@@ -0,0 +1,224 @@
+package researchsim.bench.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import researchsim.bench.ScenarioGenerator;
+import researchsim.entities.Fauna;
+import researchsim.entities.Size;
+import researchsim.entities.User;
+import researchsim.logging.Logger;
+import researchsim.map.Coordinate;
+import researchsim.map.GridView;
+import researchsim.scenario.AnimalController;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+import researchsim.util.BadSaveException;
+import researchsim.util.CoordinateOutOfBoundsException;
+import researchsim.util.DiamondOffsets;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the movement hot paths on generated scenarios of several sizes and densities:
+ * {@link researchsim.util.Movable#checkRange}, {@link Fauna#getPossibleMoves()},
+ * {@link Fauna#canMove(Coordinate)}, {@link User#getPossibleCollection()} and a whole tick of
+ * {@link AnimalController#move()}.
+ * <p>
+ * The per-animal benchmarks cycle through up to {@value #SAMPLES} animals spread over the map,
+ * so that the result is not that of one animal's surroundings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+
+    /**
+     * Number of animals the per-animal benchmarks cycle through, a power of two
+     */
+    private static final int SAMPLES = 64;
+
+    /**
+     * Most events the log keeps while ticking, so that long runs do not fill the heap
+     */
+    private static final int LOG_CAPACITY = 1024;
+
+    /**
+     * Width and height of the map, above 15 the scenario is a large map
+     */
+    @Param({"15", "100", "500"})
+    public int side;
+
+    /**
+     * Fraction of the tiles holding an entity
+     */
+    @Param({"0.05", "0.25"})
+    public double density;
+
+    /**
+     * The generated scenario
+     */
+    private Scenario scenario;
+
+    /**
+     * The user on the map
+     */
+    private User user;
+
+    /**
+     * Animals the per-animal benchmarks cycle through, repeated to fill the array
+     */
+    private final Fauna[] animals = new Fauna[SAMPLES];
+
+    /**
+     * For each sampled animal, the tile furthest along its row that it could move to if the
+     * path were clear
+     */
+    private final Coordinate[] targets = new Coordinate[SAMPLES];
+
+    /**
+     * Buffer for the grid indices found by checkRange
+     */
+    private int[] indices;
+
+    /**
+     * Position in the samples of the next call
+     */
+    private int next;
+
+    /**
+     * Generates the scenario and picks the samples.
+     *
+     * @throws IOException      never, the save is read from memory
+     * @throws BadSaveException if the generated save is invalid
+     */
+    @Setup
+    public void setUp() throws IOException, BadSaveException {
+        scenario = Scenario.load(new StringReader(
+            ScenarioGenerator.generate("Movement benchmark", side, density, 0)));
+        ScenarioManager.getInstance().addScenario(scenario);
+        scenario.setLog(new Logger(LOG_CAPACITY));
+        GridView grid = scenario.getGridView();
+        for (int i = 0; i < grid.getSize(); i++) {
+            if (grid.getContents(i) instanceof User) {
+                user = (User) grid.getContents(i);
+            }
+        }
+        List<Fauna> all = scenario.getController().getAnimals();
+        int stride = Math.max(1, all.size() / SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            Fauna animal = all.get(i * stride % all.size());
+            animals[i] = animal;
+            int distance = animal.getSize().moveDistance;
+            Coordinate target = animal.getCoordinate().translate(distance, 0);
+            if (!target.isInBounds(grid.getGeometry())) {
+                target = animal.getCoordinate().translate(-distance, 0);
+            }
+            targets[i] = target;
+        }
+        int radius = 0;
+        for (Size size : Size.values()) {
+            radius = Math.max(radius, size.moveDistance);
+        }
+        indices = new int[DiamondOffsets.count(radius)];
+    }
+
+    /**
+     * Unloads the scenario.
+     */
+    @TearDown
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    /**
+     * Returns the position of the next sample to use
+     */
+    private int nextSample() {
+        next = (next + 1) & (SAMPLES - 1);
+        return next;
+    }
+
+    /**
+     * Lists the coordinates within an animal's move range.
+     *
+     * @return coordinates in range
+     */
+    @Benchmark
+    public List<Coordinate> checkRange() {
+        Fauna animal = animals[nextSample()];
+        return animal.checkRange(animal.getSize().moveDistance, animal.getCoordinate());
+    }
+
+    /**
+     * Finds the grid indices within an animal's move range that are on the map.
+     *
+     * @return number of indices found
+     */
+    @Benchmark
+    public int checkRangeIndices() {
+        Fauna animal = animals[nextSample()];
+        Coordinate at = animal.getCoordinate();
+        return animal.checkRange(animal.getSize().moveDistance, at.getX(), at.getY(), side, side,
+            indices);
+    }
+
+    /**
+     * Lists the tiles an animal can move to.
+     *
+     * @return possible moves
+     */
+    @Benchmark
+    public List<Coordinate> getPossibleMoves() {
+        return animals[nextSample()].getPossibleMoves();
+    }
+
+    /**
+     * Checks whether an animal can move as far as it can along its row.
+     *
+     * @return whether it can move there
+     * @throws CoordinateOutOfBoundsException never, the targets are on the map
+     */
+    @Benchmark
+    public boolean canMove() throws CoordinateOutOfBoundsException {
+        int sample = nextSample();
+        return animals[sample].canMove(targets[sample]);
+    }
+
+    /**
+     * Lists the tiles next to the user holding something it can collect.
+     *
+     * @return collectable coordinates
+     */
+    @Benchmark
+    public List<Coordinate> getPossibleCollection() {
+        return user.getPossibleCollection();
+    }
+
+    /**
+     * Advances the scenario by one tick, moving every animal.
+     *
+     * @return the scenario's tick afterwards
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long move() {
+        scenario.getController().move();
+        return scenario.getTick();
+    }
+}
@@ -0,0 +1,100 @@
+package researchsim.bench.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import researchsim.bench.ScenarioGenerator;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Scenario#load(Reader)} and {@link Scenario#encode()} on generated scenarios
+ * of several sizes and densities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScenarioBenchmark {
+
+    /**
+     * Width and height of the map, above 15 the scenario is a large map
+     */
+    @Param({"15", "100", "500"})
+    public int side;
+
+    /**
+     * Fraction of the tiles holding an entity
+     */
+    @Param({"0.05", "0.25"})
+    public double density;
+
+    /**
+     * Text save of the generated scenario
+     */
+    private String save;
+
+    /**
+     * The generated scenario
+     */
+    private Scenario scenario;
+
+    /**
+     * Generates the scenario.
+     *
+     * @throws IOException      never, the save is read from memory
+     * @throws BadSaveException if the generated save is invalid
+     */
+    @Setup
+    public void setUp() throws IOException, BadSaveException {
+        save = ScenarioGenerator.generate("Scenario benchmark", side, density, 0);
+        scenario = Scenario.load(new StringReader(save));
+    }
+
+    /**
+     * Unloads the scenario.
+     */
+    @TearDown
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    /**
+     * Loads the scenario from its text save.
+     *
+     * @return the loaded scenario
+     * @throws IOException      never, the save is read from memory
+     * @throws BadSaveException if the generated save is invalid
+     */
+    @Benchmark
+    public Scenario load() throws IOException, BadSaveException {
+        return Scenario.load(new StringReader(save));
+    }
+
+    /**
+     * Encodes the scenario as a text save.
+     *
+     * @return the save
+     */
+    @Benchmark
+    public String encode() {
+        return scenario.encode();
+    }
+}
@@ -0,0 +1,194 @@
+package researchsim.display;
+
+import researchsim.entities.Entity;
+import researchsim.map.GridListener;
+import researchsim.map.TileType;
+
+import java.util.BitSet;
+
+/**
+ * The tiles of a map that have changed since it was last drawn, and so have to be redrawn.
+ * <p>
+ * Tiles are marked dirty one at a time or by area, and, once the tracker is registered as a
+ * {@link GridListener} of the scenario being drawn, whenever the contents or type of a tile
+ * changes, whether or not the change was logged. Listeners are called by the thread making
+ * the change, so the scenario must only be changed on the thread that draws it.
+ * <p>
+ * Tiles are numbered row by row, {@code x + y * width}, as grid indices are, whatever the
+ * layout of the map's store.
+ */
+public class DirtyTiles implements GridListener {
+
+    /**
+     * Dirty tiles, unused while every tile is dirty
+     */
+    private final BitSet tiles = new BitSet();
+
+    /**
+     * Width of the map, in tiles
+     */
+    private int width;
+
+    /**
+     * Height of the map, in tiles
+     */
+    private int height;
+
+    /**
+     * Whether every tile is dirty
+     */
+    private boolean all = true;
+
+    /**
+     * Starts tracking a map of the given size, with every tile dirty.
+     *
+     * @param width  width of the map, in tiles
+     * @param height height of the map, in tiles
+     */
+    public void reset(int width, int height) {
+        this.width = width;
+        this.height = height;
+        markAll();
+    }
+
+    /**
+     * Returns the width of the tracked map.
+     *
+     * @return width in tiles
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the tracked map.
+     *
+     * @return height in tiles
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Marks every tile dirty.
+     */
+    public void markAll() {
+        all = true;
+        tiles.clear();
+    }
+
+    /**
+     * Returns whether every tile is dirty.
+     *
+     * @return true if the whole map has to be redrawn
+     */
+    public boolean isAllDirty() {
+        return all;
+    }
+
+    /**
+     * Marks a tile dirty. Tiles off the map are ignored.
+     *
+     * @param x column of the tile
+     * @param y row of the tile
+     */
+    public void mark(int x, int y) {
+        if (!all && x >= 0 && x < width && y >= 0 && y < height) {
+            tiles.set(x + y * width);
+        }
+    }
+
+    /**
+     * Marks dirty every tile of the rectangle spanned by two tiles, grown by the given number
+     * of tiles on every side. Tiles off the map are ignored.
+     *
+     * @param x1     column of one corner
+     * @param y1     row of one corner
+     * @param x2     column of the opposite corner
+     * @param y2     row of the opposite corner
+     * @param margin number of tiles to grow the rectangle by
+     */
+    public void markArea(int x1, int y1, int x2, int y2, int margin) {
+        if (all) {
+            return;
+        }
+        int left = Math.max(Math.min(x1, x2) - margin, 0);
+        int right = Math.min(Math.max(x1, x2) + margin, width - 1);
+        int top = Math.max(Math.min(y1, y2) - margin, 0);
+        int bottom = Math.min(Math.max(y1, y2) + margin, height - 1);
+        for (int y = top; y <= bottom; y++) {
+            if (left <= right) {
+                tiles.set(left + y * width, right + y * width + 1);
+            }
+        }
+    }
+
+    /**
+     * Marks a tile dirty by its grid index. Indices off the map are ignored.
+     *
+     * @param index grid index of the tile
+     */
+    public void mark(int index) {
+        if (!all && index >= 0 && index < width * height) {
+            tiles.set(index);
+        }
+    }
+
+    /**
+     * Marks the tile whose contents changed dirty.
+     */
+    @Override
+    public void contentsChanged(int index, Entity previous, Entity current) {
+        mark(index);
+    }
+
+    /**
+     * Marks the tile whose type changed dirty.
+     */
+    @Override
+    public void typeChanged(int index, TileType previous, TileType current) {
+        mark(index);
+    }
+
+    /**
+     * Returns whether a tile is dirty.
+     *
+     * @param x column of the tile
+     * @param y row of the tile
+     * @return true if the tile has to be redrawn
+     */
+    public boolean isDirty(int x, int y) {
+        return all || tiles.get(x + y * width);
+    }
+
+    /**
+     * Returns the number of dirty tiles.
+     *
+     * @return dirty tile count
+     */
+    public int count() {
+        return all ? width * height : tiles.cardinality();
+    }
+
+    /**
+     * Returns the number of the first dirty tile at or after the given one, tiles being
+     * numbered {@code x + y * width}.
+     *
+     * @param from number of the tile to start from
+     * @return number of the dirty tile, or -1 if there is none
+     */
+    public int next(int from) {
+        if (all) {
+            return from < width * height ? from : -1;
+        }
+        return tiles.nextSetBit(from);
+    }
+
+    /**
+     * Marks every tile clean, once the dirty ones have been redrawn.
+     */
+    public void clear() {
+        all = false;
+        tiles.clear();
+    }
+}
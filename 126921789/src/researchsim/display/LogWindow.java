@@ -0,0 +1,126 @@
+package researchsim.display;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import researchsim.logging.Event;
+import researchsim.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The most recent events of a scenario's log, as text entries for a list view.
+ * <p>
+ * The window keeps a cursor into the {@link Logger} it last showed, so each
+ * {@link #update(Logger)} only turns the events logged since into text and appends them,
+ * dropping the oldest entries once more than {@link #getCapacity()} are shown. The cost of an
+ * update therefore depends on the number of new events, not on the length of the log. Showing
+ * the entries in a {@link javafx.scene.control.ListView}, which only lays out the rows that
+ * are visible, keeps the cost of drawing them independent of the capacity as well.
+ */
+public class LogWindow {
+
+    /**
+     * Number of entries shown by a window created without a capacity.
+     * The value of this constant is {@value}
+     */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    /**
+     * Most entries shown at once
+     */
+    private final int capacity;
+
+    /**
+     * Text of the shown events, oldest first
+     */
+    private final ObservableList<String> entries = FXCollections.observableArrayList();
+
+    /**
+     * Read-only view of the entries
+     */
+    private final ObservableList<String> view = FXCollections.unmodifiableObservableList(entries);
+
+    /**
+     * Log the cursor points into, null until the first update
+     */
+    private Logger log;
+
+    /**
+     * Number of events of the log that have been shown or skipped
+     */
+    private int cursor;
+
+    /**
+     * Creates a window showing up to {@link #DEFAULT_CAPACITY} entries.
+     */
+    public LogWindow() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a window showing up to the given number of entries.
+     *
+     * @param capacity most entries shown at once
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public LogWindow(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Window capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the most entries shown at once.
+     *
+     * @return window capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns a read-only list of the text of the shown events, oldest first. The list is
+     * changed by {@link #update(Logger)} and must only be used on the thread that updates it.
+     *
+     * @return shown entries
+     */
+    public ObservableList<String> getEntries() {
+        return view;
+    }
+
+    /**
+     * Appends the events logged since the last update, dropping the oldest entries if there
+     * are more than the capacity.
+     * <p>
+     * If the log is not the one last shown, for instance because another scenario was selected,
+     * the window is cleared and filled with the most recent events of the new log. Only events
+     * the log still holds in memory are shown.
+     *
+     * @param log log to show
+     * @return number of entries appended
+     */
+    public int update(Logger log) {
+        if (log != this.log || log.getEventCount() < cursor) {
+            entries.clear();
+            this.log = log;
+            cursor = 0;
+        }
+        int count = log.getEventCount();
+        if (count == cursor) {
+            return 0;
+        }
+        int from = Math.max(cursor, count - Math.min(capacity, log.getRetainedCount()));
+        List<String> added = new ArrayList<>(count - from);
+        log.forEachEventSince(from, (Event event) -> added.add(event.toString()));
+        cursor = count;
+
+        int overflow = entries.size() + added.size() - capacity;
+        if (overflow > 0) {
+            entries.remove(0, Math.min(overflow, entries.size()));
+        }
+        entries.addAll(added);
+        return added.size();
+    }
+}
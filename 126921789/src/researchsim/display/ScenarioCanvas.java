@@ -1,5 +1,6 @@
 package researchsim.display;
 
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -9,12 +10,15 @@ import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.transform.Affine;
 import javafx.scene.transform.Transform;
+import javafx.stage.Window;
 import researchsim.entities.*;
 import researchsim.logging.CollectEvent;
 import researchsim.logging.Event;
+import researchsim.logging.Logger;
 import researchsim.logging.MoveEvent;
 import researchsim.map.Coordinate;
-import researchsim.map.Tile;
+import researchsim.map.GridListener;
+import researchsim.map.GridView;
 import researchsim.map.TileType;
 import researchsim.scenario.Scenario;
 import researchsim.scenario.ScenarioManager;
@@ -35,6 +39,11 @@ import java.util.*;
  */
 public class ScenarioCanvas extends Canvas {
 
+    /**
+     * Length of the sides of an arrow head, in pixels
+     */
+    private static final int ARROW_HEAD_SIZE = 8;
+
     /**
      * View model containing the main model of the application
      */
@@ -72,6 +81,53 @@ public class ScenarioCanvas extends Canvas {
      */
     private Image userSprite;
 
+    /**
+     * Tiles to redraw on the next draw
+     */
+    private final DirtyTiles dirtyTiles = new DirtyTiles();
+    /**
+     * Scenario shown by the last draw, null before the first draw
+     */
+    private Scenario drawnScenario;
+    /**
+     * Size of a grid square in the last draw
+     */
+    private double drawnGridSize;
+    /**
+     * Whether the grid was shown in the last draw
+     */
+    private boolean drawnShowGrid;
+    /**
+     * Whether the grid coordinates were shown in the last draw
+     */
+    private boolean drawnShowCoordinate;
+    /**
+     * Events drawn as arrows by the last draw
+     */
+    private List<Event> drawnArrows = List.of();
+    /**
+     * The map's terrain with the grid and coordinates drawn over it, drawn once and copied from
+     * on every draw, null when it has to be drawn again
+     */
+    private Image terrainLayer;
+    /**
+     * Number of terrain layer pixels per canvas pixel
+     */
+    private double terrainScale;
+    /**
+     * Discards the terrain layer when a tile type of the shown scenario changes
+     */
+    private final GridListener terrainListener = new GridListener() {
+        @Override
+        public void contentsChanged(int index, Entity previous, Entity current) {
+        }
+
+        @Override
+        public void typeChanged(int index, TileType previous, TileType current) {
+            terrainLayer = null;
+        }
+    };
+
     /**
      * Creates a new PortCanvas with the given dimensions.
      *
@@ -206,19 +262,157 @@ public class ScenarioCanvas extends Canvas {
 
     /**
      * Draws all the components of the game map
+     * <p>
+     * Only the tiles that changed since the last draw are redrawn: the tiles whose contents or
+     * type changed since, logged or not, the tiles under arrows that appeared or disappeared,
+     * and the tiles highlighted by {@link #drawEntityMove(Entity)} or
+     * {@link #drawUserCollect(User)}, whose highlights are cleared. Drawing is clipped to those tiles, so the cost of a draw depends
+     * on how much changed rather than on the size of the map. The whole map is redrawn when
+     * another scenario is shown, the canvas is resized, or the grid or coordinates are toggled.
+     * <p>
+     * Tiles are drawn by copying their terrain, grid lines and coordinate from a terrain layer,
+     * which is only drawn again in those cases or when a tile type changes, and drawing their
+     * entity on top.
      * @given
      */
     public void draw() {
-        this.drawnEntity.clear();
+        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        double gridSize = getGridSize();
+        if (scenario != drawnScenario || gridSize != drawnGridSize
+                || viewModel.showGrid() != drawnShowGrid
+                || viewModel.showCoordinate() != drawnShowCoordinate) {
+            if (drawnScenario != null) {
+                drawnScenario.removeGridListener(terrainListener);
+                drawnScenario.removeGridListener(dirtyTiles);
+            }
+            scenario.addGridListener(terrainListener);
+            scenario.addGridListener(dirtyTiles);
+            drawnScenario = scenario;
+            drawnGridSize = gridSize;
+            drawnShowGrid = viewModel.showGrid();
+            drawnShowCoordinate = viewModel.showCoordinate();
+            dirtyTiles.reset(scenario.getWidth(), scenario.getHeight());
+            terrainLayer = null;
+        }
+        if (terrainLayer == null) {
+            terrainLayer = drawTerrainLayer(scenario.getGridView(), gridSize);
+            dirtyTiles.markAll();
+        }
+        markRange(drawnMove);
+        markRange(drawnCollect);
         this.drawnMove.clear();
         this.drawnCollect.clear();
+        List<Event> arrows = getLastEvents(scenario.getLog());
+        markChangedArrows(drawnArrows, arrows);
+        drawnArrows = arrows;
 
         GraphicsContext gc = getGraphicsContext2D();
+        if (dirtyTiles.isAllDirty()) {
+            this.drawnEntity.clear();
+            gc.setFill(Color.ALICEBLUE);
+            gc.fillRect(0, 0, getWidth(), getHeight());
+            drawGrid();
+            drawLastEvent(arrows);
+        } else if (dirtyTiles.count() > 0) {
+            gc.save();
+            gc.beginPath();
+            int width = dirtyTiles.getWidth();
+            for (int i = dirtyTiles.next(0); i >= 0; i = dirtyTiles.next(i + 1)) {
+                gc.rect(i % width * gridSize, i / width * gridSize, gridSize, gridSize);
+            }
+            gc.clip();
+            gc.setFill(Color.ALICEBLUE);
+            gc.fillRect(0, 0, getWidth(), getHeight());
+            GridView grid = scenario.getGridView();
+            gc.setStroke(Color.GRAY);
+            for (int i = dirtyTiles.next(0); i >= 0; i = dirtyTiles.next(i + 1)) {
+                int x = i % width;
+                int y = i / width;
+                this.drawnEntity.remove(
+                    new ClickableRegion(x * gridSize, y * gridSize, gridSize, gridSize));
+                drawTile(grid, x, y);
+            }
+            drawLastEvent(arrows);
+            gc.restore();
+        }
+        dirtyTiles.clear();
+    }
+
+    /**
+     * Draws the terrain of every tile, with the grid and coordinates if they are shown, into an
+     * image at the resolution of the screen the canvas is on. The terrain only changes when the
+     * map is loaded, so this is done once rather than on every draw.
+     */
+    private Image drawTerrainLayer(GridView grid, double gridSize) {
+        Window window = getScene() == null ? null : getScene().getWindow();
+        double scale = window == null ? 1 : window.getOutputScaleX();
+        Canvas layer = new Canvas(Math.ceil(grid.getWidth() * gridSize * scale),
+            Math.ceil(grid.getHeight() * gridSize * scale));
+        GraphicsContext gc = layer.getGraphicsContext2D();
+        gc.scale(scale, scale);
+        gc.setStroke(Color.BLACK);
+        gc.setFill(Color.BLACK);
+        gc.setLineWidth(0.5);
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                gc.drawImage(tileSprites.get(grid.getType(grid.getGeometry().index(x, y))),
+                    x * gridSize, y * gridSize, gridSize, gridSize);
+                if (viewModel.showGrid()) {
+                    gc.strokeRect(x * gridSize, y * gridSize, gridSize, gridSize);
+                }
+                if (viewModel.showCoordinate()) {
+                    gc.fillText(x + "," + y, x * gridSize, y * gridSize + gridSize / 3);
+                }
+            }
+        }
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        terrainScale = scale;
+        return layer.snapshot(parameters, null);
+    }
 
-        gc.setFill(Color.ALICEBLUE);
-        gc.fillRect(0, 0, getWidth(), getHeight());
-        drawGrid();
-        drawLastEvent();
+    /**
+     * Marks the tiles of a highlighted range dirty, so the highlight is cleared
+     */
+    private void markRange(Map<ClickableRegion, Coordinate> range) {
+        for (Coordinate coordinate : range.values()) {
+            dirtyTiles.mark(coordinate.getX(), coordinate.getY());
+        }
+    }
+
+    /**
+     * Marks the tiles under the arrows that are only in one of the given lists dirty
+     */
+    private void markChangedArrows(List<Event> previous, List<Event> current) {
+        if (dirtyTiles.isAllDirty()) {
+            return;
+        }
+        Set<Event> before = Collections.newSetFromMap(new IdentityHashMap<>());
+        before.addAll(previous);
+        Set<Event> after = Collections.newSetFromMap(new IdentityHashMap<>());
+        after.addAll(current);
+        // an arrow head can reach past the centre of its tile into the neighbouring tiles
+        int margin = (int) Math.max(0,
+            Math.ceil((ARROW_HEAD_SIZE + 1 - drawnGridSize / 2) / drawnGridSize));
+        for (Event event : previous) {
+            if (!after.contains(event)) {
+                markArrow(event, margin);
+            }
+        }
+        for (Event event : current) {
+            if (!before.contains(event)) {
+                markArrow(event, margin);
+            }
+        }
+    }
+
+    /**
+     * Marks the tiles under an event's arrow dirty
+     */
+    private void markArrow(Event event, int margin) {
+        dirtyTiles.markArea(event.getInitialCoordinate().getX(),
+            event.getInitialCoordinate().getY(), event.getCoordinate().getX(),
+            event.getCoordinate().getY(), margin);
     }
 
     /**
@@ -289,7 +483,7 @@ public class ScenarioCanvas extends Canvas {
         transform = transform.createConcatenation(Transform.rotate(Math.toDegrees(angle), 0, 0));
         gc.setTransform(new Affine(transform));
 
-        int headSize = 8;
+        int headSize = ARROW_HEAD_SIZE;
         gc.strokeLine(0, 0, len, 0);
         gc.fillPolygon(new double[] {len, len - headSize, len - headSize, len},
             new double[] {0, -headSize, headSize, 0},
@@ -301,20 +495,40 @@ public class ScenarioCanvas extends Canvas {
     }
 
     /**
-     * Draws the last event(s) of the scenario.
+     * Returns the last event(s) of the scenario, the events logged since the last event of a
+     * user, or only that event if it is the last one.
+     * Only the end of the log is copied, not the whole log.
      */
-    private void drawLastEvent() {
-        Scenario scenario = ScenarioManager.getInstance().getScenario();
-        List<Event> events = scenario.getLog().getEvents();
+    private List<Event> getLastEvents(Logger log) {
+        for (long window = 16; ; window *= 2) {
+            int size = (int) Math.min(window, log.getRetainedCount());
+            List<Event> recent = log.getEventsSince(log.getEventCount() - size);
+            for (int i = recent.size() - 1; i >= 0; i--) {
+                if (recent.get(i).getEntity() instanceof User) {
+                    return i == recent.size() - 1 ? recent.subList(i, i + 1)
+                        : recent.subList(i + 1, recent.size());
+                }
+            }
+            if (size == log.getRetainedCount()) {
+                return recent;
+            }
+        }
+    }
+
+    /**
+     * Draws the last event(s) of the scenario, most recent first.
+     *
+     * @param events events to draw, see {@link #getLastEvents(Logger)}
+     */
+    private void drawLastEvent(List<Event> events) {
         if (events.size() == 0) {
             return;
         }
-        int index = events.size() - 1;
         GraphicsContext gc = getGraphicsContext2D();
         gc.setLineWidth(2.0);
         setLineDashes();
 
-        do {
+        for (int index = events.size() - 1; index >= 0; index--) {
             Event event = events.get(index);
             Color c = Color.BLACK;
             if (event instanceof MoveEvent) {
@@ -331,11 +545,7 @@ public class ScenarioCanvas extends Canvas {
                 event.getInitialCoordinate().getY() * gridSize + offset,
                 event.getCoordinate().getX() * gridSize + offset,
                 event.getCoordinate().getY() * gridSize + offset);
-            if (events.get(index).getEntity() instanceof User) {
-                break;
-            }
-            index--;
-        } while (index >= 0 && !(events.get(index).getEntity() instanceof User));
+        }
         setLineSolid();
         gc.setLineWidth(1.0);
     }
@@ -344,54 +554,46 @@ public class ScenarioCanvas extends Canvas {
      * Draws the tile grid that the game is played on.
      */
     private void drawGrid() {
-        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        GridView grid = ScenarioManager.getInstance().getScenario().getGridView();
         GraphicsContext gc = getGraphicsContext2D();
+        gc.drawImage(terrainLayer, 0, 0, terrainLayer.getWidth() / terrainScale,
+            terrainLayer.getHeight() / terrainScale);
         gc.setStroke(Color.GRAY);
-        for (int i = 0; i < scenario.getWidth(); i++) {
-            for (int j = 0; j < scenario.getHeight(); j++) {
-                drawTile(i, j);
+        for (int i = 0; i < grid.getWidth(); i++) {
+            for (int j = 0; j < grid.getHeight(); j++) {
+                drawContents(grid, i, j);
             }
         }
     }
 
     /**
      * Draws the tile at the specified grid position.
+     * The terrain, grid and coordinate are copied from the terrain layer.
      *
-     * @param x the column to draw
-     * @param y the row to draw
+     * @param grid the map being drawn
+     * @param x    the column to draw
+     * @param y    the row to draw
      */
-    private void drawTile(int x, int y) {
+    private void drawTile(GridView grid, int x, int y) {
         GraphicsContext gc = getGraphicsContext2D();
-        Scenario scenario = ScenarioManager.getInstance().getScenario();
-        Tile tile = scenario.getMapGrid()[Coordinate.convert(x, y)];
-
         double gridSize = getGridSize();
-
-        // draw sprite
-        gc.drawImage(tileSprites.get(tile.getType()),
+        double layerSize = gridSize * terrainScale;
+        gc.drawImage(terrainLayer, x * layerSize, y * layerSize, layerSize, layerSize,
             x * gridSize, y * gridSize, gridSize, gridSize);
-        // draw grid
-        if (viewModel.showGrid()) {
-            gc.setStroke(Color.BLACK);
-            gc.setLineWidth(0.5);
-            gc.strokeRect(x * gridSize, y * gridSize, gridSize, gridSize);
-            gc.setLineWidth(1.0);
-        }
-        // draw coordinate
-        if (viewModel.showCoordinate()) {
-            gc.setFill(Color.BLACK);
-            gc.fillText(String.format("%d,%d", x, y), x * gridSize,
-                y * gridSize + gridSize / 3);
+        drawContents(grid, x, y);
+    }
 
-        }
-        // draw sub entities
-        if (tile.hasContents()) {
-            Entity entity = null;
-            try {
-                entity = tile.getContents();
-            } catch (NoSuchEntityException ignored) {
-                easterEgg();
-            }
+    /**
+     * Draws the entity at the specified grid position, if there is one, over its terrain.
+     *
+     * @param grid the map being drawn
+     * @param x    the column to draw
+     * @param y    the row to draw
+     */
+    private void drawContents(GridView grid, int x, int y) {
+        double gridSize = getGridSize();
+        Entity entity = grid.getContents(grid.getGeometry().index(x, y));
+        if (entity != null) {
             this.drawnEntity.put(
                 new ClickableRegion(x * gridSize, y * gridSize, gridSize, gridSize),
                 entity);
@@ -440,6 +642,7 @@ public class ScenarioCanvas extends Canvas {
         // set buffer
         gc.drawImage(plantSprites.get(plant.getSize()),
             x * gridSize,  y * gridSize, gridSize, gridSize);
+        gc.setStroke(Color.BLACK);
         gc.strokeText(String.valueOf(plant.getSize().points), (x + 1) * gridSize - gridSize / 5,
             y * gridSize + gridSize / 5);
     }
@@ -507,6 +710,7 @@ public class ScenarioCanvas extends Canvas {
         } else {
             easterEgg();
         }
+        GridView grid = ScenarioManager.getInstance().getScenario().getGridView();
         for (Coordinate coordinate : locations) {
             int x = coordinate.getX();
             int y = coordinate.getY();
@@ -516,9 +720,7 @@ public class ScenarioCanvas extends Canvas {
 
             areas.put(region, coordinate);
             drawnEntity.remove(region);
-            boolean tileHasContents =
-                ScenarioManager.getInstance().getScenario()
-                    .getMapGrid()[Coordinate.convert(x, y)].hasContents();
+            boolean tileHasContents = grid.hasContents(coordinate.getIndex(grid.getGeometry()));
             Color c = isMove && !tileHasContents ? Color.DARKORCHID : Color.RED;
             // DRAW
             gc.setStroke(c);
@@ -5,6 +5,8 @@ import javafx.beans.binding.Bindings;
 import javafx.beans.property.StringProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -16,13 +18,14 @@ import javafx.stage.Stage;
 import researchsim.entities.Entity;
 import researchsim.entities.Fauna;
 import researchsim.entities.User;
-import researchsim.scenario.AnimalController;
 import researchsim.scenario.Scenario;
 import researchsim.scenario.ScenarioManager;
 import researchsim.util.BadSaveException;
 
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +37,11 @@ import java.util.Optional;
  * @given
  */
 public class View {
+    /**
+     * Seconds between autosaves of the current scenario
+     */
+    private static final long AUTOSAVE_SECONDS = 30;
+
     /**
      * Stage containing the application scene
      */
@@ -60,6 +68,7 @@ public class View {
     public View(Stage stage, ViewModel viewModel) throws BadSaveException {
         this.stage = stage;
         this.viewModel = viewModel;
+        recoverAutosaves();
 
         stage.setResizable(false);
 
@@ -78,13 +87,28 @@ public class View {
         final long nanosPerSecond = 1000000000;
 
         new AnimationTimer() {
+            private boolean firstFrame = true;
+            private long lastAutosave;
+
             @Override
             public void handle(long currentNanoTime) {
+                if (firstFrame) {
+                    firstFrame = false;
+                    lastAutosave = currentNanoTime;
+                }
                 if (viewModel.isChanged()) {
                     viewModel.notChanged();
                     viewModel.updateScenarioLog();
                     canvas.draw();
                 }
+                if (currentNanoTime - lastAutosave >= AUTOSAVE_SECONDS * nanosPerSecond) {
+                    lastAutosave = currentNanoTime;
+                    try {
+                        viewModel.autosave();
+                    } catch (IOException e) {
+                        System.err.println("Autosave failed: " + e.getMessage());
+                    }
+                }
             }
         }.start();
 
@@ -92,6 +116,41 @@ public class View {
         this.canvas.draw();
     }
 
+    /*
+     * Offers to recover each autosave left by an earlier run, then sets it aside whether it was
+     * recovered or not, so the autosaves of this run do not delete it
+     */
+    private void recoverAutosaves() {
+        List<Path> autosaves;
+        try {
+            autosaves = viewModel.findAutosaves();
+        } catch (IOException e) {
+            viewModel.createErrorDialog("Error looking for autosaves", e.getMessage());
+            return;
+        }
+        ButtonType recover = new ButtonType("Recover");
+        ButtonType setAside = new ButtonType("Set aside");
+        for (Path base : autosaves) {
+            Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "", recover, setAside);
+            alert.setTitle("Recover autosave");
+            alert.setHeaderText("An earlier run left an autosave at \"" + base + "\"");
+            alert.setContentText("Recover its scenario? The autosave files are kept with a"
+                + " .bak suffix either way.");
+            if (alert.showAndWait().orElse(setAside) == recover) {
+                try {
+                    viewModel.recoverAutosave(base);
+                } catch (IOException | BadSaveException e) {
+                    viewModel.createErrorDialog("Error recovering autosave", e.getMessage());
+                }
+            }
+            try {
+                viewModel.setAutosaveAside(base);
+            } catch (IOException e) {
+                viewModel.createErrorDialog("Error setting autosave aside", e.getMessage());
+            }
+        }
+    }
+
     /***
      * Prompts the user for a textual response via a dialog box.
      *
@@ -209,10 +268,7 @@ public class View {
         endTurnButton.setMnemonicParsing(true);
         endTurnButton.setAlignment(Pos.CENTER);
         endTurnButton.setOnAction((event) -> {
-            AnimalController manager = ScenarioManager.getInstance().getScenario().getController();
-            manager.move();
-            viewModel.registerChange();
-            viewModel.setHasMoved(false);
+            viewModel.endTurn();
         });
 
         endTurnButton.setAlignment(Pos.CENTER);
@@ -223,8 +279,8 @@ public class View {
         var scenarioStatistics = createInfoBox(viewModel.getScenarioStatisticsText(), 4);
         root.getChildren().add(scenarioStatistics);
 
-        var scenarioLogBox = createInfoBox(viewModel.getScenarioLogText(), 13);
-        root.getChildren().add(scenarioLogBox);
+        var scenarioLogList = createLogList(viewModel.getLogWindow().getEntries(), 13);
+        root.getChildren().add(scenarioLogList);
 
         return root;
     }
@@ -300,7 +356,11 @@ public class View {
                 return;
             }
             try {
-                viewModel.saveAs(new FileWriter(filename.get()));
+                if (filename.get().endsWith(".rsim")) {
+                    viewModel.saveBinaryAs(new FileOutputStream(filename.get()));
+                } else {
+                    viewModel.saveAs(new FileWriter(filename.get()));
+                }
             } catch (IOException e) {
                 viewModel.createErrorDialog("Error saving to file",
                     e.getMessage());
@@ -361,6 +421,24 @@ public class View {
         return infoBox;
     }
 
+    /*
+     * Creates a non-editable list showing one log entry per row
+     * Only the visible rows are laid out, and it automatically scrolls to the bottom
+     */
+    private ListView<String> createLogList(ObservableList<String> entries, int rowCount) {
+        var logList = new ListView<>(entries);
+        entries.addListener((ListChangeListener<String>) change -> {
+            if (!entries.isEmpty()) {
+                logList.scrollTo(entries.size() - 1);
+            }
+        });
+        logList.setFocusTraversable(false);
+        logList.setStyle("-fx-font-size: 14px;");
+        logList.setPrefHeight(rowCount * 20);
+        logList.setPrefWidth(300);
+        return logList;
+    }
+
     /* Prompts the user for a choice from a list of options */
     @SafeVarargs
     private <T> Optional<T> getChoice(String title, String header, String label,
@@ -6,11 +6,18 @@ import researchsim.entities.Entity;
 import researchsim.entities.Fauna;
 import researchsim.logging.Logger;
 import researchsim.map.TileType;
+import researchsim.scenario.Autosave;
 import researchsim.scenario.Scenario;
 import researchsim.scenario.ScenarioManager;
+import researchsim.scenario.SimulationEngine;
 import researchsim.util.BadSaveException;
 
 import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
 
@@ -53,10 +60,9 @@ public class ViewModel {
         "No statistics generated");
 
     /**
-     * Contents of the scenario log text box
+     * Most recent events of the scenario log, shown in the log list
      */
-    private final StringProperty scenarioLogText = new SimpleStringProperty(
-        "No events logged");
+    private final LogWindow logWindow = new LogWindow();
 
     /**
      * The currently selected (clicked) entity
@@ -66,6 +72,14 @@ public class ViewModel {
      * If the user has moved this turn
      */
     private boolean hasMoved = false;
+    /**
+     * Incremental autosave of the current scenario, null until the first autosave
+     */
+    private Autosave autosave;
+    /**
+     * Engine advancing the current scenario, null until the first turn is ended
+     */
+    private SimulationEngine engine;
 
     /**
      * Creates a new view model and constructs scenarios by reading from the given filenames.
@@ -74,13 +88,13 @@ public class ViewModel {
      * @throws IOException      if loading from a file specified generates an
      *                          IOException
      * @throws BadSaveException if any file is invalid according to
-     *                          {@link Scenario#load(Reader)}
+     *                          {@link Scenario#load(Path)}
      * @requires filenames != null &amp;&amp; filenames.size() >= 1
      * @given
      */
     public ViewModel(List<String> filenames) throws IOException, BadSaveException {
         for (String file : filenames) {
-            Scenario.load(new FileReader(file));
+            Scenario.load(Paths.get(file));
         }
 
         // make sure set scenario was first loaded
@@ -159,13 +173,12 @@ public class ViewModel {
     }
 
     /**
-     * Returns the property storing the contents of the scenario log text box.
+     * Returns the window of recent events shown in the scenario log list.
      *
-     * @return scenario log text
-     * @given
+     * @return scenario log window
      */
-    public StringProperty getScenarioLogText() {
-        return scenarioLogText;
+    public LogWindow getLogWindow() {
+        return logWindow;
     }
 
     /**
@@ -182,18 +195,9 @@ public class ViewModel {
     /**
      * Updates the contents of the scenario log and statistics text. <br>
      * If the log has no contents the method returns immediately.<br>
-     * The contents of the log text should be updated to:
-     * <pre>
-     * event1
-     * event2
-     * ...
-     * </pre>
-     * where:
-     * <ul>
-     *   <li>{@code event1} is the {@link #toString()} of the first event in the logger
-     *   <li>{@code event2} is the {@link #toString()} of the second event in the logger
-     *   <li>And so on...</li>
-     * </ul>
+     * The events logged since the last update are appended to the {@link #getLogWindow() log
+     * window}, one entry per event holding the {@link #toString()} of the event, so the cost of
+     * an update does not grow with the length of the log.
      * <p>
      * The contents of the statistics text should be updated to:
      * <pre>
@@ -211,29 +215,21 @@ public class ViewModel {
      * <p>
      * <p>
      * For example:
-     * <pre>
-     * Dave [User] at (6,1)
-     * MOVED TO (7,3)
-     * -----
-     * Crab [Fauna] at (1,1) [OCEAN]
-     * MOVED TO (3,1)
-     * -----</pre>
-     *  and
      *  <pre>
      * Entities Collected: 2
      * Tiles Traversed: 10
      * Points Earned: 5</pre>
      * <br>
      * Variables you will need:<br><ul>
-     *     <li>scenarioLogText</li>
+     *     <li>logWindow</li>
      *     <li>scenarioStatisticsText</li>
      * </ul>
      * @ass2
      */
     public void updateScenarioLog() {
         Logger log = ScenarioManager.getInstance().getScenario().getLog();
-        if (!log.getEvents().isEmpty()) {
-            scenarioLogText.setValue(log.toString());
+        if (log.getEventCount() > 0) {
+            logWindow.update(log);
             String stats = "Entities Collected: " + log.getEntitiesCollected() + "\n";
             stats = stats + "Tiles Traversed: " + log.getTilesTraversed() + "\n";
             stats = stats + "Points Earned: " + log.getPointsEarned() + "\n";
@@ -269,7 +265,99 @@ public class ViewModel {
      * @given
      */
     public void save() throws IOException {
-        saveAs(new FileWriter("saves/_default_save.txt"));
+        saveAs(new BufferedWriter(new FileWriter("saves/_default_save.txt")));
+    }
+
+    /**
+     * Ends the current turn, letting the animals of the current scenario move by advancing it
+     * one tick.
+     */
+    public void endTurn() {
+        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        if (engine == null || engine.getScenario() != scenario) {
+            engine = new SimulationEngine(scenario);
+        }
+        engine.step();
+        registerChange();
+        setHasMoved(false);
+    }
+
+    /**
+     * Autosaves the current scenario to "saves/_autosave-{name}.snapshot" and
+     * "saves/_autosave-{name}.journal", where {name} is the scenario's name with any character
+     * other than a letter, digit, '.', '_' or '-' replaced by '_'.
+     * <p>
+     * Only what changed since the last autosave is written, see {@link Autosave}. If the current
+     * scenario has changed since the last autosave a new snapshot is started for it, which is
+     * written in the background.
+     *
+     * @throws IOException if an IOException occurs when writing to the files
+     * @see #findAutosaves()
+     */
+    public void autosave() throws IOException {
+        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        if (autosave != null && autosave.getScenario() != scenario) {
+            autosave.close();
+            autosave = null;
+        }
+        if (autosave == null) {
+            autosave = new Autosave(scenario, Paths.get("saves",
+                "_autosave-" + scenario.getName().replaceAll("[^A-Za-z0-9._-]", "_")));
+        } else {
+            autosave.autosave();
+        }
+    }
+
+    /**
+     * Returns the base paths of the autosaves in "saves", left there by earlier runs.
+     * <p>
+     * They should each be recovered with {@link #recoverAutosave(Path)} or not, then set aside
+     * with {@link #setAutosaveAside(Path)}, before the first {@link #autosave()} of this run,
+     * which would otherwise delete the autosave of a scenario with the same name.
+     *
+     * @return base paths of the autosaves found
+     * @throws IOException if the saves folder cannot be read
+     */
+    public List<Path> findAutosaves() throws IOException {
+        List<Path> bases = new ArrayList<>();
+        Path saves = Paths.get("saves");
+        if (!Files.isDirectory(saves)) {
+            return bases;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(saves, "_autosave*.snapshot")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                bases.add(file.resolveSibling(
+                    name.substring(0, name.length() - ".snapshot".length())));
+            }
+        }
+        return bases;
+    }
+
+    /**
+     * Recovers the scenario of an autosave and makes it the current scenario, replacing any
+     * loaded scenario with the same name.
+     *
+     * @param base base path of the autosave, see {@link #findAutosaves()}
+     * @throws IOException      if the autosave files cannot be read
+     * @throws BadSaveException if the autosave is invalid
+     * @see Autosave#recover(Path)
+     */
+    public void recoverAutosave(Path base) throws IOException, BadSaveException {
+        ScenarioManager.getInstance().addScenario(Autosave.recover(base));
+        registerChange();
+    }
+
+    /**
+     * Sets the files of an autosave aside, so that the autosaves of this run do not delete them
+     * and they are not found again.
+     *
+     * @param base base path of the autosave, see {@link #findAutosaves()}
+     * @throws IOException if the files cannot be moved
+     * @see Autosave#setAside(Path)
+     */
+    public void setAutosaveAside(Path base) throws IOException {
+        Autosave.setAside(base);
     }
 
     /**
@@ -343,19 +431,34 @@ public class ViewModel {
      * Fauna-SMALL-1,1-LAND
      * </pre>
      *
+     * The scenario is streamed to the writer as it is encoded rather than built up as one
+     * string first. The writer is closed once the scenario has been written.
+     *
      * @param scenarioWriter writer to which the scenario will be written
      * @throws IOException if an IOException occurs when writing to the writer
      * @ass2
-     * @see Scenario#encode()
+     * @see Scenario#encodeTo(Appendable)
      */
     public void saveAs(Writer scenarioWriter) throws IOException {
         Scenario scenario = ScenarioManager.getInstance().getScenario();
-        try {
-            scenarioWriter.write(scenario.encode());
-        } catch (IOException e) {
-            ;
-        } finally {
-            scenarioWriter.close();
+        try (Writer writer = scenarioWriter instanceof BufferedWriter
+                ? scenarioWriter : new BufferedWriter(scenarioWriter)) {
+            scenario.encodeTo(writer);
+        }
+    }
+
+    /**
+     * Saves the current scenario to the given stream in the binary save format.
+     * The stream is closed once the scenario has been written.
+     *
+     * @param scenarioStream stream to which the scenario will be written
+     * @throws IOException if an IOException occurs when writing to the stream
+     * @see Scenario#encodeBinary(OutputStream)
+     */
+    public void saveBinaryAs(OutputStream scenarioStream) throws IOException {
+        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        try (OutputStream out = scenarioStream) {
+            scenario.encodeBinary(out);
         }
     }
 
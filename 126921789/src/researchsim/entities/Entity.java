@@ -1,6 +1,8 @@
 package researchsim.entities;
 
 import researchsim.map.Coordinate;
+import researchsim.map.TileType;
+import researchsim.util.BadSaveException;
 import researchsim.util.Encodable;
 
 import java.util.Objects;
@@ -24,9 +26,30 @@ public abstract class Entity implements Encodable {
     /**
      * Coordinate associated with the entity.
      * That is, where the entity is located on the map grid.
+     * Null while the entity is attached to an {@link EntityStore}, which holds it instead.
      */
     private Coordinate coordinate;
 
+    /**
+     * Store holding this entity's state, null if it is not attached to one.
+     */
+    private EntityStore store;
+
+    /**
+     * Slot of this entity in its store.
+     */
+    private int slot;
+
+    /**
+     * Id of an entity that has not been given one.
+     */
+    public static final long NO_ID = -1;
+
+    /**
+     * Id of the entity within its scenario, {@link #NO_ID} until it is given one.
+     */
+    private long id = NO_ID;
+
     /**
      * Creates an entity with a given size and coordinate.
      *
@@ -56,7 +79,7 @@ public abstract class Entity implements Encodable {
      * @ass1
      */
     public Coordinate getCoordinate() {
-        return coordinate;
+        return store != null ? store.getCoordinate(slot) : coordinate;
     }
 
     /**
@@ -66,6 +89,79 @@ public abstract class Entity implements Encodable {
      * @ass1
      */
     public void setCoordinate(Coordinate coordinate) {
+        if (store != null) {
+            store.setPosition(slot, coordinate.getX(), coordinate.getY());
+        } else {
+            this.coordinate = coordinate;
+        }
+    }
+
+    /**
+     * Returns the id this entity was given by the scenario it is in.
+     * <p>
+     * Ids are given out in the order entities are registered, for animals by the scenario's
+     * {@link researchsim.scenario.AnimalController}, and do not change afterwards, so unlike
+     * the coordinate or {@link #equals(Object)} they identify one entity for its whole life.
+     *
+     * @return the entity's id, or {@link #NO_ID} if it has not been given one
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gives this entity its id. An entity can only be given one id.
+     *
+     * @param id the id, at least 0
+     * @throws IllegalArgumentException if the id is negative
+     * @throws IllegalStateException    if the entity already has a different id
+     */
+    public void assignId(long id) throws IllegalArgumentException, IllegalStateException {
+        if (id < 0) {
+            throw new IllegalArgumentException("Entity ids cannot be negative: " + id);
+        }
+        if (this.id != NO_ID && this.id != id) {
+            throw new IllegalStateException(this + " already has id " + this.id);
+        }
+        this.id = id;
+        if (store != null) {
+            store.setId(slot, id);
+        }
+    }
+
+    /**
+     * Returns the store this entity is attached to.
+     *
+     * @return the entity's store, or null if it is not attached to one
+     * @see EntityStore
+     */
+    public EntityStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns the slot of this entity in the store it is attached to.
+     *
+     * @return the entity's slot, only meaningful while {@link #getStore()} is not null
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Makes this entity a handle on a slot of a store, which now holds its position
+     */
+    void attach(EntityStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+        this.coordinate = null;
+    }
+
+    /**
+     * Detaches this entity from its store, giving it back its own coordinate
+     */
+    void detach(Coordinate coordinate) {
+        this.store = null;
         this.coordinate = coordinate;
     }
 
@@ -105,18 +201,18 @@ public abstract class Entity implements Encodable {
         return String.format("%s [%s] at %s",
             getName(),
             this.getClass().getSimpleName(),
-            this.coordinate);
+            getCoordinate());
     }
 
     /**
      * returns the hashcode of an entity
-     * Hashcode of entity made by hashing size and coordinate and multiplying them
+     * Hashcode of entity made by combining the hashes of size and coordinate
      * this is to ensure the hash is coordinate and size dependent
      * @return hashcode of entity
      */
     @Override
     public int hashCode() {
-        return (int) this.size.hashCode() * this.coordinate.hashCode();
+        return 31 * this.size.hashCode() + getCoordinate().hashCode();
     }
 
     /**
@@ -144,7 +240,33 @@ public abstract class Entity implements Encodable {
      */
     public String encode() {
         String name = this.getClass().getSimpleName();
+        Coordinate coordinate = getCoordinate();
         name = name + '-' + getSize() + '-' + coordinate.getX() + ',' + coordinate.getY();
         return name;
     }
+
+    /**
+     * returns a new entity based on the encoded string given
+     * the String given should match the format of an encoded User, Fauna or Flora
+     * (see {@link User#encode()}, {@link Fauna#encode()} and {@link #encode()})
+     * @param encoded the encoded String matching the format of an encoded entity
+     * @return the new entity
+     * @throws BadSaveException if the string is not an encoded entity
+     */
+    public static Entity decode(String encoded) throws BadSaveException {
+        String[] parts = encoded.split("-");
+        try {
+            if (parts[0].equals("User") && parts.length == 3) {
+                return new User(Coordinate.decode(parts[1]), parts[2]);
+            } else if (parts[0].equals("Fauna") && parts.length == 4) {
+                return new Fauna(Size.valueOf(parts[1]), Coordinate.decode(parts[2]),
+                    TileType.valueOf(parts[3]));
+            } else if (parts[0].equals("Flora") && parts.length == 3) {
+                return new Flora(Size.valueOf(parts[1]), Coordinate.decode(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadSaveException("Bad entity '" + encoded + "'", e);
+        }
+        throw new BadSaveException("Bad entity '" + encoded + "'");
+    }
 }
@@ -0,0 +1,370 @@
+package researchsim.entities;
+
+import researchsim.map.Coordinate;
+import researchsim.map.CoordinateCache;
+import researchsim.map.GridListener;
+import researchsim.map.GridView;
+import researchsim.map.TileType;
+
+import java.util.Arrays;
+
+/**
+ * The state of the entities on a map kept as parallel arrays of primitives, one slot per
+ * entity, instead of spread over one object per entity.
+ * <p>
+ * For every slot the store holds the entity's position, the ordinal of its {@link Size}, the
+ * ordinal of its habitat if it is a {@link Fauna}, its kind, its {@link Entity#getId() id} and
+ * whether the slot is in use. Systems that touch every entity each tick, such as
+ * {@link researchsim.scenario.ParallelMovementPolicy}, can read these arrays in order rather
+ * than follow a reference to every entity and its coordinate.
+ * <p>
+ * An entity is attached to the store while it is on the map. While attached, the entity is a
+ * handle on its slot: its position is read from and written to the store, and the entity no
+ * longer holds a coordinate of its own. Coordinates are handed out from the map's
+ * {@link CoordinateCache}. When the entity leaves the map it is detached, its position is
+ * copied back into it and its slot is freed for reuse. Freed slots are reused most recently
+ * freed first, so an entity that moves, leaving one tile and entering another, keeps its slot.
+ * <p>
+ * The store is kept up to date as a {@link GridListener} of the map's tile store; see
+ * {@link researchsim.scenario.Scenario#enableEntityStore()}. An entity can be attached to at
+ * most one store. The arrays may be read from several threads at once, but not while the map
+ * is changing.
+ */
+public final class EntityStore implements GridListener {
+
+    /**
+     * Kind of a slot holding a {@link Fauna}.
+     */
+    public static final byte FAUNA = 0;
+
+    /**
+     * Kind of a slot holding a {@link Flora}.
+     */
+    public static final byte FLORA = 1;
+
+    /**
+     * Kind of a slot holding a {@link User}.
+     */
+    public static final byte USER = 2;
+
+    /**
+     * Habitat ordinal of an entity without a habitat
+     */
+    private static final byte NO_HABITAT = -1;
+
+    /**
+     * Sizes by ordinal
+     */
+    private static final Size[] SIZES = Size.values();
+
+    /**
+     * Tile types by ordinal
+     */
+    private static final TileType[] TILE_TYPES = TileType.values();
+
+    /**
+     * Shared coordinates of the map's tiles
+     */
+    private final CoordinateCache coordinates;
+
+    /**
+     * Horizontal position of each slot
+     */
+    private int[] xs = new int[16];
+
+    /**
+     * Vertical position of each slot
+     */
+    private int[] ys = new int[16];
+
+    /**
+     * Size ordinal of each slot
+     */
+    private byte[] sizes = new byte[16];
+
+    /**
+     * Habitat ordinal of each slot, {@link #NO_HABITAT} for entities other than fauna
+     */
+    private byte[] habitats = new byte[16];
+
+    /**
+     * Kind of entity in each slot
+     */
+    private byte[] kinds = new byte[16];
+
+    /**
+     * Whether each slot is in use
+     */
+    private boolean[] alive = new boolean[16];
+
+    /**
+     * Id of the entity in each slot
+     */
+    private long[] ids = new long[16];
+
+    /**
+     * Entity attached to each slot, null for free slots
+     */
+    private Entity[] entities = new Entity[16];
+
+    /**
+     * Freed slots, the most recently freed last
+     */
+    private int[] free = new int[16];
+
+    /**
+     * Number of freed slots
+     */
+    private int freeCount;
+
+    /**
+     * Number of slots ever used, every slot below it is either in use or free
+     */
+    private int slotCount;
+
+    /**
+     * Creates an empty store for a map.
+     *
+     * @param coordinates shared coordinates of the map's tiles
+     */
+    public EntityStore(CoordinateCache coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    /**
+     * Creates a store with every entity currently on the given map attached to it, in grid
+     * index order.
+     *
+     * @param grid        map whose entities to attach
+     * @param coordinates shared coordinates of the map's tiles
+     * @return the populated store
+     */
+    public static EntityStore of(GridView grid, CoordinateCache coordinates) {
+        EntityStore store = new EntityStore(coordinates);
+        for (int i = 0; i < grid.getSize(); i++) {
+            Entity entity = grid.getContents(i);
+            if (entity != null && entity.getStore() == null) {
+                store.attach(entity);
+            }
+        }
+        return store;
+    }
+
+    @Override
+    public void contentsChanged(int index, Entity previous, Entity current) {
+        if (previous != null && previous.getStore() == this) {
+            detach(previous);
+        }
+        if (current != null && current.getStore() == null) {
+            attach(current);
+        }
+    }
+
+    /**
+     * Attaches an entity to a free slot, copying its state into the store.
+     *
+     * @param entity entity to attach
+     * @return the entity's slot
+     * @throws IllegalStateException if the entity is already attached to a store
+     */
+    public int attach(Entity entity) throws IllegalStateException {
+        if (entity.getStore() != null) {
+            throw new IllegalStateException(entity + " is already attached to a store.");
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = free[--freeCount];
+        } else {
+            if (slotCount == alive.length) {
+                grow(slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        Coordinate coordinate = entity.getCoordinate();
+        xs[slot] = coordinate.getX();
+        ys[slot] = coordinate.getY();
+        sizes[slot] = (byte) entity.getSize().ordinal();
+        if (entity instanceof Fauna) {
+            kinds[slot] = FAUNA;
+            habitats[slot] = (byte) ((Fauna) entity).getHabitat().ordinal();
+        } else {
+            kinds[slot] = entity instanceof User ? USER : FLORA;
+            habitats[slot] = NO_HABITAT;
+        }
+        ids[slot] = entity.getId();
+        alive[slot] = true;
+        entities[slot] = entity;
+        entity.attach(this, slot);
+        return slot;
+    }
+
+    /**
+     * Detaches an entity, copying its position back into it and freeing its slot.
+     *
+     * @param entity entity to detach
+     * @throws IllegalArgumentException if the entity is not attached to this store
+     */
+    public void detach(Entity entity) throws IllegalArgumentException {
+        if (entity.getStore() != this) {
+            throw new IllegalArgumentException(entity + " is not attached to this store.");
+        }
+        int slot = entity.getSlot();
+        Coordinate coordinate = getCoordinate(slot);
+        entity.detach(coordinate);
+        alive[slot] = false;
+        entities[slot] = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = slot;
+    }
+
+    /**
+     * Detaches every entity attached to the store.
+     */
+    public void detachAll() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (alive[slot]) {
+                detach(entities[slot]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of slots ever used. Every slot from 0 to one less than this is either
+     * in use or free, so this is the bound to iterate slots up to.
+     *
+     * @return slot count
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Returns the number of entities attached to the store.
+     *
+     * @return entity count
+     */
+    public int size() {
+        return slotCount - freeCount;
+    }
+
+    /**
+     * Returns whether a slot holds an entity.
+     *
+     * @param slot slot to check
+     * @return true if the slot is in use
+     */
+    public boolean isAlive(int slot) {
+        return alive[slot];
+    }
+
+    /**
+     * Returns the kind of entity in a slot.
+     *
+     * @param slot slot in use
+     * @return {@link #FAUNA}, {@link #FLORA} or {@link #USER}
+     */
+    public byte getKind(int slot) {
+        return kinds[slot];
+    }
+
+    /**
+     * Returns the horizontal position of the entity in a slot.
+     *
+     * @param slot slot in use
+     * @return x position
+     */
+    public int getX(int slot) {
+        return xs[slot];
+    }
+
+    /**
+     * Returns the vertical position of the entity in a slot.
+     *
+     * @param slot slot in use
+     * @return y position
+     */
+    public int getY(int slot) {
+        return ys[slot];
+    }
+
+    /**
+     * Returns the size of the entity in a slot.
+     *
+     * @param slot slot in use
+     * @return entity size
+     */
+    public Size getSize(int slot) {
+        return SIZES[sizes[slot]];
+    }
+
+    /**
+     * Returns the habitat of the fauna in a slot.
+     *
+     * @param slot slot in use
+     * @return habitat, or null if the slot does not hold a fauna
+     */
+    public TileType getHabitat(int slot) {
+        return habitats[slot] == NO_HABITAT ? null : TILE_TYPES[habitats[slot]];
+    }
+
+    /**
+     * Returns the id of the entity in a slot.
+     *
+     * @param slot slot in use
+     * @return entity id, or {@link Entity#NO_ID} if it had none when it was attached
+     */
+    public long getId(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * Returns the entity attached to a slot.
+     *
+     * @param slot slot to look at
+     * @return the entity, or null if the slot is free
+     */
+    public Entity getEntity(int slot) {
+        return entities[slot];
+    }
+
+    /**
+     * Returns the coordinate of the entity in a slot, shared with the map's coordinate cache.
+     *
+     * @param slot slot in use
+     * @return entity coordinate
+     */
+    public Coordinate getCoordinate(int slot) {
+        return coordinates.get(xs[slot], ys[slot]);
+    }
+
+    /**
+     * Moves the entity in a slot
+     */
+    void setPosition(int slot, int x, int y) {
+        xs[slot] = x;
+        ys[slot] = y;
+    }
+
+    /**
+     * Records the id an attached entity was given
+     */
+    void setId(int slot, long id) {
+        ids[slot] = id;
+    }
+
+    /**
+     * Grows every array to the given number of slots
+     */
+    private void grow(int length) {
+        xs = Arrays.copyOf(xs, length);
+        ys = Arrays.copyOf(ys, length);
+        sizes = Arrays.copyOf(sizes, length);
+        habitats = Arrays.copyOf(habitats, length);
+        kinds = Arrays.copyOf(kinds, length);
+        alive = Arrays.copyOf(alive, length);
+        ids = Arrays.copyOf(ids, length);
+        entities = Arrays.copyOf(entities, length);
+    }
+}
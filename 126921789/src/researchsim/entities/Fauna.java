@@ -3,8 +3,11 @@ package researchsim.entities;
 import researchsim.logging.CollectEvent;
 import researchsim.logging.MoveEvent;
 import researchsim.map.Coordinate;
+import researchsim.map.GridView;
+import researchsim.map.Reachability;
 import researchsim.map.Tile;
 import researchsim.map.TileType;
+import researchsim.scenario.Scenario;
 import researchsim.scenario.ScenarioManager;
 import researchsim.util.*;
 import java.util.ArrayList;
@@ -149,13 +152,13 @@ public class Fauna extends Entity implements Movable, Collectable {
 
     /**
      * returns the hash value of the Fauna instance
-     * creates hash by hashing size, coordinate and habitat and multiplying them 
+     * creates hash by combining the hashes of size, coordinate and habitat
      * Hash is then size, coordinate and habitat dependent
      * @return the hash value of the Fauna
      */
     @Override
     public int hashCode() {
-        return getSize().hashCode() * getCoordinate().hashCode() * this.habitat.hashCode();
+        return 31 * super.hashCode() + this.habitat.hashCode();
     }
 
     /**
@@ -185,28 +188,26 @@ public class Fauna extends Entity implements Movable, Collectable {
     @Override
     public String encode() {
         String name = super.encode();
-        return name + getHabitat().toString();
+        return name + '-' + getHabitat().toString();
     }
 
     /**
      * returns the possible moves of the fauna given its size and if it can move there
-     * uses checkRange to find all possible coordinates that can be moved to given its size
-     * Then uses canMove to see which of those coordinates it can move to
-     * Any CoordinateOutOfBoundsExceptions thrown are ignored
+     * the coordinates are found with a single flood fill out from the animal's coordinate,
+     * in the same order as checkRange lists them, see {@link Reachability#fill}
      * @return list of all possible moves
      */
     @Override
     public List<Coordinate> getPossibleMoves() {
-        List<Coordinate> possibleMoves = new ArrayList<>();
-        List<Coordinate> moves = checkRange(getSize().moveDistance, getCoordinate());
-        for (Coordinate coordinate : moves) {
-            try {
-                if (canMove(coordinate)) {
-                    possibleMoves.add(coordinate);
-                }
-            } catch (CoordinateOutOfBoundsException e) {
-                ;
-            }
+        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        GridView grid = scenario.getGridView();
+        int radius = getSize().moveDistance;
+        int[] indices = DiamondOffsets.buffer(radius);
+        int count = Reachability.fill(grid, getCoordinate().getX(), getCoordinate().getY(),
+            radius, getTileRule(grid), indices);
+        List<Coordinate> possibleMoves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            possibleMoves.add(scenario.getCoordinates().get(indices[i]));
         }
         return possibleMoves;
     }
@@ -231,86 +232,40 @@ public class Fauna extends Entity implements Movable, Collectable {
      * is out of bounds for current scenario
      */
     public boolean canMove(Coordinate coordinate) throws CoordinateOutOfBoundsException {
-
-        ScenarioManager scenarioManager = ScenarioManager.getInstance();
-        int absX = coordinate.distance(getCoordinate()).getAbsX();
-        int absY = coordinate.distance(getCoordinate()).getAbsY();
-        int distance = absX + absY;
-
-        if (!coordinate.isInBounds()) {
+        GridView grid = ScenarioManager.getInstance().getScenario().getGridView();
+        if (!coordinate.isInBounds(grid.getGeometry())) {
             throw new CoordinateOutOfBoundsException();
-        } else {
-            Tile tile = scenarioManager.getScenario().getMapGrid()[coordinate.getIndex()];
-            if (coordinate.equals(getCoordinate())) {
-                return false;
-            } else if (distance > getSize().moveDistance) {
-                return false;
-            } else if (getHabitat() == TileType.OCEAN && tile.getType() != TileType.OCEAN) {
-                return false;
-            } else if (getHabitat() == TileType.LAND && tile.getType() == TileType.OCEAN) {
-                return false;
-            } else if (tile.hasContents()) {
-                return false;
-            }
         }
-
-        //Base step, if distance is 1 and all conditions are true, then can move to
-        if (distance == 1) {
-            return true;
+        int absX = coordinate.distance(getCoordinate()).getAbsX();
+        int absY = coordinate.distance(getCoordinate()).getAbsY();
+        if (absX + absY > getSize().moveDistance) {
+            return false;
         }
-        if (getCoordinate().getY() == coordinate.getY()
-                && getCoordinate().getX() > coordinate.getX()) {
-            try {
-                return canMove(coordinate.translate(1, 0));
-            } catch (CoordinateOutOfBoundsException e) {
-                return false;
-            }
+        return Reachability.canReach(grid, getCoordinate().getX(), getCoordinate().getY(),
+            coordinate.getX(), coordinate.getY(), getTileRule(grid));
+    }
 
-        } else if (getCoordinate().getY() == coordinate.getY()
-                && getCoordinate().getX() < coordinate.getX()) {
-            try {
-                return canMove(coordinate.translate(-1, 0));
-            } catch (CoordinateOutOfBoundsException e) {
-                return false;
-            }
+    /**
+     * returns the rule for which tiles the animal can pass through
+     * a tile can be passed through if it is unoccupied and is OCEAN iff the habitat is OCEAN
+     * @param grid the map the animal is on
+     * @return tile rule for the animal
+     */
+    private Reachability.TileRule getTileRule(GridView grid) {
+        return getTileRule(grid, habitat);
+    }
 
-        } else if (getCoordinate().getX() == coordinate.getX()
-                && getCoordinate().getY() < coordinate.getY()) {
-            try {
-                return canMove(coordinate.translate(0, -1));
-            } catch (CoordinateOutOfBoundsException e) {
-                return false;
-            }
-        } else if (getCoordinate().getX() == coordinate.getX()
-                && getCoordinate().getY() > coordinate.getY()) {
-            try {
-                return (canMove(coordinate.translate(0, 1)));
-            } catch (CoordinateOutOfBoundsException e) {
-                return false;
-            }
-        } else {
-            Coordinate coordinate1 = new Coordinate(getCoordinate().getX(), getCoordinate().getY());
-            int x = coordinate.distance(getCoordinate()).getX();
-            int y = coordinate.distance(getCoordinate()).getY();
-            Coordinate coordinate2 = coordinate.translate(0, y);
-            Coordinate coordinate3 = coordinate.translate(x, 0);
-            setCoordinate(coordinate2);
-            if (canMove(coordinate)) {
-                setCoordinate(coordinate1);
-                if (canMove(coordinate2)) {
-                    return true;
-                }
-            }
-            setCoordinate(coordinate3);
-            if (canMove(coordinate)) {
-                setCoordinate(coordinate1);
-                if (canMove(coordinate3)) {
-                    return true;
-                }
-            }
-            setCoordinate(coordinate1);
-            return false;
-        }
+    /**
+     * returns the rule for which tiles an animal with the given habitat can pass through,
+     * for systems that move animals without going through their objects, see {@link EntityStore}
+     * @param grid the map the animal is on
+     * @param habitat the animal's habitat
+     * @return tile rule for animals with the habitat
+     */
+    public static Reachability.TileRule getTileRule(GridView grid, TileType habitat) {
+        boolean aquatic = habitat == TileType.OCEAN;
+        return index -> (grid.getType(index) == TileType.OCEAN) == aquatic
+            && !grid.hasContents(index);
     }
 
     /**
@@ -324,11 +279,12 @@ public class Fauna extends Entity implements Movable, Collectable {
     @Override
     public void move(Coordinate coordinate) {
         ScenarioManager scenarioManager = ScenarioManager.getInstance();
+        GridView grid = scenarioManager.getScenario().getGridView();
         final MoveEvent moveEvent = new MoveEvent(this, coordinate);
-        Tile oldTile = scenarioManager.getScenario().getMapGrid()[getCoordinate().getIndex()];
+        Tile oldTile = grid.getTile(getCoordinate().getIndex(grid.getGeometry()));
         oldTile.setContents(null);
         setCoordinate(coordinate);
-        Tile newTile = scenarioManager.getScenario().getMapGrid()[coordinate.getIndex()];
+        Tile newTile = grid.getTile(coordinate.getIndex(grid.getGeometry()));
         newTile.setContents(this);
         scenarioManager.getScenario().getLog().add(moveEvent);
 
@@ -343,9 +299,10 @@ public class Fauna extends Entity implements Movable, Collectable {
      */
     public int collect(User user) {
         ScenarioManager scenarioManager = ScenarioManager.getInstance();
+        GridView grid = scenarioManager.getScenario().getGridView();
         CollectEvent collectEvent = new CollectEvent(user, this);
         scenarioManager.getScenario().getLog().add(collectEvent);
-        Tile oldTile = scenarioManager.getScenario().getMapGrid()[getCoordinate().getIndex()];
+        Tile oldTile = grid.getTile(getCoordinate().getIndex(grid.getGeometry()));
         oldTile.setContents(null);
         scenarioManager.getScenario().getController().removeAnimal(this);
         return getSize().points;
@@ -2,6 +2,7 @@ package researchsim.entities;
 
 import researchsim.logging.CollectEvent;
 import researchsim.map.Coordinate;
+import researchsim.map.GridView;
 import researchsim.map.Tile;
 import researchsim.scenario.ScenarioManager;
 import researchsim.util.Collectable;
@@ -85,9 +86,10 @@ public class Flora extends Entity implements Collectable {
      */
     public int collect(User user) {
         ScenarioManager scenarioManager = ScenarioManager.getInstance();
+        GridView grid = scenarioManager.getScenario().getGridView();
         CollectEvent collectEvent = new CollectEvent(user, this);
         scenarioManager.getScenario().getLog().add(collectEvent);
-        Tile oldTile = scenarioManager.getScenario().getMapGrid()[getCoordinate().getIndex()];
+        Tile oldTile = grid.getTile(getCoordinate().getIndex(grid.getGeometry()));
         oldTile.setContents(null);
         return getSize().points;
     }
@@ -3,8 +3,11 @@ package researchsim.entities;
 import researchsim.logging.CollectEvent;
 import researchsim.logging.MoveEvent;
 import researchsim.map.Coordinate;
+import researchsim.map.GridView;
+import researchsim.map.Reachability;
 import researchsim.map.Tile;
 import researchsim.map.TileType;
+import researchsim.scenario.Scenario;
 import researchsim.scenario.ScenarioManager;
 import researchsim.util.*;
 
@@ -97,105 +100,54 @@ public class User extends Entity implements Movable, Encodable   {
      * @throws CoordinateOutOfBoundsException if given coordinate is out of bounds
      */
     public boolean canMove(Coordinate coordinate) throws CoordinateOutOfBoundsException {
-        ScenarioManager scenarioManager = ScenarioManager.getInstance();
-        int absX = coordinate.distance(getCoordinate()).getAbsX();
-        int absY = coordinate.distance(getCoordinate()).getAbsY();
-        int distance = absX + absY;
-
-        if (!coordinate.isInBounds()) {
+        GridView grid = ScenarioManager.getInstance().getScenario().getGridView();
+        if (!coordinate.isInBounds(grid.getGeometry())) {
             throw new CoordinateOutOfBoundsException();
-        } else {
-            Tile tile = scenarioManager.getScenario().getMapGrid()[coordinate.getIndex()];
-            if (coordinate == getCoordinate()) {
-                return false;
-            } else if (distance > 4) { // 4 comes from javadoc specification
-                return false;
-            } else if (tile.getType() == TileType.OCEAN | tile.getType() == TileType.MOUNTAIN) {
-                return false;
-            }
-        }
-        if (distance == 1) {
-            return true;
         }
-        if (getCoordinate().getY() == coordinate.getY()
-                && getCoordinate().getX() > coordinate.getX()) {
-            try {
-                return canMove(coordinate.translate(1, 0));
-            } catch (CoordinateOutOfBoundsException e) {
-                return false;
-            }
-
-        } else if (getCoordinate().getY() == coordinate.getY()
-                && getCoordinate().getX() < coordinate.getX()) {
-            try {
-                return canMove(coordinate.translate(-1, 0));
-            } catch (CoordinateOutOfBoundsException e) {
-                return false;
-            }
-
-        } else if (getCoordinate().getX() == coordinate.getX()
-                && getCoordinate().getY() < coordinate.getY()) {
-            try {
-                return canMove(coordinate.translate(0, -1));
-            } catch (CoordinateOutOfBoundsException e) {
-                return false;
-            }
-        } else if (getCoordinate().getX() == coordinate.getX()
-                && getCoordinate().getY() > coordinate.getY()) {
-            try {
-                return (canMove(coordinate.translate(0, 1)));
-            } catch (CoordinateOutOfBoundsException e) {
-                return false;
-            }
-        } else {
-            Coordinate coordinate1 = new Coordinate(getCoordinate().getX(), getCoordinate().getY());
-            int x = coordinate.distance(getCoordinate()).getX();
-            int y = coordinate.distance(getCoordinate()).getY();
-            Coordinate coordinate2 = coordinate.translate(0, y);
-            Coordinate coordinate3 = coordinate.translate(x, 0);
-            setCoordinate(coordinate2);
-            if (canMove(coordinate)) {
-                setCoordinate(coordinate1);
-                if (canMove(coordinate2)) {
-                    return true;
-                }
-            }
-            setCoordinate(coordinate3);
-            if (canMove(coordinate)) {
-                setCoordinate(coordinate1);
-                if (canMove(coordinate3)) {
-                    return true;
-                }
-            }
-            setCoordinate(coordinate1);
+        int absX = coordinate.distance(getCoordinate()).getAbsX();
+        int absY = coordinate.distance(getCoordinate()).getAbsY();
+        if (absX + absY > 4) { // 4 comes from javadoc specification
             return false;
         }
+        return Reachability.canReach(grid, getCoordinate().getX(), getCoordinate().getY(),
+            coordinate.getX(), coordinate.getY(), getTileRule(grid));
     }
 
 
     /**
      * returns the possible moves of the User given its size and if it can move there
-     * uses checkRange to find all possible coordinates that can be moved to given its size
-     * Then uses canMove to see which of those coordinates it can move to.
-     * Any CoordinateOutOfBoundsExceptions thrown are ignored
+     * the coordinates are found with a single flood fill out from the user's coordinate,
+     * in the same order as checkRange lists them, see {@link Reachability#fill}
      * @return list of all possible moves
      */
     @Override
     public List<Coordinate> getPossibleMoves() {
-        List<Coordinate> possibleMoves = new ArrayList<>();
-        List<Coordinate> moves = checkRange(getSize().moveDistance, getCoordinate());
-        for (Coordinate coordinate : moves) {
-            try {
-                if (canMove(coordinate)) {
-                    possibleMoves.add(coordinate);
-                }
-            } catch (CoordinateOutOfBoundsException e) {
-                assert true;
-            }
+        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        GridView grid = scenario.getGridView();
+        int radius = getSize().moveDistance;
+        int[] indices = DiamondOffsets.buffer(radius);
+        int count = Reachability.fill(grid, getCoordinate().getX(), getCoordinate().getY(),
+            radius, getTileRule(grid), indices);
+        List<Coordinate> possibleMoves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            possibleMoves.add(scenario.getCoordinates().get(indices[i]));
         }
         return possibleMoves;
     }
 
+    /**
+     * returns the rule for which tiles the user can pass through
+     * a tile can be passed through if it is NOT OCEAN or MOUNTAIN, occupied tiles are allowed
+     * @param grid the map the user is on
+     * @return tile rule for the user
+     */
+    private Reachability.TileRule getTileRule(GridView grid) {
+        return index -> {
+            TileType type = grid.getType(index);
+            return type != TileType.OCEAN && type != TileType.MOUNTAIN;
+        };
+    }
+
     /**
      * Moves the user to the coordinate in the parameter.
      * sets user coordinate to new coordinate and sets tile contents at old coordinate to null
@@ -206,11 +158,12 @@ public class User extends Entity implements Movable, Encodable   {
     @Override
     public void move(Coordinate coordinate) {
         ScenarioManager scenarioManager = ScenarioManager.getInstance();
+        GridView grid = scenarioManager.getScenario().getGridView();
         MoveEvent moveEvent = new MoveEvent(this, coordinate);
-        Tile oldTile = scenarioManager.getScenario().getMapGrid()[getCoordinate().getIndex()];
+        Tile oldTile = grid.getTile(getCoordinate().getIndex(grid.getGeometry()));
         oldTile.setContents(null);
         setCoordinate(coordinate);
-        Tile newTile = scenarioManager.getScenario().getMapGrid()[coordinate.getIndex()];
+        Tile newTile = grid.getTile(coordinate.getIndex(grid.getGeometry()));
         scenarioManager.getScenario().getLog().add(moveEvent);
         try {
             if (newTile.getContents() instanceof Collectable) {
@@ -232,16 +185,15 @@ public class User extends Entity implements Movable, Encodable   {
      */
     public List<Coordinate> getPossibleCollection() {
         ScenarioManager scenarioManager = ScenarioManager.getInstance();
-        List<Coordinate> coordinates = checkRange(1, getCoordinate());
+        GridView grid = scenarioManager.getScenario().getGridView();
+        int[] indices = DiamondOffsets.buffer(1);
+        int count = checkRange(1, getCoordinate().getX(), getCoordinate().getY(),
+            grid.getWidth(), grid.getHeight(), indices);
         List<Coordinate> possibleCollection = new ArrayList<>();
-        for (Coordinate coordinate : coordinates) {
-            Tile tile = scenarioManager.getScenario().getMapGrid()[coordinate.getIndex()];
-            try {
-                if (coordinate.isInBounds() && tile.getContents() instanceof Collectable) {
-                    possibleCollection.add(coordinate);
-                }
-            } catch (NoSuchEntityException e) {
-                ;
+        for (int i = 0; i < count; i++) {
+            if (grid.getContents(indices[i]) instanceof Collectable) {
+                possibleCollection.add(scenarioManager.getScenario().getCoordinates()
+                    .get(indices[i]));
             }
         }
         return possibleCollection;
@@ -259,32 +211,18 @@ public class User extends Entity implements Movable, Encodable   {
      */
     public void collect(Coordinate coordinate)
             throws NoSuchEntityException, CoordinateOutOfBoundsException {
-        if (!coordinate.isInBounds()) {
+        ScenarioManager scenarioManager = ScenarioManager.getInstance();
+        GridView grid = scenarioManager.getScenario().getGridView();
+        if (!coordinate.isInBounds(grid.getGeometry())) {
             throw new CoordinateOutOfBoundsException();
         }
-        ScenarioManager scenarioManager = ScenarioManager.getInstance();
-        Tile tile = scenarioManager.getScenario().getMapGrid()[coordinate.getIndex()];
+        Tile tile = grid.getTile(coordinate.getIndex(grid.getGeometry()));
         if (!tile.hasContents()) {
             throw new NoSuchEntityException();
         }
         if (tile.getContents() instanceof Collectable) {
-            if (tile.getContents() instanceof Flora) {
-                Flora flora = new Flora(tile.getContents().getSize(),
-                        tile.getContents().getCoordinate());
-                tile.setContents(flora);
-                flora.collect(this);
-            } else if (tile.getContents() instanceof  Fauna) {
-                TileType habitat;
-                if (tile.getType() == TileType.OCEAN) {
-                    habitat = TileType.OCEAN;
-                } else {
-                    habitat = TileType.LAND;
-                }
-                Fauna fauna = new Fauna(tile.getContents().getSize(),
-                        tile.getContents().getCoordinate(), habitat);
-                tile.setContents(fauna);
-                fauna.collect(this);
-            }
+            // collect the entity itself so it is removed from the controller by id
+            ((Collectable) tile.getContents()).collect(this);
         }
     }
 }
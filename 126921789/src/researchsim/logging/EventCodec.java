@@ -0,0 +1,108 @@
+package researchsim.logging;
+
+import researchsim.entities.Entity;
+import researchsim.entities.User;
+import researchsim.map.Coordinate;
+import researchsim.util.BadSaveException;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Writes {@link Event}s to binary streams and reads them back, for persisting the log.
+ * <p>
+ * Each event is written as a kind byte followed by strings in modified UTF-8: the encoded
+ * entity, the coordinate it started at and, for move events, the coordinate it moved to or, for
+ * collect events, the encoded target. Events read back hold new entity objects that print the
+ * same as the originals did when the events were logged.
+ */
+public final class EventCodec {
+
+    /**
+     * Kind of a {@link MoveEvent}
+     */
+    private static final int MOVE = 0;
+
+    /**
+     * Kind of a {@link CollectEvent}
+     */
+    private static final int COLLECT = 1;
+
+    private EventCodec() {
+    }
+
+    /**
+     * Writes an event to the given output.
+     *
+     * @param event event to write, a {@link MoveEvent} or {@link CollectEvent}
+     * @param out   where to write the event
+     * @throws IOException              if the output throws an IOException
+     * @throws IllegalArgumentException if the event is of another kind
+     */
+    public static void write(Event event, DataOutput out) throws IOException {
+        if (event instanceof MoveEvent) {
+            out.writeByte(MOVE);
+            out.writeUTF(event.getEntity().encode());
+            out.writeUTF(event.getInitialCoordinate().encode());
+            out.writeUTF(event.getCoordinate().encode());
+        } else if (event instanceof CollectEvent) {
+            out.writeByte(COLLECT);
+            out.writeUTF(event.getEntity().encode());
+            out.writeUTF(event.getInitialCoordinate().encode());
+            out.writeUTF(((CollectEvent) event).getTarget().encode());
+        } else {
+            throw new IllegalArgumentException("Cannot write event " + event.getClass());
+        }
+    }
+
+    /**
+     * Reads an event written by {@link #write(Event, DataOutput)}.
+     *
+     * @param in where to read the event from
+     * @return the event read
+     * @throws IOException      if the input throws an IOException
+     * @throws BadSaveException if the input does not hold a valid event
+     */
+    public static Event read(DataInput in) throws IOException, BadSaveException {
+        int kind = in.readUnsignedByte();
+        Entity entity = Entity.decode(in.readUTF());
+        entity.setCoordinate(Coordinate.decode(in.readUTF()));
+        switch (kind) {
+            case MOVE: {
+                Coordinate destination = Coordinate.decode(in.readUTF());
+                Event event = new MoveEvent(entity, destination);
+                entity.setCoordinate(destination);
+                return event;
+            }
+            case COLLECT:
+                if (!(entity instanceof User)) {
+                    throw new BadSaveException("Collect event by " + entity.encode());
+                }
+                return new CollectEvent((User) entity, Entity.decode(in.readUTF()));
+            default:
+                throw new BadSaveException("Unknown event kind " + kind);
+        }
+    }
+
+    /**
+     * Skips over an event written by {@link #write(Event, DataOutput)} without decoding it.
+     *
+     * @param in where to skip the event in
+     * @throws IOException      if the input throws an IOException
+     * @throws BadSaveException if the input does not hold a valid event
+     */
+    public static void skip(DataInput in) throws IOException, BadSaveException {
+        int kind = in.readUnsignedByte();
+        if (kind != MOVE && kind != COLLECT) {
+            throw new BadSaveException("Unknown event kind " + kind);
+        }
+        for (int i = 0; i < 3; i++) {
+            int length = in.readUnsignedShort();
+            if (in.skipBytes(length) != length) {
+                throw new EOFException();
+            }
+        }
+    }
+}
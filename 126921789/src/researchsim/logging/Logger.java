@@ -1,18 +1,37 @@
 package researchsim.logging;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import researchsim.map.Coordinate;
+import researchsim.map.GridView;
 import researchsim.map.Tile;
 import researchsim.scenario.ScenarioManager;
+import researchsim.util.BadSaveException;
 import researchsim.util.NoSuchEntityException;
 
 /**
  * A detailed log that contains a record of {@link Event}s and contains some event statistics.
+ * <p>
+ * By default every event is kept in memory. A logger can instead be given a capacity, in which
+ * case it keeps only that many of the most recent events in a ring buffer and drops the oldest
+ * event for each new one, optionally appending it to a spill file first so the full history
+ * can still be streamed back with {@link #forEachEvent(Consumer)}. The statistics always cover
+ * every event, whether or not it is still held in memory.
  *
  * @ass2
  */
-public class Logger extends Object {
+public class Logger extends Object implements Closeable {
 
     /**
      * The amount of entities that have been collected in collect events
@@ -30,20 +49,100 @@ public class Logger extends Object {
     private int pointsEarned;
 
     /**
-     * list holding all events that have taken place in the scenario
+     * Number of events kept in memory by a logger that never drops events.
+     * The value of this constant is {@value}
      */
-    private List<Event> events;
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * the most recent events in the order they happened, as a ring starting at head
+     */
+    private Event[] events;
+
+    /**
+     * index in events of the oldest event still in memory
+     */
+    private int head;
+
+    /**
+     * number of events in memory
+     */
+    private int retained;
+
+    /**
+     * number of events dropped from memory, always the oldest ones
+     */
+    private int evicted;
+
+    /**
+     * most events kept in memory at once
+     */
+    private final int capacity;
+
+    /**
+     * file events dropped from memory are appended to, null if they are discarded
+     */
+    private final Path spillPath;
+
+    /**
+     * stream appending to the spill file, null if there is no spill file
+     */
+    private DataOutputStream spill;
+
+    /**
+     * whether the spill file has been closed
+     */
+    private boolean closed;
 
     /**
      * Creates a new logger that holds a list of events that occur in a scenario
      * Keeps track of tiles travelled, entities collected and points collected
      * these stats are set to 0 when the logger is created
+     * every event is kept in memory
      */
     public Logger() {
         this.entitiesCollected = 0;
         this.pointsEarned = 0;
         this.tilesTravelled = 0;
-        this.events = new ArrayList<Event>();
+        this.capacity = UNBOUNDED;
+        this.events = new Event[16];
+        this.spillPath = null;
+    }
+
+    /**
+     * Creates a logger keeping only the given number of most recent events in memory,
+     * older events are discarded but still count towards the statistics
+     * @param capacity most events to keep in memory
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public Logger(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Log capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.events = new Event[Math.min(capacity, 16)];
+        this.spillPath = null;
+    }
+
+    /**
+     * Creates a logger keeping only the given number of most recent events in memory,
+     * older events are appended to a spill file so the full history can still be read back
+     * with {@link #forEachEvent(Consumer)}. The file is replaced if it exists.
+     * @param capacity most events to keep in memory
+     * @param spillPath file to append older events to
+     * @throws IllegalArgumentException if capacity is less than 1
+     * @throws IOException if the spill file cannot be created
+     */
+    public Logger(int capacity, Path spillPath) throws IllegalArgumentException, IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Log capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.events = new Event[Math.min(capacity, 16)];
+        this.spillPath = spillPath;
+        this.spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+            spillPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)));
     }
 
     /**
@@ -71,45 +170,219 @@ public class Logger extends Object {
     }
 
     /**
-     * returns events list of all events that have happened in current scenario
+     * returns the most events this logger keeps in memory
+     * @return capacity, or {@link #UNBOUNDED} if no event is ever dropped
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * returns the file older events are spilled to
+     * @return spill file, or null if older events are discarded
+     */
+    public Path getSpillPath() {
+        return spillPath;
+    }
+
+    /**
+     * returns the events still held in memory, the most recent {@link #getCapacity()} events,
+     * in the order they happened
+     * unless the capacity was limited this is every event that has happened in current scenario
      * @return events
      */
     public List<Event> getEvents() {
-        List<Event> copy = new ArrayList<>(events);
+        List<Event> copy = new ArrayList<>(retained);
+        for (int i = 0; i < retained; i++) {
+            copy.add(events[(head + i) % events.length]);
+        }
         return copy;
     }
 
+    /**
+     * returns the number of events that have happened in current scenario, including events
+     * that are no longer held in memory
+     * @return event count
+     */
+    public int getEventCount() {
+        return evicted + retained;
+    }
+
+    /**
+     * returns the number of events held in memory, the most recent ones
+     * @return number of events {@link #getEvents()} returns
+     */
+    public int getRetainedCount() {
+        return retained;
+    }
+
+    /**
+     * returns the events that have happened since the given number of events had been logged,
+     * so only new events are copied
+     * events no longer held in memory are read back from the spill file, or left out if there
+     * is none
+     * @param from number of events to skip
+     * @return events logged after the first from events
+     */
+    public List<Event> getEventsSince(int from) {
+        List<Event> since = new ArrayList<>(Math.max(getEventCount() - from, 0));
+        forEachEventSince(from, since::add);
+        return since;
+    }
+
+    /**
+     * passes every event that has happened in current scenario to the given action in the order
+     * they happened, reading events no longer held in memory back from the spill file
+     * without a spill file only the events held in memory are passed
+     * events read back from the file are new objects that print the same as the originals
+     * @param action action to perform on each event
+     * @throws UncheckedIOException if the spill file cannot be read
+     */
+    public void forEachEvent(Consumer<? super Event> action) throws UncheckedIOException {
+        forEachEventSince(0, action);
+    }
+
+    /**
+     * passes the events that have happened since the given number of events had been logged
+     * to the given action, as {@link #forEachEvent(Consumer)} does
+     * @param from number of events to skip
+     * @param action action to perform on each event
+     * @throws UncheckedIOException if the spill file cannot be read
+     */
+    public void forEachEventSince(int from, Consumer<? super Event> action)
+            throws UncheckedIOException {
+        if (from < evicted && spill != null) {
+            readSpill(from, action);
+        }
+        for (int i = Math.max(from - evicted, 0); i < retained; i++) {
+            action.accept(events[(head + i) % events.length]);
+        }
+    }
+
+    /**
+     * appends previously logged events and sets the statistics to the values they had once
+     * those events were logged. Used when recovering a scenario from an autosave.
+     * @param restored events to append, in the order they happened
+     * @param tilesTraversed tiles travelled once the events had been logged
+     * @param entitiesCollected entities collected once the events had been logged
+     * @param pointsEarned points earned once the events had been logged
+     */
+    public void restore(List<Event> restored, int tilesTraversed, int entitiesCollected,
+                        int pointsEarned) {
+        for (Event event : restored) {
+            append(event);
+        }
+        this.tilesTravelled = tilesTraversed;
+        this.entitiesCollected = entitiesCollected;
+        this.pointsEarned = pointsEarned;
+    }
+
     /**
      * Adds the event parameter to the list of events in the logger
      * if event is MoveEvent then adds the distance travelled to tilesTravelled
      * if event is CollectEvent than increments entitiesCollected and
      * adds the amount of points the entity is worth to PointsEarned
+     * if the logger is full the oldest event is dropped from memory, and spilled to the
+     * spill file if there is one
      * @param event event taken place in scenario to be added to logger
+     * @throws UncheckedIOException if the oldest event cannot be written to the spill file
      */
-    public void add(Event event) {
+    public void add(Event event) throws UncheckedIOException {
         ScenarioManager scenarioManager = ScenarioManager.getInstance();
         if (event instanceof CollectEvent) {
             try {
-                Tile tile =
-                        scenarioManager.getScenario().getMapGrid()
-                                [event.getCoordinate().getIndex()];
+                GridView grid = scenarioManager.getScenario().getGridView();
+                Tile tile = grid.getTile(event.getCoordinate().getIndex(grid.getGeometry()));
                 int points = tile.getContents().getSize().points;
                 this.pointsEarned = this.getPointsEarned() + points;
                 this.entitiesCollected++;
-                this.events.add(event);
+                append(event);
             } catch (NoSuchEntityException e) {
                 assert true;
             } catch (NullPointerException e) {
-                this.events.add(event);
+                append(event);
             }
         } else if (event instanceof MoveEvent) {
             Coordinate distanceTravelled =
                     event.getInitialCoordinate().distance(event.getCoordinate());
             int distance = distanceTravelled.getAbsX() + distanceTravelled.getAbsY();
             this.tilesTravelled = tilesTravelled + distance;
-            this.events.add(event);
+            append(event);
         } else {
-            this.events.add(event);
+            append(event);
+        }
+    }
+
+    /**
+     * closes the spill file, the logger must not be added to afterwards
+     * does nothing if there is no spill file
+     * @throws IOException if the spill file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (spill != null && !closed) {
+            closed = true;
+            spill.close();
+        }
+    }
+
+    /**
+     * Adds an event to the ring, dropping the oldest event if it is full
+     */
+    private void append(Event event) {
+        if (retained == capacity) {
+            Event oldest = events[head];
+            if (spill != null) {
+                if (closed) {
+                    throw new IllegalStateException("Log spill file " + spillPath
+                        + " is closed.");
+                }
+                try {
+                    EventCodec.write(oldest, spill);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            events[head] = event;
+            head = (head + 1) % events.length;
+            evicted++;
+            return;
+        }
+        if (retained == events.length) {
+            // unwrap into a larger array so the ring starts at 0 again
+            Event[] larger = new Event[(int) Math.min((long) retained * 2, capacity)];
+            for (int i = 0; i < retained; i++) {
+                larger[i] = events[(head + i) % events.length];
+            }
+            events = larger;
+            head = 0;
+        }
+        events[(head + retained) % events.length] = event;
+        retained++;
+    }
+
+    /**
+     * Passes the spilled events from the given position on to an action
+     */
+    private void readSpill(int from, Consumer<? super Event> action) {
+        try {
+            if (!closed) {
+                spill.flush();
+            }
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(spillPath)))) {
+                for (int i = 0; i < from; i++) {
+                    EventCodec.skip(in);
+                }
+                for (int i = from; i < evicted; i++) {
+                    action.accept(EventCodec.read(in));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (BadSaveException e) {
+            throw new UncheckedIOException(new IOException("Corrupt log spill file "
+                + spillPath, e));
         }
     }
 
@@ -119,15 +392,15 @@ public class Logger extends Object {
      *  logEntry
      *  logEntry
      *  ...
-     *  where every logEntry is an event in its string layout in the list events
+     *  where every logEntry is an event held in memory in its string layout
      * @return human_readable logger class
      */
     @Override
     public String toString() {
-        String text = "";
-        for (Event event : getEvents()) {
-            text = text + event.toString();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < retained; i++) {
+            text.append(events[(head + i) % events.length]);
         }
-        return text;
+        return text.toString();
     }
 }
@@ -0,0 +1,227 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+/**
+ * A tile store for very large maps that splits the grid into square chunks of
+ * {@value #CHUNK_SIZE} x {@value #CHUNK_SIZE} tiles.
+ * <p>
+ * Each chunk is packed the same way as a {@link PackedTileStore}: a byte per tile for its type
+ * and an int per tile for the id of the entity occupying it. The terrain of a chunk is only
+ * allocated the first time a tile inside it is set, and its occupancy only once an entity is
+ * placed inside it, so the memory used by the store grows with the area of the map that has
+ * actually been touched rather than with width * height.
+ */
+public class ChunkedTileStore implements TileStore {
+
+    /**
+     * Number of bits used for the position of a tile inside its chunk (per axis)
+     */
+    private static final int CHUNK_BITS = 6;
+
+    /**
+     * The width and height of a single chunk, in tiles.
+     * The value of this constant is {@value}
+     */
+    public static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * Mask used to find the position of a tile inside its chunk
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Width of the map in tiles
+     */
+    private final int width;
+
+    /**
+     * Height of the map in tiles
+     */
+    private final int height;
+
+    /**
+     * Number of chunks needed to cover one row of the map
+     */
+    private final int chunksAcross;
+
+    /**
+     * Packed tile types of each chunk, null until a tile inside the chunk is set
+     */
+    private final byte[][] terrain;
+
+    /**
+     * Occupant ids of each chunk, null until an entity is placed inside the chunk
+     */
+    private final int[][] occupants;
+
+    /**
+     * Entities occupying the map, by id
+     */
+    private final EntityTable entities;
+
+    /**
+     * Number of chunks that have been allocated so far
+     */
+    private int allocatedChunks;
+
+    /**
+     * Number of occupied tiles
+     */
+    private int occupied;
+
+    /**
+     * Listeners notified of changes to tiles
+     */
+    private final GridListeners listeners;
+
+    /**
+     * Creates an empty chunked store for a map of the given dimensions.
+     *
+     * @param width  width of the map
+     * @param height height of the map
+     */
+    public ChunkedTileStore(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.chunksAcross = (width + CHUNK_MASK) >> CHUNK_BITS;
+        int chunksDown = (height + CHUNK_MASK) >> CHUNK_BITS;
+        this.terrain = new byte[chunksAcross * chunksDown][];
+        this.occupants = new int[chunksAcross * chunksDown][];
+        this.entities = new EntityTable();
+        this.allocatedChunks = 0;
+        this.occupied = 0;
+        this.listeners = new GridListeners();
+    }
+
+    @Override
+    public int getSize() {
+        return width * height;
+    }
+
+    /**
+     * Returns the number of chunks that currently hold tiles.
+     *
+     * @return allocated chunk count
+     */
+    public int getAllocatedChunks() {
+        return allocatedChunks;
+    }
+
+    @Override
+    public TileType getType(int index) {
+        checkIndex(index);
+        byte[] chunk = terrain[chunkOf(index)];
+        if (chunk == null) {
+            return null;
+        }
+        return Terrain.unpack(chunk[offsetOf(index)]);
+    }
+
+    @Override
+    public void setType(int index, TileType type) {
+        checkIndex(index);
+        int chunkIndex = chunkOf(index);
+        byte[] chunk = terrain[chunkIndex];
+        if (chunk == null) {
+            if (type == null) {
+                return; // nothing to clear, don't allocate
+            }
+            chunk = new byte[CHUNK_SIZE * CHUNK_SIZE];
+            terrain[chunkIndex] = chunk;
+            allocatedChunks++;
+        }
+        int offset = offsetOf(index);
+        TileType previous = Terrain.unpack(chunk[offset]);
+        chunk[offset] = Terrain.pack(type);
+        if (type == null) {
+            setContents(index, null);
+        }
+        if (!listeners.isEmpty()) {
+            listeners.typeChanged(index, previous, type);
+        }
+    }
+
+    @Override
+    public Entity getContents(int index) {
+        checkIndex(index);
+        int[] chunk = occupants[chunkOf(index)];
+        if (chunk == null) {
+            return null;
+        }
+        return entities.get(chunk[offsetOf(index)]);
+    }
+
+    @Override
+    public void setContents(int index, Entity entity) {
+        checkIndex(index);
+        int chunkIndex = chunkOf(index);
+        int[] chunk = occupants[chunkIndex];
+        if (chunk == null) {
+            if (entity == null) {
+                return;
+            }
+            chunk = new int[CHUNK_SIZE * CHUNK_SIZE];
+            occupants[chunkIndex] = chunk;
+        }
+        int offset = offsetOf(index);
+        int old = chunk[offset];
+        Entity previous = listeners.isEmpty() ? null : entities.get(old);
+        if (old != 0) {
+            entities.release(old);
+            occupied--;
+        }
+        if (entity == null) {
+            chunk[offset] = 0;
+        } else {
+            chunk[offset] = entities.register(entity);
+            occupied++;
+        }
+        if (!listeners.isEmpty()) {
+            listeners.contentsChanged(index, previous, entity);
+        }
+    }
+
+    @Override
+    public int countContents() {
+        return occupied;
+    }
+
+    @Override
+    public void addListener(GridListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(GridListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the index of the chunk containing the given grid index
+     */
+    private int chunkOf(int index) {
+        int x = index % width;
+        int y = index / width;
+        return (y >> CHUNK_BITS) * chunksAcross + (x >> CHUNK_BITS);
+    }
+
+    /**
+     * Returns the offset of the given grid index inside its chunk
+     */
+    private int offsetOf(int index) {
+        int x = index % width;
+        int y = index / width;
+        return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);
+    }
+
+    /**
+     * Throws an IndexOutOfBoundsException if the index is not part of the map
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= getSize()) {
+            throw new IndexOutOfBoundsException("Tile index " + index + " is outside a map of "
+                + getSize() + " tiles.");
+        }
+    }
+}
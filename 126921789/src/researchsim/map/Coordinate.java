@@ -1,6 +1,5 @@
 package researchsim.map;
 
-import researchsim.scenario.Scenario;
 import researchsim.scenario.ScenarioManager;
 import researchsim.util.*;
 
@@ -10,6 +9,8 @@ import researchsim.util.*;
  * This X, Y position can be used to calculate the index of a Tile in the scenario tile map
  * depending on the currently active scenario. <br>
  * The X and Y positions will not change but the index will depending on the current scenario.
+ * Methods taking a {@link GridGeometry} use the given map dimensions instead of the current
+ * scenario's.
  * <p>
  * A coordinate is similar to a point on the cartesian plane.
  * <p>
@@ -59,9 +60,18 @@ public class Coordinate {
      * @ass1
      */
     public Coordinate(int index) {
-        int width = ScenarioManager.getInstance().getScenario().getWidth();
-        this.xcoord = index % width;
-        this.ycoord = index / width;
+        this(index, ScenarioManager.getInstance().getScenario().getGeometry());
+    }
+
+    /**
+     * Creates a new coordinate at the specified index of a map with the given geometry.
+     *
+     * @param index    index in the tile grid
+     * @param geometry dimensions of the map the index is in
+     */
+    public Coordinate(int index, GridGeometry geometry) {
+        this.xcoord = geometry.getX(index);
+        this.ycoord = geometry.getY(index);
     }
 
     /**
@@ -94,6 +104,16 @@ public class Coordinate {
         return Coordinate.convert(xcoord, ycoord);
     }
 
+    /**
+     * The index of this coordinate in the tile grid of a map with the given geometry.
+     *
+     * @param geometry dimensions of the map
+     * @return the grid index
+     */
+    public int getIndex(GridGeometry geometry) {
+        return geometry.index(xcoord, ycoord);
+    }
+
     /**
      * Determines if the coordinate in the bounds of the current scenario map
      *
@@ -103,9 +123,19 @@ public class Coordinate {
      * @ass1
      */
     public boolean isInBounds() {
-        Scenario scenario = ScenarioManager.getInstance().getScenario();
-        return xcoord < scenario.getWidth() && xcoord >= 0
-            && ycoord < scenario.getHeight() && ycoord >= 0;
+        return isInBounds(ScenarioManager.getInstance().getScenario().getGeometry());
+    }
+
+    /**
+     * Determines if the coordinate is in the bounds of a map with the given geometry
+     *
+     * @param geometry dimensions of the map
+     * @return true, if 0 &le; coordinate's x position &lt; map width AND 0 &le;
+     * coordinate's y position &lt; map height
+     * else, false
+     */
+    public boolean isInBounds(GridGeometry geometry) {
+        return geometry.isInBounds(xcoord, ycoord);
     }
 
     /**
@@ -117,7 +147,7 @@ public class Coordinate {
      * @ass1
      */
     public static int convert(int xcoord, int ycoord) {
-        return xcoord + ycoord * ScenarioManager.getInstance().getScenario().getWidth();
+        return ScenarioManager.getInstance().getScenario().getGeometry().index(xcoord, ycoord);
     }
 
     /**
@@ -222,31 +252,31 @@ public class Coordinate {
     }
 
     /**
-     * returns a hash value by multiplying hash values of x and y together
+     * returns a hash value made by packing x and y into one int and mixing the bits
+     * x and y each keep 16 bits, so coordinates within -32768 to 32767 never collide.
+     * multiplying by an odd constant spreads nearby coordinates over the whole int range
      * @return hashValue of coordinate
      */
+    @Override
     public int hashCode() {
-        int x = (int) Math.pow(2, Integer.hashCode(getX()));
-        int y = (int) Math.pow(3, Integer.hashCode(getY()));
-        // 2 and 3 are raised to the power of x and y hash respectively this is to make sure
-        // coordinates like (3,4) won't equal coordinates like (4,3)
-        //reason for using numbers 2 and 3 are because they are primes
-        return x * y;
+        return ((xcoord << 16) | (ycoord & 0xFFFF)) * 0x9E3779B1;
     }
 
     /**
      * Compares this coordinate and other Object to check if they are equal
      * objects are equal if the x coord is equal and y coord is equal 
      * @param other Object being compared to this coordinate
-     * @return true iff hashcodes are equal and both objects are coordinates
+     * @return true iff both objects are coordinates with the same x and y coord
      */
+    @Override
     public boolean equals(Object other) {
-        if (other == null) {
-            return false;
-        }
-        if (other.getClass() == this.getClass() && other.hashCode() == hashCode()) {
+        if (this == other) {
             return true;
         }
-        return false;
+        if (other == null || other.getClass() != this.getClass()) {
+            return false;
+        }
+        Coordinate coordinate = (Coordinate) other;
+        return xcoord == coordinate.xcoord && ycoord == coordinate.ycoord;
     }
 }
@@ -0,0 +1,110 @@
+package researchsim.map;
+
+/**
+ * Hands out one shared {@link Coordinate} instance per tile of a map.
+ * <p>
+ * Coordinates are immutable, so code that produces many of them for tiles on the map, such as
+ * working out possible moves every step, can take them from the scenario's cache
+ * ({@link researchsim.scenario.Scenario#getCoordinates()}) instead of allocating new ones.
+ * Positions outside the map are not cached and get a new coordinate on every call.
+ * <p>
+ * Instances are created the first time they are asked for and are kept in blocks of
+ * {@value #BLOCK_SIZE} tiles, so a large map only pays for the regions that are actually used.
+ * The cache may be read from several threads; two threads asking for the same tile at the same
+ * time can, rarely, be handed different but equal instances, so callers must still compare
+ * coordinates with {@link Coordinate#equals(Object)}.
+ */
+public final class CoordinateCache {
+
+    /**
+     * Number of bits used for the position of a tile inside its block
+     */
+    private static final int BLOCK_BITS = 12;
+
+    /**
+     * Number of coordinates in one block of the cache.
+     * The value of this constant is {@value}
+     */
+    public static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    /**
+     * Dimensions of the map
+     */
+    private final GridGeometry geometry;
+
+    /**
+     * Cached coordinates in grid index order, blocks are null until a coordinate in them is used
+     */
+    private final Coordinate[][] blocks;
+
+    /**
+     * Creates an empty cache for a map with the given dimensions.
+     *
+     * @param geometry dimensions of the map
+     */
+    public CoordinateCache(GridGeometry geometry) {
+        this.geometry = geometry;
+        this.blocks = new Coordinate[(geometry.getSize() + BLOCK_SIZE - 1) >> BLOCK_BITS][];
+    }
+
+    /**
+     * Returns the dimensions of the map the cache is for.
+     *
+     * @return map geometry
+     */
+    public GridGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the coordinate of the tile at a grid index.
+     *
+     * @param index index in the tile grid
+     * @return the shared coordinate of the tile
+     * @throws IndexOutOfBoundsException if the index is not part of the map
+     */
+    public Coordinate get(int index) throws IndexOutOfBoundsException {
+        if (!geometry.isInBounds(index)) {
+            throw new IndexOutOfBoundsException("Tile index " + index + " is outside a map of "
+                + geometry.getSize() + " tiles.");
+        }
+        Coordinate[] block = blocks[index >> BLOCK_BITS];
+        if (block == null) {
+            block = new Coordinate[BLOCK_SIZE];
+            blocks[index >> BLOCK_BITS] = block;
+        }
+        Coordinate coordinate = block[index & (BLOCK_SIZE - 1)];
+        if (coordinate == null) {
+            coordinate = geometry.toCoordinate(index);
+            block[index & (BLOCK_SIZE - 1)] = coordinate;
+        }
+        return coordinate;
+    }
+
+    /**
+     * Returns the coordinate at an (x,y) position.
+     *
+     * @param x horizontal position
+     * @param y vertical position
+     * @return the shared coordinate if the position is on the map, otherwise a new coordinate
+     */
+    public Coordinate get(int x, int y) {
+        if (!geometry.isInBounds(x, y)) {
+            return new Coordinate(x, y);
+        }
+        return get(geometry.index(x, y));
+    }
+
+    /**
+     * Returns the coordinate a given offset away from another coordinate, like
+     * {@link Coordinate#translate(int, int)}.
+     *
+     * @param coordinate coordinate to start from
+     * @param x          the value to move the x value by
+     * @param y          the value to move the y value by
+     * @return the shared coordinate if the result is on the map, otherwise a new coordinate
+     */
+    public Coordinate translate(Coordinate coordinate, int x, int y) {
+        return get(coordinate.getX() + x, coordinate.getY() + y);
+    }
+}
@@ -0,0 +1,90 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+import java.util.Arrays;
+
+/**
+ * Maps the integer entity ids held in a packed tile store's occupancy array to the entities
+ * themselves.
+ * <p>
+ * Id 0 is reserved for "no entity". Ids of released entities are reused.
+ */
+final class EntityTable {
+
+    /**
+     * Entities by id, slot 0 is never used
+     */
+    private Entity[] entities;
+
+    /**
+     * Stack of released ids available for reuse
+     */
+    private int[] free;
+
+    /**
+     * Number of ids on the free stack
+     */
+    private int freeCount;
+
+    /**
+     * Next id that has never been handed out
+     */
+    private int nextId;
+
+    /**
+     * Creates an empty table.
+     */
+    EntityTable() {
+        this.entities = new Entity[16];
+        this.free = new int[16];
+        this.freeCount = 0;
+        this.nextId = 1;
+    }
+
+    /**
+     * Stores an entity and returns the id it can be looked up by.
+     *
+     * @param entity entity to store, not null
+     * @return id of the entity, always &gt; 0
+     */
+    int register(Entity entity) {
+        int id;
+        if (freeCount > 0) {
+            id = free[--freeCount];
+        } else {
+            id = nextId++;
+            if (id == entities.length) {
+                entities = Arrays.copyOf(entities, entities.length * 2);
+            }
+        }
+        entities[id] = entity;
+        return id;
+    }
+
+    /**
+     * Returns the entity with the given id.
+     *
+     * @param id entity id, 0 for none
+     * @return the entity, or null if id is 0
+     */
+    Entity get(int id) {
+        return entities[id];
+    }
+
+    /**
+     * Forgets the entity with the given id so the id can be reused.
+     *
+     * @param id entity id, 0 is ignored
+     */
+    void release(int id) {
+        if (id == 0) {
+            return;
+        }
+        entities[id] = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, free.length * 2);
+        }
+        free[freeCount++] = id;
+    }
+}
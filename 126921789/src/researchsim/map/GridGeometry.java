@@ -0,0 +1,150 @@
+package researchsim.map;
+
+/**
+ * The dimensions of a map grid, used to convert between (x,y) positions and grid indices.
+ * <p>
+ * {@link Coordinate#getIndex()}, {@link Coordinate#isInBounds()} and
+ * {@link Coordinate#convert(int, int)} look the dimensions up on the currently active scenario
+ * every time they are called. Code that already knows which map it is working on should get the
+ * geometry once, from {@link researchsim.scenario.Scenario#getGeometry()} or
+ * {@link GridView#getGeometry()}, and pass it to {@link Coordinate#getIndex(GridGeometry)},
+ * {@link Coordinate#isInBounds(GridGeometry)} or the methods here, which do the arithmetic on
+ * the given dimensions alone and do not depend on which scenario is active.
+ * <p>
+ * A geometry is immutable and can be shared freely between threads.
+ */
+public final class GridGeometry {
+
+    /**
+     * Width of the map
+     */
+    private final int width;
+
+    /**
+     * Height of the map
+     */
+    private final int height;
+
+    /**
+     * Creates the geometry of a map with the given dimensions.
+     *
+     * @param width  width of the map
+     * @param height height of the map
+     * @throws IllegalArgumentException if either dimension is negative
+     */
+    public GridGeometry(int width, int height) throws IllegalArgumentException {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("A map cannot be " + width + " x " + height + ".");
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the width of the map.
+     *
+     * @return map width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the map.
+     *
+     * @return map height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of tiles in the map.
+     *
+     * @return map size
+     */
+    public int getSize() {
+        return width * height;
+    }
+
+    /**
+     * Converts an (x,y) position to a grid index. The position is not checked.
+     *
+     * @param x horizontal position
+     * @param y vertical position
+     * @return the grid index
+     */
+    public int index(int x, int y) {
+        return x + y * width;
+    }
+
+    /**
+     * Returns the horizontal position of a grid index.
+     *
+     * @param index index in the tile grid
+     * @return the horizontal position
+     */
+    public int getX(int index) {
+        return index % width;
+    }
+
+    /**
+     * Returns the vertical position of a grid index.
+     *
+     * @param index index in the tile grid
+     * @return the vertical position
+     */
+    public int getY(int index) {
+        return index / width;
+    }
+
+    /**
+     * Determines if an (x,y) position is part of the map.
+     *
+     * @param x horizontal position
+     * @param y vertical position
+     * @return true, if 0 &le; x &lt; width AND 0 &le; y &lt; height
+     */
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Determines if a grid index is part of the map.
+     *
+     * @param index index in the tile grid
+     * @return true, if 0 &le; index &lt; size
+     */
+    public boolean isInBounds(int index) {
+        return index >= 0 && index < getSize();
+    }
+
+    /**
+     * Returns the coordinate at a grid index.
+     *
+     * @param index index in the tile grid
+     * @return coordinate of the index
+     */
+    public Coordinate toCoordinate(int index) {
+        return new Coordinate(index % width, index / width);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GridGeometry)) {
+            return false;
+        }
+        GridGeometry geometry = (GridGeometry) other;
+        return width == geometry.width && height == geometry.height;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * width + height;
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height;
+    }
+}
@@ -0,0 +1,34 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+/**
+ * Receives notifications when the tiles of a {@link TileStore} change.
+ * <p>
+ * Listeners are called synchronously by the thread making the change, after the change has
+ * been made, so they should do as little work as possible. Stores only notify listeners of
+ * changes that actually alter a tile.
+ *
+ * @see TileStore#addListener(GridListener)
+ */
+public interface GridListener {
+
+    /**
+     * Called when the entity occupying a tile changes.
+     *
+     * @param index    grid index of the tile
+     * @param previous entity that occupied the tile, or null if it was empty
+     * @param current  entity now occupying the tile, or null if it is now empty
+     */
+    void contentsChanged(int index, Entity previous, Entity current);
+
+    /**
+     * Called when the type of a tile changes. Does nothing by default.
+     *
+     * @param index    grid index of the tile
+     * @param previous previous tile type, or null if there was no tile
+     * @param current  new tile type, or null if the tile was removed
+     */
+    default void typeChanged(int index, TileType previous, TileType current) {
+    }
+}
@@ -0,0 +1,87 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+import java.util.Arrays;
+
+/**
+ * The listeners registered with a tile store.
+ * <p>
+ * Kept as an array that is copied on change, since listeners are added rarely and notified on
+ * every change to the grid.
+ */
+final class GridListeners {
+
+    /**
+     * Registered listeners, in the order they were added
+     */
+    private GridListener[] listeners = new GridListener[0];
+
+    /**
+     * Registers a listener.
+     *
+     * @param listener listener to add
+     */
+    void add(GridListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    /**
+     * Unregisters a listener, doing nothing if it was never added.
+     *
+     * @param listener listener to remove
+     */
+    void remove(GridListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                GridListener[] remaining = new GridListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns whether there are no listeners to notify.
+     *
+     * @return true if no listeners are registered
+     */
+    boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    /**
+     * Notifies every listener that the contents of a tile changed, if they did.
+     *
+     * @param index    grid index of the tile
+     * @param previous previous contents
+     * @param current  new contents
+     */
+    void contentsChanged(int index, Entity previous, Entity current) {
+        if (previous == current) {
+            return;
+        }
+        for (GridListener listener : listeners) {
+            listener.contentsChanged(index, previous, current);
+        }
+    }
+
+    /**
+     * Notifies every listener that the type of a tile changed, if it did.
+     *
+     * @param index    grid index of the tile
+     * @param previous previous type
+     * @param current  new type
+     */
+    void typeChanged(int index, TileType previous, TileType current) {
+        if (previous == current) {
+            return;
+        }
+        for (GridListener listener : listeners) {
+            listener.typeChanged(index, previous, current);
+        }
+    }
+}
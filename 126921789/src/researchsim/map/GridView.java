@@ -0,0 +1,207 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only view of a scenario's map grid.
+ * <p>
+ * Unlike {@link researchsim.scenario.Scenario#getMapGrid()} the view does not copy the grid, so
+ * it is cheap to obtain and to query from hot paths. Tiles can be looked up but not replaced
+ * through the view; the tiles themselves are views of the scenario's own tiles, so updating
+ * their contents updates the scenario.
+ * <p>
+ * Whole-map scans should prefer the primitive accessors ({@link #getType(int)},
+ * {@link #getContents(int)}, {@link #countContents()}), which read the packed grid directly
+ * without creating a {@link Tile} per index.
+ */
+public final class GridView implements Iterable<Tile> {
+
+    /**
+     * The store holding the tiles being viewed
+     */
+    private final TileStore store;
+
+    /**
+     * Dimensions of the viewed map
+     */
+    private final GridGeometry geometry;
+
+    /**
+     * Width of the viewed map
+     */
+    private final int width;
+
+    /**
+     * Height of the viewed map
+     */
+    private final int height;
+
+    /**
+     * Creates a view over the given tile store.
+     *
+     * @param store  store holding the map tiles
+     * @param width  width of the map
+     * @param height height of the map
+     */
+    public GridView(TileStore store, int width, int height) {
+        this(store, new GridGeometry(width, height));
+    }
+
+    /**
+     * Creates a view over the given tile store.
+     *
+     * @param store    store holding the map tiles
+     * @param geometry dimensions of the map
+     */
+    public GridView(TileStore store, GridGeometry geometry) {
+        this.store = store;
+        this.geometry = geometry;
+        this.width = geometry.getWidth();
+        this.height = geometry.getHeight();
+    }
+
+    /**
+     * Returns the dimensions of the viewed map.
+     *
+     * @return map geometry
+     */
+    public GridGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the width of the viewed map.
+     *
+     * @return map width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the viewed map.
+     *
+     * @return map height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of tiles in the viewed map.
+     *
+     * @return map size
+     */
+    public int getSize() {
+        return width * height;
+    }
+
+    /**
+     * Returns the tile at the given grid index.
+     *
+     * @param index index in the tile grid
+     * @return tile at the index, or null if none has been set
+     * @throws IndexOutOfBoundsException if the index is not part of the map
+     */
+    public Tile getTile(int index) {
+        return store.get(index);
+    }
+
+    /**
+     * Returns the tile at the given (x,y) position.
+     *
+     * @param x horizontal position
+     * @param y vertical position
+     * @return tile at the position, or null if none has been set
+     * @throws IndexOutOfBoundsException if the position is not part of the map
+     */
+    public Tile getTile(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("(" + x + "," + y + ") is outside the map.");
+        }
+        return store.get(x + y * width);
+    }
+
+    /**
+     * Returns the tile at the given coordinate.
+     *
+     * @param coordinate position on the map
+     * @return tile at the coordinate, or null if none has been set
+     * @throws IndexOutOfBoundsException if the coordinate is not part of the map
+     */
+    public Tile getTile(Coordinate coordinate) {
+        return getTile(coordinate.getX(), coordinate.getY());
+    }
+
+    /**
+     * Returns the type of the tile at the given grid index.
+     *
+     * @param index index in the tile grid
+     * @return tile type, or null if no tile has been set
+     * @throws IndexOutOfBoundsException if the index is not part of the map
+     */
+    public TileType getType(int index) {
+        return store.getType(index);
+    }
+
+    /**
+     * Returns the entity occupying the tile at the given grid index.
+     *
+     * @param index index in the tile grid
+     * @return the occupying entity, or null if the tile is empty
+     * @throws IndexOutOfBoundsException if the index is not part of the map
+     */
+    public Entity getContents(int index) {
+        return store.getContents(index);
+    }
+
+    /**
+     * Checks if the tile at the given grid index is occupied.
+     *
+     * @param index index in the tile grid
+     * @return true if an entity occupies the tile
+     * @throws IndexOutOfBoundsException if the index is not part of the map
+     */
+    public boolean hasContents(int index) {
+        return store.getContents(index) != null;
+    }
+
+    /**
+     * Returns the number of tiles in the map that are occupied by an entity.
+     *
+     * @return occupied tile count
+     */
+    public int countContents() {
+        return store.countContents();
+    }
+
+    /**
+     * Returns an iterator over every tile of the map in index order.
+     * <p>
+     * Slots without a tile are returned as null. The iterator does not support removal.
+     *
+     * @return tile iterator
+     */
+    @Override
+    public Iterator<Tile> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < getSize();
+            }
+
+            @Override
+            public Tile next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return store.get(next++);
+            }
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A tile store whose terrain is read straight out of a byte buffer, typically a read-only
+ * {@link java.nio.MappedByteBuffer} over the terrain section of a binary save.
+ * <p>
+ * The buffer holds the type ordinal of every tile in grid index order, 2 bits per tile and four
+ * tiles to a byte starting from the high bits. Nothing is copied out of it up front, so with a
+ * memory-mapped file only the pages for the regions of the map that are actually looked at are
+ * ever read from disk.
+ * <p>
+ * The buffer itself is never written to. Tiles whose type is changed are recorded in an overlay
+ * that is allocated in blocks of {@value #BLOCK_SIZE} tiles as edits are made. Entities are
+ * kept in a {@link ChunkedTileStore}, so only regions holding entities use heap for occupancy.
+ */
+public class MappedTileStore implements TileStore {
+
+    /**
+     * Number of bits used for the position of a tile inside its overlay block
+     */
+    private static final int BLOCK_BITS = 12;
+
+    /**
+     * Number of tiles in one block of the terrain overlay.
+     * The value of this constant is {@value}
+     */
+    public static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    /**
+     * Overlay value of a tile that has been removed
+     */
+    private static final byte REMOVED = -1;
+
+    /**
+     * All tile types, indexed by ordinal
+     */
+    private static final TileType[] TYPES = TileType.values();
+
+    /**
+     * Packed terrain of the whole map
+     */
+    private final ByteBuffer terrain;
+
+    /**
+     * Number of tiles in the map
+     */
+    private final int size;
+
+    /**
+     * Edited tile types, packed as by {@link Terrain#pack(TileType)} with {@link #REMOVED} for
+     * removed tiles and {@link Terrain#NONE} for tiles that still use the buffer. Blocks are
+     * null until a tile inside them is edited.
+     */
+    private final byte[][] edits;
+
+    /**
+     * Entities occupying the map
+     */
+    private final ChunkedTileStore occupancy;
+
+    /**
+     * Listeners notified of changes to tile types, contents changes are reported by the
+     * occupancy store
+     */
+    private final GridListeners listeners;
+
+    /**
+     * Creates a store reading terrain from the given buffer.
+     *
+     * @param terrain packed terrain, starting at index 0 of the buffer
+     * @param width   width of the map
+     * @param height  height of the map
+     * @throws IllegalArgumentException if the buffer is too small for the map
+     */
+    public MappedTileStore(ByteBuffer terrain, int width, int height)
+            throws IllegalArgumentException {
+        this.size = width * height;
+        if (terrain.limit() < getPackedLength(size)) {
+            throw new IllegalArgumentException("A terrain buffer of " + terrain.limit()
+                + " bytes cannot hold " + size + " tiles.");
+        }
+        this.terrain = terrain;
+        this.edits = new byte[(size + BLOCK_SIZE - 1) >> BLOCK_BITS][];
+        this.occupancy = new ChunkedTileStore(width, height);
+        this.listeners = new GridListeners();
+    }
+
+    /**
+     * Returns the number of bytes taken by the packed terrain of a map.
+     *
+     * @param size number of tiles in the map
+     * @return packed terrain length in bytes
+     */
+    public static int getPackedLength(int size) {
+        return (size + 3) >> 2;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public TileType getType(int index) {
+        checkIndex(index);
+        byte[] block = edits[index >> BLOCK_BITS];
+        if (block != null) {
+            byte edit = block[index & (BLOCK_SIZE - 1)];
+            if (edit == REMOVED) {
+                return null;
+            }
+            if (edit != Terrain.NONE) {
+                return Terrain.unpack(edit);
+            }
+        }
+        int shift = 6 - ((index & 3) << 1);
+        return TYPES[(terrain.get(index >> 2) >> shift) & 3];
+    }
+
+    @Override
+    public void setType(int index, TileType type) {
+        TileType previous = getType(index);
+        int blockIndex = index >> BLOCK_BITS;
+        if (edits[blockIndex] == null) {
+            edits[blockIndex] = new byte[BLOCK_SIZE];
+        }
+        edits[blockIndex][index & (BLOCK_SIZE - 1)] = type == null ? REMOVED : Terrain.pack(type);
+        if (type == null) {
+            occupancy.setContents(index, null);
+        }
+        if (!listeners.isEmpty()) {
+            listeners.typeChanged(index, previous, type);
+        }
+    }
+
+    @Override
+    public Entity getContents(int index) {
+        return occupancy.getContents(index);
+    }
+
+    @Override
+    public void setContents(int index, Entity entity) {
+        occupancy.setContents(index, entity);
+    }
+
+    @Override
+    public int countContents() {
+        return occupancy.countContents();
+    }
+
+    @Override
+    public void addListener(GridListener listener) {
+        listeners.add(listener);
+        occupancy.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(GridListener listener) {
+        listeners.remove(listener);
+        occupancy.removeListener(listener);
+    }
+
+    /**
+     * Throws an IndexOutOfBoundsException if the index is not part of the map
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Tile index " + index + " is outside a map of "
+                + size + " tiles.");
+        }
+    }
+}
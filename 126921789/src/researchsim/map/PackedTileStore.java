@@ -0,0 +1,113 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+/**
+ * A tile store that packs the whole map into two primitive arrays: one byte per tile for its
+ * type and one int per tile for the id of the entity occupying it.
+ * <p>
+ * This takes 5 bytes per tile, compared to a {@link Tile} object plus a reference per tile, and
+ * keeps whole-map scans over contiguous memory. It is the store used for regular sized
+ * scenarios.
+ */
+public class PackedTileStore implements TileStore {
+
+    /**
+     * Packed type of every tile, see {@link Terrain}
+     */
+    private final byte[] terrain;
+
+    /**
+     * Id of the entity occupying every tile, 0 if empty
+     */
+    private final int[] occupants;
+
+    /**
+     * Entities occupying the map, by id
+     */
+    private final EntityTable entities;
+
+    /**
+     * Number of occupied tiles
+     */
+    private int occupied;
+
+    /**
+     * Listeners notified of changes to tiles
+     */
+    private final GridListeners listeners;
+
+    /**
+     * Creates an empty store holding the given number of tiles.
+     *
+     * @param size number of tiles in the map
+     */
+    public PackedTileStore(int size) {
+        this.terrain = new byte[size];
+        this.occupants = new int[size];
+        this.entities = new EntityTable();
+        this.occupied = 0;
+        this.listeners = new GridListeners();
+    }
+
+    @Override
+    public int getSize() {
+        return terrain.length;
+    }
+
+    @Override
+    public TileType getType(int index) {
+        return Terrain.unpack(terrain[index]);
+    }
+
+    @Override
+    public void setType(int index, TileType type) {
+        TileType previous = getType(index);
+        terrain[index] = Terrain.pack(type);
+        if (type == null) {
+            setContents(index, null);
+        }
+        if (!listeners.isEmpty()) {
+            listeners.typeChanged(index, previous, type);
+        }
+    }
+
+    @Override
+    public Entity getContents(int index) {
+        return entities.get(occupants[index]);
+    }
+
+    @Override
+    public void setContents(int index, Entity entity) {
+        int old = occupants[index];
+        Entity previous = listeners.isEmpty() ? null : entities.get(old);
+        if (old != 0) {
+            entities.release(old);
+            occupied--;
+        }
+        if (entity == null) {
+            occupants[index] = 0;
+        } else {
+            occupants[index] = entities.register(entity);
+            occupied++;
+        }
+        if (!listeners.isEmpty()) {
+            listeners.contentsChanged(index, previous, entity);
+        }
+    }
+
+    @Override
+    public int countContents() {
+        return occupied;
+    }
+
+    @Override
+    public void addListener(GridListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(GridListener listener) {
+        listeners.remove(listener);
+    }
+}
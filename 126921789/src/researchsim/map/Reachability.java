@@ -0,0 +1,190 @@
+package researchsim.map;
+
+import researchsim.util.DiamondOffsets;
+
+import java.util.Arrays;
+
+/**
+ * Finds the tiles an entity can move to from its position in a single bounded pass over the
+ * grid.
+ * <p>
+ * A move may follow a straight line, or an L-shaped path that goes along the starting row and
+ * then along the target's column, or along the starting column and then along the target's
+ * row. Every tile on the path apart from the starting tile must be in bounds and enterable
+ * according to a {@link TileRule}. These are exactly the paths the movement rules have always
+ * allowed, so a move found here is one {@code canMove} accepts.
+ * <p>
+ * {@link #fill} floods outward from the start along the starting row and column, then from
+ * each reached tile on them along the crossing columns and rows, stopping at the first tile
+ * that cannot be entered or is out of range. Each tile of the diamond is visited at most twice.
+ * No entity is touched, so queries can run while the entity is being read elsewhere.
+ */
+public final class Reachability {
+
+    /**
+     * Decides whether an entity may enter a tile.
+     */
+    @FunctionalInterface
+    public interface TileRule {
+
+        /**
+         * Returns whether the tile at the given grid index may be entered.
+         *
+         * @param index grid index of an in-bounds tile
+         * @return true if the tile may be entered
+         */
+        boolean canEnter(int index);
+    }
+
+    /**
+     * Mark of a tile reached along the starting row and then a column
+     */
+    private static final byte ROW_FIRST = 1;
+
+    /**
+     * Mark of a tile reached along the starting column and then a row
+     */
+    private static final byte COLUMN_FIRST = 2;
+
+    /**
+     * Per thread marks, one per tile of the square around the diamond
+     */
+    private static final ThreadLocal<byte[]> MARKS = ThreadLocal.withInitial(() -> new byte[0]);
+
+    private Reachability() {
+    }
+
+    /**
+     * Returns whether the target tile can be moved to from the starting tile.
+     *
+     * @param grid    map the move is on
+     * @param startX  x coordinate of the starting tile
+     * @param startY  y coordinate of the starting tile
+     * @param targetX x coordinate of the target tile
+     * @param targetY y coordinate of the target tile
+     * @param rule    which tiles may be entered
+     * @return true if a straight or L-shaped path to the target can be entered, false if the
+     *         target is the starting tile
+     */
+    public static boolean canReach(GridView grid, int startX, int startY, int targetX,
+                                   int targetY, TileRule rule) {
+        if (startX == targetX && startY == targetY) {
+            return false;
+        }
+        return (canEnterRow(grid, startY, startX, targetX, rule)
+                && canEnterColumn(grid, targetX, startY, targetY, rule))
+            || (canEnterColumn(grid, startX, startY, targetY, rule)
+                && canEnterRow(grid, targetY, startX, targetX, rule));
+    }
+
+    /**
+     * Writes the grid index of every tile within radius moves of the starting tile that can be
+     * moved to into the given buffer, in the order
+     * {@link researchsim.util.Movable#checkRange(int, Coordinate)} lists coordinates.
+     *
+     * @param grid    map the move is on
+     * @param startX  x coordinate of the starting tile
+     * @param startY  y coordinate of the starting tile
+     * @param radius  furthest distance that can be moved
+     * @param rule    which tiles may be entered
+     * @param indices buffer to write to, at least {@link DiamondOffsets#count(int)} long
+     * @return number of indices written
+     */
+    public static int fill(GridView grid, int startX, int startY, int radius, TileRule rule,
+                           int[] indices) {
+        int side = 2 * radius + 1;
+        byte[] marks = MARKS.get();
+        if (marks.length < side * side) {
+            marks = new byte[side * side];
+            MARKS.set(marks);
+        } else {
+            Arrays.fill(marks, 0, side * side, (byte) 0);
+        }
+        for (int direction = -1; direction <= 1; direction += 2) {
+            // along the starting row, then each column crossing it
+            for (int dx = direction; Math.abs(dx) <= radius; dx += direction) {
+                if (!enter(grid, startX + dx, startY, rule)) {
+                    break;
+                }
+                marks[radius * side + dx + radius] |= ROW_FIRST;
+                for (int turn = -1; turn <= 1; turn += 2) {
+                    for (int dy = turn; Math.abs(dx) + Math.abs(dy) <= radius; dy += turn) {
+                        if (!enter(grid, startX + dx, startY + dy, rule)) {
+                            break;
+                        }
+                        marks[(dy + radius) * side + dx + radius] |= ROW_FIRST;
+                    }
+                }
+            }
+            // along the starting column, then each row crossing it
+            for (int dy = direction; Math.abs(dy) <= radius; dy += direction) {
+                if (!enter(grid, startX, startY + dy, rule)) {
+                    break;
+                }
+                marks[(dy + radius) * side + radius] |= COLUMN_FIRST;
+                for (int turn = -1; turn <= 1; turn += 2) {
+                    for (int dx = turn; Math.abs(dx) + Math.abs(dy) <= radius; dx += turn) {
+                        if (!enter(grid, startX + dx, startY + dy, rule)) {
+                            break;
+                        }
+                        marks[(dy + radius) * side + dx + radius] |= COLUMN_FIRST;
+                    }
+                }
+            }
+        }
+
+        int[] offsets = DiamondOffsets.offsets(radius);
+        int count = 0;
+        for (int i = 0; i < offsets.length; i += 2) {
+            int dx = offsets[i];
+            int dy = offsets[i + 1];
+            if (marks[(dy + radius) * side + dx + radius] != 0) {
+                indices[count++] = startX + dx + (startY + dy) * grid.getWidth();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether every tile along a row after the start, up to and including the end, can
+     * be entered
+     */
+    private static boolean canEnterRow(GridView grid, int y, int fromX, int toX, TileRule rule) {
+        int step = Integer.signum(toX - fromX);
+        for (int x = fromX + step; step != 0; x += step) {
+            if (!enter(grid, x, y, rule)) {
+                return false;
+            }
+            if (x == toX) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether every tile along a column after the start, up to and including the end,
+     * can be entered
+     */
+    private static boolean canEnterColumn(GridView grid, int x, int fromY, int toY,
+                                          TileRule rule) {
+        int step = Integer.signum(toY - fromY);
+        for (int y = fromY + step; step != 0; y += step) {
+            if (!enter(grid, x, y, rule)) {
+                return false;
+            }
+            if (y == toY) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the tile is on the map and can be entered
+     */
+    private static boolean enter(GridView grid, int x, int y, TileRule rule) {
+        return x >= 0 && x < grid.getWidth() && y >= 0 && y < grid.getHeight()
+            && rule.canEnter(x + y * grid.getWidth());
+    }
+}
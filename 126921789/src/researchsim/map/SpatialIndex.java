@@ -0,0 +1,337 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An index of the entities on a map by position, answering region, radius and nearest entity
+ * queries without scanning the map.
+ * <p>
+ * The map is divided into square buckets of {@value #BUCKET_SIZE} x {@value #BUCKET_SIZE}
+ * tiles, each holding the entities on its tiles. A query only looks at the buckets overlapping
+ * the region asked about, so its cost grows with the number of entities near the region rather
+ * than with the size of the map. Buckets are allocated when an entity first enters them.
+ * <p>
+ * The index is kept up to date as a {@link GridListener} of the map's tile store; see
+ * {@link researchsim.scenario.Scenario#getSpatialIndex()} for an index that is registered and
+ * maintained automatically. Distances are Manhattan distances, the same measure used for
+ * movement. Results are listed bucket by bucket, so their order is deterministic but otherwise
+ * unspecified.
+ * <p>
+ * The index may be queried from several threads at once, but not while the map is changing.
+ */
+public class SpatialIndex implements GridListener {
+
+    /**
+     * Number of bits of a position used for the position inside its bucket
+     */
+    private static final int BUCKET_BITS = 4;
+
+    /**
+     * Width and height of a bucket in tiles.
+     * The value of this constant is {@value}
+     */
+    public static final int BUCKET_SIZE = 1 << BUCKET_BITS;
+
+    /**
+     * Dimensions of the map
+     */
+    private final GridGeometry geometry;
+
+    /**
+     * Number of buckets across the map
+     */
+    private final int bucketsAcross;
+
+    /**
+     * Number of buckets down the map
+     */
+    private final int bucketsDown;
+
+    /**
+     * Buckets in row order, null until an entity enters them
+     */
+    private final Bucket[] buckets;
+
+    /**
+     * Number of entities in the index
+     */
+    private int size;
+
+    /**
+     * Creates an empty index for a map with the given dimensions.
+     *
+     * @param geometry dimensions of the map
+     */
+    public SpatialIndex(GridGeometry geometry) {
+        this.geometry = geometry;
+        this.bucketsAcross = (geometry.getWidth() + BUCKET_SIZE - 1) >> BUCKET_BITS;
+        this.bucketsDown = (geometry.getHeight() + BUCKET_SIZE - 1) >> BUCKET_BITS;
+        this.buckets = new Bucket[bucketsAcross * bucketsDown];
+    }
+
+    /**
+     * Creates an index holding every entity currently on the given map.
+     *
+     * @param grid map to index
+     * @return the populated index
+     */
+    public static SpatialIndex of(GridView grid) {
+        SpatialIndex index = new SpatialIndex(grid.getGeometry());
+        for (int i = 0; i < grid.getSize(); i++) {
+            Entity entity = grid.getContents(i);
+            if (entity != null) {
+                index.add(i, entity);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of entities in the index.
+     *
+     * @return entity count
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void contentsChanged(int index, Entity previous, Entity current) {
+        if (previous != null) {
+            remove(index);
+        }
+        if (current != null) {
+            add(index, current);
+        }
+    }
+
+    /**
+     * Returns every entity of the given type on a tile inside a rectangle. Parts of the
+     * rectangle outside the map are ignored.
+     *
+     * @param minX smallest x position of the rectangle
+     * @param minY smallest y position of the rectangle
+     * @param maxX largest x position of the rectangle, inclusive
+     * @param maxY largest y position of the rectangle, inclusive
+     * @param type type of entity to return, such as {@code Entity.class} for all entities
+     * @param <T>  type of entity to return
+     * @return entities inside the rectangle
+     */
+    public <T extends Entity> List<T> inRegion(int minX, int minY, int maxX, int maxY,
+                                               Class<T> type) {
+        List<T> found = new ArrayList<>();
+        collect(minX, minY, maxX, maxY, Integer.MAX_VALUE, 0, 0, type, found);
+        return found;
+    }
+
+    /**
+     * Returns every entity of the given type within a Manhattan distance of a position, the
+     * entity at the position included.
+     *
+     * @param x      horizontal position of the centre
+     * @param y      vertical position of the centre
+     * @param radius greatest distance from the centre
+     * @param type   type of entity to return, such as {@code Entity.class} for all entities
+     * @param <T>    type of entity to return
+     * @return entities within the radius
+     */
+    public <T extends Entity> List<T> withinRadius(int x, int y, int radius, Class<T> type) {
+        List<T> found = new ArrayList<>();
+        collect(x - radius, y - radius, x + radius, y + radius, radius, x, y, type, found);
+        return found;
+    }
+
+    /**
+     * Returns the entity of the given type matching a filter that is nearest to a position,
+     * by Manhattan distance. Of several entities at the same distance the one with the lowest
+     * grid index is returned.
+     *
+     * @param x      horizontal position to search from
+     * @param y      vertical position to search from
+     * @param type   type of entity to find
+     * @param filter condition the entity must meet, such as a size
+     * @param <T>    type of entity to find
+     * @return the nearest matching entity, or null if there is none
+     */
+    public <T extends Entity> T nearest(int x, int y, Class<T> type,
+                                       Predicate<? super T> filter) {
+        int bucketX = clamp(x >> BUCKET_BITS, bucketsAcross);
+        int bucketY = clamp(y >> BUCKET_BITS, bucketsDown);
+        int maxRing = Math.max(Math.max(bucketX, bucketsAcross - 1 - bucketX),
+            Math.max(bucketY, bucketsDown - 1 - bucketY));
+        T best = null;
+        int bestIndex = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every tile in this ring or further out is at least this far away
+            long closest = (long) (ring - 1) * BUCKET_SIZE + 1;
+            if (ring > 0 && closest > bestDistance) {
+                break;
+            }
+            for (int by = bucketY - ring; by <= bucketY + ring; by++) {
+                if (by < 0 || by >= bucketsDown) {
+                    continue;
+                }
+                boolean edge = by == bucketY - ring || by == bucketY + ring;
+                int step = edge ? 1 : 2 * ring;
+                for (int bx = bucketX - ring; bx <= bucketX + ring; bx += step) {
+                    if (bx < 0 || bx >= bucketsAcross) {
+                        continue;
+                    }
+                    Bucket bucket = buckets[bx + by * bucketsAcross];
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bucket.count; i++) {
+                        Entity entity = bucket.entities[i];
+                        if (!type.isInstance(entity)) {
+                            continue;
+                        }
+                        int tile = bucket.tiles[i];
+                        int distance = Math.abs(geometry.getX(tile) - x)
+                            + Math.abs(geometry.getY(tile) - y);
+                        if (distance > bestDistance
+                                || (distance == bestDistance && tile > bestIndex)) {
+                            continue;
+                        }
+                        T candidate = type.cast(entity);
+                        if (filter.test(candidate)) {
+                            best = candidate;
+                            bestIndex = tile;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds the entities of the given type inside a rectangle and within a radius of a centre
+     */
+    private <T extends Entity> void collect(int minX, int minY, int maxX, int maxY, int radius,
+                                            int x, int y, Class<T> type, List<T> found) {
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, geometry.getWidth() - 1);
+        maxY = Math.min(maxY, geometry.getHeight() - 1);
+        if (minX > maxX || minY > maxY) {
+            return;
+        }
+        for (int by = minY >> BUCKET_BITS; by <= maxY >> BUCKET_BITS; by++) {
+            for (int bx = minX >> BUCKET_BITS; bx <= maxX >> BUCKET_BITS; bx++) {
+                Bucket bucket = buckets[bx + by * bucketsAcross];
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.count; i++) {
+                    Entity entity = bucket.entities[i];
+                    if (!type.isInstance(entity)) {
+                        continue;
+                    }
+                    int tileX = geometry.getX(bucket.tiles[i]);
+                    int tileY = geometry.getY(bucket.tiles[i]);
+                    if (tileX >= minX && tileX <= maxX && tileY >= minY && tileY <= maxY
+                            && Math.abs(tileX - x) + Math.abs(tileY - y) <= radius) {
+                        found.add(type.cast(entity));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an entity on the tile at a grid index
+     */
+    private void add(int index, Entity entity) {
+        int bucketIndex = bucketOf(index);
+        Bucket bucket = buckets[bucketIndex];
+        if (bucket == null) {
+            bucket = new Bucket();
+            buckets[bucketIndex] = bucket;
+        }
+        bucket.add(index, entity);
+        size++;
+    }
+
+    /**
+     * Removes the entity on the tile at a grid index
+     */
+    private void remove(int index) {
+        Bucket bucket = buckets[bucketOf(index)];
+        if (bucket != null && bucket.remove(index)) {
+            size--;
+        }
+    }
+
+    /**
+     * Returns the bucket holding the tile at a grid index
+     */
+    private int bucketOf(int index) {
+        return (geometry.getX(index) >> BUCKET_BITS)
+            + (geometry.getY(index) >> BUCKET_BITS) * bucketsAcross;
+    }
+
+    /**
+     * Returns the value limited to 0 to limit - 1
+     */
+    private static int clamp(int value, int limit) {
+        return Math.max(0, Math.min(value, limit - 1));
+    }
+
+    /**
+     * The entities on the tiles of one bucket, in no particular order
+     */
+    private static final class Bucket {
+
+        /**
+         * Grid index of the tile of each entity
+         */
+        private int[] tiles = new int[4];
+
+        /**
+         * Entities in the bucket
+         */
+        private Entity[] entities = new Entity[4];
+
+        /**
+         * Number of entities in the bucket
+         */
+        private int count;
+
+        /**
+         * Adds an entity on the given tile
+         */
+        private void add(int tile, Entity entity) {
+            if (count == tiles.length) {
+                tiles = Arrays.copyOf(tiles, count * 2);
+                entities = Arrays.copyOf(entities, count * 2);
+            }
+            tiles[count] = tile;
+            entities[count] = entity;
+            count++;
+        }
+
+        /**
+         * Removes the entity on the given tile, moving the last entity into its place
+         */
+        private boolean remove(int tile) {
+            for (int i = 0; i < count; i++) {
+                if (tiles[i] == tile) {
+                    count--;
+                    tiles[i] = tiles[count];
+                    entities[i] = entities[count];
+                    entities[count] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package researchsim.map;
+
+/**
+ * Conversions between {@link TileType}s and the bytes packed tile stores keep them as.
+ * <p>
+ * A packed tile type is its ordinal plus one, so that 0 can mean "no tile".
+ */
+final class Terrain {
+
+    /**
+     * Packed value of a slot that holds no tile
+     */
+    static final byte NONE = 0;
+
+    /**
+     * All tile types, indexed by ordinal
+     */
+    private static final TileType[] TYPES = TileType.values();
+
+    /**
+     * Not instantiable
+     */
+    private Terrain() {
+    }
+
+    /**
+     * Packs a tile type into a byte.
+     *
+     * @param type tile type, may be null
+     * @return packed type
+     */
+    static byte pack(TileType type) {
+        return type == null ? NONE : (byte) (type.ordinal() + 1);
+    }
+
+    /**
+     * Unpacks a byte produced by {@link #pack(TileType)}.
+     *
+     * @param packed packed type
+     * @return tile type, or null for {@link #NONE}
+     */
+    static TileType unpack(byte packed) {
+        return packed == NONE ? null : TYPES[packed - 1];
+    }
+}
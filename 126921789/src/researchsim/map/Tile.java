@@ -5,6 +5,10 @@ import researchsim.util.NoSuchEntityException;
 
 /**
  * A tile on the scenario map that entities' items operate on.
+ * <p>
+ * Tiles created with {@link #Tile(TileType)} hold their own state. Tiles returned by a
+ * {@link TileStore} are lightweight views whose type and contents live in the store, so
+ * updating their contents updates the map.
  *
  * @ass1_partial
  * @ass1_test
@@ -50,10 +54,11 @@ public class Tile {
      * @ass1
      */
     public Entity getContents() throws NoSuchEntityException {
-        if (!hasContents()) {
+        Entity item = peekContents();
+        if (item == null) {
             throw new NoSuchEntityException("Attempted to get the entity at an empty Tile.");
         }
-        return contents;
+        return item;
     }
 
     /**
@@ -73,7 +78,16 @@ public class Tile {
      * @ass1
      */
     public boolean hasContents() {
-        return contents != null;
+        return peekContents() != null;
+    }
+
+    /**
+     * Returns the contents of the tile without checking that it is occupied.
+     *
+     * @return tile contents, or null if the tile is empty
+     */
+    Entity peekContents() {
+        return contents;
     }
 
     /**
@@ -83,10 +97,11 @@ public class Tile {
      */
     @Override
     public int hashCode() {
-        if (hasContents()) {
-            return (int) this.type.hashCode() * this.contents.hashCode();
+        Entity item = peekContents();
+        if (item != null) {
+            return (int) getType().hashCode() * item.hashCode();
         } else {
-            return (int) this.type.hashCode();
+            return (int) getType().hashCode();
         }
     }
 
@@ -100,7 +115,7 @@ public class Tile {
         if (other == null) {
             return false;
         }
-        if (other.getClass() == this.getClass() && other.hashCode() == hashCode()) {
+        if (other instanceof Tile && other.hashCode() == hashCode()) {
             return true;
         }
         return false;
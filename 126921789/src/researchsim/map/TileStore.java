@@ -0,0 +1,117 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+/**
+ * Backing storage for the tiles of a scenario map grid.
+ * <p>
+ * Tiles are addressed by their grid index (see {@link Coordinate#getIndex()}). A store always
+ * holds exactly {@link #getSize()} slots, although slots that have never been set hold no tile.
+ * <p>
+ * Stores keep tiles in primitive form: the type of every tile and the entity occupying it. The
+ * {@link Tile} objects returned by {@link #get(int)} are lightweight views over that state, so
+ * code that scans the whole map should prefer the primitive accessors such as
+ * {@link #getType(int)} and {@link #getContents(int)}.
+ *
+ * @see PackedTileStore
+ * @see ChunkedTileStore
+ */
+public interface TileStore {
+
+    /**
+     * Returns the number of tile slots held by this store.
+     *
+     * @return width * height of the map this store backs
+     */
+    int getSize();
+
+    /**
+     * Returns the type of the tile at the given grid index.
+     *
+     * @param index index in the tile grid
+     * @return tile type, or null if no tile has been set there
+     * @throws IndexOutOfBoundsException if index &lt; 0 or index &ge; {@link #getSize()}
+     */
+    TileType getType(int index);
+
+    /**
+     * Sets the type of the tile at the given grid index, creating the tile if needed.
+     * Setting the type to null removes the tile and its contents.
+     *
+     * @param index index in the tile grid
+     * @param type  new tile type, may be null
+     * @throws IndexOutOfBoundsException if index &lt; 0 or index &ge; {@link #getSize()}
+     */
+    void setType(int index, TileType type);
+
+    /**
+     * Returns the entity occupying the tile at the given grid index.
+     *
+     * @param index index in the tile grid
+     * @return the occupying entity, or null if the tile is empty
+     * @throws IndexOutOfBoundsException if index &lt; 0 or index &ge; {@link #getSize()}
+     */
+    Entity getContents(int index);
+
+    /**
+     * Updates the entity occupying the tile at the given grid index.
+     *
+     * @param index  index in the tile grid
+     * @param entity new contents, null to empty the tile
+     * @throws IndexOutOfBoundsException if index &lt; 0 or index &ge; {@link #getSize()}
+     */
+    void setContents(int index, Entity entity);
+
+    /**
+     * Returns the number of tiles that are currently occupied.
+     *
+     * @return occupied tile count
+     */
+    int countContents();
+
+    /**
+     * Registers a listener to be notified of every later change to a tile of this store.
+     *
+     * @param listener listener to add
+     */
+    void addListener(GridListener listener);
+
+    /**
+     * Unregisters a listener added with {@link #addListener(GridListener)}.
+     *
+     * @param listener listener to remove
+     */
+    void removeListener(GridListener listener);
+
+    /**
+     * Returns the tile at the given grid index.
+     *
+     * @param index index in the tile grid
+     * @return view of the tile at the index, or null if no tile has been set there
+     * @throws IndexOutOfBoundsException if index &lt; 0 or index &ge; {@link #getSize()}
+     */
+    default Tile get(int index) {
+        if (getType(index) == null) {
+            return null;
+        }
+        return new TileView(this, index);
+    }
+
+    /**
+     * Replaces the tile at the given grid index with a copy of the given tile's type and
+     * contents.
+     *
+     * @param index index in the tile grid
+     * @param tile  the new tile, may be null
+     * @throws IndexOutOfBoundsException if index &lt; 0 or index &ge; {@link #getSize()}
+     */
+    default void set(int index, Tile tile) {
+        if (tile == null) {
+            setType(index, null);
+            return;
+        }
+        Entity contents = tile.peekContents();
+        setType(index, tile.getType());
+        setContents(index, contents);
+    }
+}
@@ -80,14 +80,27 @@ public enum TileType {
      * @return tileType instance represented by the encoded string
      */
     public static TileType decode(String encoded) throws BadSaveException {
+        if (encoded.length() != 1) {
+            throw new BadSaveException();
+        }
+        return decode(encoded.charAt(0));
+    }
+
+    /**
+     * returns the decoded instance of the corresponding encoded character
+     * @param encoded the character containing the tileType
+     * @return tileType instance represented by the encoded character
+     * @throws BadSaveException if the character is not the encoding of any tileType
+     */
+    public static TileType decode(char encoded) throws BadSaveException {
         switch (encoded) {
-            case "L" :
+            case 'L':
                 return TileType.LAND;
-            case "O":
+            case 'O':
                 return TileType.OCEAN;
-            case "S":
+            case 'S':
                 return TileType.SAND;
-            case "X":
+            case 'X':
                 return TileType.MOUNTAIN;
             default:
                 throw new BadSaveException();
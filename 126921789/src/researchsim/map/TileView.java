@@ -0,0 +1,49 @@
+package researchsim.map;
+
+import researchsim.entities.Entity;
+
+/**
+ * A flyweight tile whose type and contents live in a {@link TileStore}.
+ * <p>
+ * Views are created on demand by {@link TileStore#get(int)} and hold nothing but the store and
+ * the index they refer to.
+ */
+final class TileView extends Tile {
+
+    /**
+     * The store holding the state of this tile
+     */
+    private final TileStore store;
+
+    /**
+     * The grid index of this tile in the store
+     */
+    private final int index;
+
+    /**
+     * Creates a view of the tile at the given index of a store.
+     *
+     * @param store store holding the tile
+     * @param index grid index of the tile
+     */
+    TileView(TileStore store, int index) {
+        super(null);
+        this.store = store;
+        this.index = index;
+    }
+
+    @Override
+    public TileType getType() {
+        return store.getType(index);
+    }
+
+    @Override
+    public void setContents(Entity item) {
+        store.setContents(index, item);
+    }
+
+    @Override
+    Entity peekContents() {
+        return store.getContents(index);
+    }
+}
@@ -1,9 +1,7 @@
 package researchsim.scenario;
 
 import researchsim.entities.Fauna;
-import researchsim.map.Coordinate;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -15,28 +13,58 @@ import java.util.Random;
 public class AnimalController extends Object {
 
     /**
-     * List of all the animals this manager knows about
+     * All the animals this manager knows about
      */
-    private final List<Fauna> animals;
+    private final AnimalRegistry animals;
+
+    /**
+     * Policy deciding which animals move and where
+     */
+    private MovementPolicy movementPolicy;
 
     /**
      * Creates the controller to is in charge of all animal movements in a scenario
      */
     public AnimalController() {
-        this.animals = new ArrayList<Fauna>();
+        this.animals = new AnimalRegistry();
+        this.movementPolicy = new SequentialMovementPolicy();
+    }
+
+    /**
+     * returns the policy used to move animals
+     * @return movement policy
+     */
+    public MovementPolicy getMovementPolicy() {
+        return movementPolicy;
+    }
+
+    /**
+     * sets the policy used to move animals, the default is a {@link SequentialMovementPolicy}
+     * @param movementPolicy policy to use from the next call to {@link #move()}
+     */
+    public void setMovementPolicy(MovementPolicy movementPolicy) {
+        this.movementPolicy = movementPolicy;
     }
 
     /**
      * returns list of all animals that are under the instances control
+     * the list is a read-only view, not a copy, and reflects later changes to the animals
      * @return list of animals
      */
     public List<Fauna> getAnimals() {
-        List<Fauna> copy = new ArrayList<>(animals);
-        return copy;
+        return animals.view();
+    }
+
+    /**
+     * returns the registry holding the animals, for lookups by id
+     * @return animal registry
+     */
+    public AnimalRegistry getRegistry() {
+        return animals;
     }
 
     /**
-     * Adds the given animal to the controller
+     * Adds the given animal to the controller, giving it an id if it does not have one
      * @param animal to be added to controller
      */
     public void addAnimal(Fauna animal) {
@@ -44,7 +72,8 @@ public class AnimalController extends Object {
     }
 
     /**
-     * removes the given animal from the controller
+     * removes the given animal from the controller by its id, in constant time
+     * only the animal itself is removed, never another animal equal to it
      * @param animal the animal to remove
      */
     public void removeAnimal(Fauna animal) {
@@ -55,6 +84,10 @@ public class AnimalController extends Object {
     /**
      * Attempts to move a selection of the animals.
      * <p>
+     * Each call is one tick of the scenario, see {@link Scenario#getTick()}. The animals are
+     * moved by the controller's {@link MovementPolicy}. The rules below are those of the default
+     * {@link SequentialMovementPolicy} in {@link RandomStreams.Mode#LEGACY} random mode.
+     * <p>
      * <b>IMPORTANT:</b> This method makes use of a random number so the <b>ORDER</b> of these
      * operations is <b>CRITICAL</b>.
      * <br>
@@ -91,21 +124,7 @@ public class AnimalController extends Object {
      */
     public void move() {
         Scenario scenario = ScenarioManager.getInstance().getScenario();
-        if (animals.isEmpty()) {
-            return;
-        }
-        Random rand = scenario.getRandom();
-        int num1 = rand.nextInt(animals.size());
-        for (int i = 0; i <= num1; i++) {
-            Fauna animal = animals.get(rand.nextInt(animals.size()));
-            List<Coordinate> possibleMoves = animal.getPossibleMoves();
-            if (possibleMoves.isEmpty()) {
-                continue;
-            } else if (possibleMoves.size() == 1) {
-                animal.move(possibleMoves.get(0));
-            } else {
-                animal.move(possibleMoves.get(rand.nextInt(possibleMoves.size())));
-            }
-        }
+        scenario.nextTick();
+        movementPolicy.move(scenario, animals.view());
     }
 }
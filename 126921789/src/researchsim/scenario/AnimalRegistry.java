@@ -0,0 +1,330 @@
+package researchsim.scenario;
+
+import researchsim.entities.Entity;
+import researchsim.entities.Fauna;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.random.RandomGenerator;
+
+/**
+ * The animals of a scenario, indexed so they can be added, removed, looked up by id and picked
+ * at random in constant time.
+ * <p>
+ * Animals are kept in a dense array of slots together with a table from each animal's
+ * {@link Entity#getId() id} to its slot. The table is an array indexed by id for ids up to a
+ * small multiple of the number of animals, and a hash map for any larger ids, so a few animals
+ * with very large ids do not cost a huge table. Animals without an id are given the next free one
+ * when they are added. Removing an animal moves the animal in the last slot into the freed one,
+ * so the order of the animals is the order they were added in until the first removal, and
+ * changes with every removal after that.
+ */
+public final class AnimalRegistry {
+
+    /**
+     * Slot table value of an id that is not registered
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Animals in slot order, the first size slots are in use
+     */
+    private Fauna[] animals = new Fauna[16];
+
+    /**
+     * Slot of each registered id below the table's length, indexed by id
+     */
+    private int[] slots = emptySlots(16);
+
+    /**
+     * Slot of each registered id too large for the slot table
+     */
+    private final Map<Long, Integer> sparseSlots = new HashMap<>();
+
+    /**
+     * Number of registered animals
+     */
+    private int size;
+
+    /**
+     * Id the next animal added without one is given
+     */
+    private long nextId;
+
+    /**
+     * Number of additions and removals, which changes whenever the slot order does
+     */
+    private int modCount;
+
+    /**
+     * Read-only view of the registered animals in slot order
+     */
+    private final List<Fauna> view = new View();
+
+    /**
+     * Adds an animal, giving it an id if it does not have one.
+     *
+     * @param animal animal to add
+     * @return false if the animal was already registered
+     * @throws IllegalArgumentException if a different animal is registered with the same id
+     */
+    public boolean add(Fauna animal) throws IllegalArgumentException {
+        if (animal.getId() == Entity.NO_ID) {
+            animal.assignId(nextId);
+        }
+        long id = checkId(animal.getId());
+        int slot = slotOf(id);
+        if (slot != NONE) {
+            if (animals[slot] == animal) {
+                return false;
+            }
+            throw new IllegalArgumentException("Another animal is registered with id " + id
+                + ": " + animals[slot]);
+        }
+        if (size == animals.length) {
+            animals = Arrays.copyOf(animals, size * 2);
+        }
+        animals[size] = animal;
+        size++;
+        growTable(id);
+        setSlot(id, size - 1);
+        nextId = Math.max(nextId, id + 1);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes an animal. Only the registered animal itself is removed, never an animal that
+     * is merely equal to it.
+     *
+     * @param animal animal to remove
+     * @return true if the animal was registered
+     */
+    public boolean remove(Fauna animal) {
+        long id = animal.getId();
+        int slot = slotOf(id);
+        if (slot == NONE || animals[slot] != animal) {
+            return false;
+        }
+        size--;
+        Fauna last = animals[size];
+        animals[slot] = last;
+        setSlot(last.getId(), slot);
+        animals[size] = null;
+        setSlot(id, NONE);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Puts an animal in the slot of the registered animal with the same id, in place of it.
+     * The order of the animals does not change.
+     *
+     * @param animal animal to register in place of the one with its id
+     * @return false if no animal is registered with the animal's id
+     */
+    boolean replace(Fauna animal) {
+        int slot = slotOf(animal.getId());
+        if (slot == NONE) {
+            return false;
+        }
+        animals[slot] = animal;
+        return true;
+    }
+
+    /**
+     * Replaces the registered animals with the given ones, in the given slot order, and sets
+     * the id given to the next animal added without one, as when restoring a saved registry.
+     *
+     * @param order  animals in slot order, each with an id
+     * @param nextId id the next animal added without one is given, raised past the largest id
+     *               of the animals if need be
+     * @throws IllegalArgumentException if an animal has no id or two have the same id
+     */
+    void restore(List<Fauna> order, long nextId) throws IllegalArgumentException {
+        for (int slot = 0; slot < size; slot++) {
+            setSlot(animals[slot].getId(), NONE);
+            animals[slot] = null;
+        }
+        size = 0;
+        this.nextId = nextId;
+        for (Fauna animal : order) {
+            if (animal.getId() == Entity.NO_ID) {
+                throw new IllegalArgumentException(animal + " has no id.");
+            }
+            if (!add(animal)) {
+                throw new IllegalArgumentException(animal + " is listed twice.");
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * Returns the id the next animal added without one is given.
+     *
+     * @return next free id
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Returns the number of additions and removals so far. The order of the animals has not
+     * changed for as long as this stays the same.
+     *
+     * @return modification count
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns the animal registered with the given id.
+     *
+     * @param id id of the animal
+     * @return the animal, or null if no animal is registered with the id
+     */
+    public Fauna getById(long id) {
+        int slot = slotOf(id);
+        return slot == NONE ? null : animals[slot];
+    }
+
+    /**
+     * Returns whether the given animal is registered.
+     *
+     * @param animal animal to look for
+     * @return true if the animal itself is registered
+     */
+    public boolean contains(Fauna animal) {
+        return getById(animal.getId()) == animal;
+    }
+
+    /**
+     * Returns the animal in the given slot.
+     *
+     * @param slot slot of the animal, from 0 to {@link #size()} - 1
+     * @return the animal in the slot
+     * @throws IndexOutOfBoundsException if the slot is not in use
+     */
+    public Fauna get(int slot) throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " of " + size + " animals");
+        }
+        return animals[slot];
+    }
+
+    /**
+     * Returns an animal chosen uniformly at random, using one call to
+     * {@link RandomGenerator#nextInt(int)}.
+     *
+     * @param random source of the choice
+     * @return the chosen animal, or null if there are no animals
+     */
+    public Fauna random(RandomGenerator random) {
+        return size == 0 ? null : animals[random.nextInt(size)];
+    }
+
+    /**
+     * Returns the number of registered animals.
+     *
+     * @return animal count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a read-only view of the registered animals in slot order. The view is not a copy
+     * and reflects later additions and removals.
+     *
+     * @return view of the animals
+     */
+    public List<Fauna> view() {
+        return view;
+    }
+
+    /**
+     * Returns the slot of an id, or {@link #NONE} if it is not registered
+     */
+    private int slotOf(long id) {
+        if (id >= 0 && id < slots.length) {
+            return slots[(int) id];
+        }
+        Integer slot = sparseSlots.get(id);
+        return slot == null ? NONE : slot;
+    }
+
+    /**
+     * Sets the slot of an id, {@link #NONE} to unregister it
+     */
+    private void setSlot(long id, int slot) {
+        if (id < slots.length) {
+            slots[(int) id] = slot;
+        } else if (slot == NONE) {
+            sparseSlots.remove(id);
+        } else {
+            sparseSlots.put(id, slot);
+        }
+    }
+
+    /**
+     * Grows the slot table to hold the given id if the id is small enough for the number of
+     * animals, moving any sparse ids it now covers into the table
+     */
+    private void growTable(long id) {
+        long limit = 4L * (size + 16);
+        if (id < slots.length || id >= limit) {
+            return;
+        }
+        int length = (int) Math.min(Math.max(id + 1, slots.length * 2L), limit);
+        int old = slots.length;
+        slots = Arrays.copyOf(slots, length);
+        Arrays.fill(slots, old, length, NONE);
+        sparseSlots.entrySet().removeIf(entry -> {
+            if (entry.getKey() < length) {
+                slots[entry.getKey().intValue()] = entry.getValue();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Returns the id, throwing if it is too large for the next id to follow it
+     */
+    private static long checkId(long id) {
+        if (id == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Animal id " + id + " is too large.");
+        }
+        return id;
+    }
+
+    /**
+     * Returns a slot table of the given length with no ids registered
+     */
+    private static int[] emptySlots(int length) {
+        int[] empty = new int[length];
+        Arrays.fill(empty, NONE);
+        return empty;
+    }
+
+    /**
+     * Read-only list over the slots in use
+     */
+    private final class View extends AbstractList<Fauna> implements RandomAccess {
+
+        @Override
+        public Fauna get(int index) {
+            return AnimalRegistry.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,788 @@
+package researchsim.scenario;
+
+import researchsim.entities.Entity;
+import researchsim.entities.Fauna;
+import researchsim.logging.Event;
+import researchsim.logging.EventCodec;
+import researchsim.logging.Logger;
+import researchsim.map.GridListener;
+import researchsim.map.GridView;
+import researchsim.map.TileStore;
+import researchsim.map.TileType;
+import researchsim.util.BadSaveException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * Incremental autosaves of a scenario: a full snapshot plus a journal of what changed since.
+ * <p>
+ * The autosave listens to the scenario's grid and remembers which tiles have changed. Each call
+ * to {@link #autosave()} appends one record to the journal holding the current contents of
+ * just those tiles, the events logged since the last record and the log statistics, so an
+ * autosave costs in proportion to what changed rather than to the size of the map.
+ * <p>
+ * Snapshots and records also hold the scenario's tick, random mode and the state of its shared
+ * random, and the ids of the animals, so a recovered scenario carries on exactly as the saved
+ * one would have. Animals that move keep their place in the animal controller; the order of
+ * the animals is only saved again, in full, after animals have been added or removed.
+ * <p>
+ * Once the journal grows past a threshold it is compacted: the scenario is copied with
+ * {@link Scenario#copy}, the journal is rotated, and the copy is encoded into a new snapshot and
+ * written to disk and the old journal deleted on a background thread. Copying still takes time
+ * in proportion to the size of the map on the thread calling {@link #autosave()}, but far less
+ * than encoding. Records and snapshots carry sequence numbers, so
+ * {@link #recover(Path)} always reaches the state of the last complete record however far a
+ * compaction got. Changing the terrain (with {@link Scenario#setMapGrid}) cannot be journaled
+ * and makes the next autosave write a snapshot straight away.
+ * <p>
+ * The first snapshot is written the same way, from a copy on the background thread, so starting
+ * an autosave does not hold up the thread running the scenario; until it has been written
+ * there is nothing to recover.
+ * <p>
+ * The files used are the base path with {@code .snapshot}, {@code .journal} and
+ * {@code .journal.old} appended. Starting an autosave deletes any earlier files at the same
+ * base path, so a program should check for them with {@link #exists(Path)} first and either
+ * {@link #recover(Path)} them or {@link #setAside(Path)} them.
+ */
+public class Autosave implements GridListener, Closeable {
+
+    /**
+     * Default journal size, in bytes, past which the journal is compacted
+     */
+    public static final long DEFAULT_COMPACT_THRESHOLD = 1 << 20;
+
+    /**
+     * Bytes a snapshot file starts with
+     */
+    private static final byte[] SNAPSHOT_MAGIC = {'R', 'S', 'N', 'P'};
+
+    /**
+     * Bytes a journal file starts with
+     */
+    private static final byte[] JOURNAL_MAGIC = {'R', 'S', 'J', 'L'};
+
+    /**
+     * Version of the snapshot and journal formats
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Random modes by ordinal
+     */
+    private static final RandomStreams.Mode[] MODES = RandomStreams.Mode.values();
+
+    /**
+     * Scenario being saved
+     */
+    private final Scenario scenario;
+
+    /**
+     * Latest complete snapshot
+     */
+    private final Path snapshotPath;
+
+    /**
+     * Journal of records after the snapshot
+     */
+    private final Path journalPath;
+
+    /**
+     * Journal rotated out by a compaction that may not have finished
+     */
+    private final Path oldJournalPath;
+
+    /**
+     * Journal size, in bytes, past which the journal is compacted
+     */
+    private final long compactThreshold;
+
+    /**
+     * Whether each tile has changed since the last record
+     */
+    private final BitSet dirty;
+
+    /**
+     * Indices of the changed tiles, in the order they first changed
+     */
+    private int[] dirtyIndices;
+
+    /**
+     * Number of changed tiles
+     */
+    private int dirtyCount;
+
+    /**
+     * Whether a tile type has changed since the last snapshot
+     */
+    private boolean terrainChanged;
+
+    /**
+     * Number of logged events already saved
+     */
+    private int savedEvents;
+
+    /**
+     * Modification count of the animal registry when the order of the animals was last saved
+     */
+    private int savedOrder;
+
+    /**
+     * Sequence number of the last record or snapshot
+     */
+    private long sequence;
+
+    /**
+     * Open journal
+     */
+    private DataOutputStream journal;
+
+    /**
+     * Bytes written to the open journal
+     */
+    private long journalSize;
+
+    /**
+     * Thread writing compacted snapshots
+     */
+    private final ExecutorService compactor;
+
+    /**
+     * Compaction being written, null if none has been started
+     */
+    private Future<?> compaction;
+
+    /**
+     * Starts autosaving a scenario with the default compaction threshold.
+     *
+     * @param scenario scenario to save
+     * @param base     path the autosave files are named after
+     * @throws IOException if the earlier files cannot be deleted or the journal cannot be opened
+     * @see #Autosave(Scenario, Path, long)
+     */
+    public Autosave(Scenario scenario, Path base) throws IOException {
+        this(scenario, base, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /**
+     * Starts autosaving a scenario, deleting any earlier autosave files at the same base path,
+     * opening an empty journal and writing a full snapshot of the scenario's current state on
+     * the background thread.
+     *
+     * @param scenario         scenario to save
+     * @param base             path the autosave files are named after
+     * @param compactThreshold journal size in bytes past which it is compacted
+     * @throws IOException if the earlier files cannot be deleted or the journal cannot be opened
+     */
+    public Autosave(Scenario scenario, Path base, long compactThreshold) throws IOException {
+        this.scenario = scenario;
+        this.snapshotPath = sibling(base, ".snapshot");
+        this.journalPath = sibling(base, ".journal");
+        this.oldJournalPath = sibling(base, ".journal.old");
+        this.compactThreshold = compactThreshold;
+        this.dirty = new BitSet();
+        this.dirtyIndices = new int[64];
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Files.deleteIfExists(snapshotPath);
+        Files.deleteIfExists(oldJournalPath);
+        openJournal();
+        Snapshot snapshot = capture(true);
+        compaction = compactor.submit(() -> {
+            writeFile(snapshotPath, snapshot.encode());
+            return null;
+        });
+        scenario.addGridListener(this);
+    }
+
+    @Override
+    public void contentsChanged(int index, Entity previous, Entity current) {
+        if (!dirty.get(index)) {
+            dirty.set(index);
+            if (dirtyCount == dirtyIndices.length) {
+                dirtyIndices = Arrays.copyOf(dirtyIndices, dirtyCount * 2);
+            }
+            dirtyIndices[dirtyCount++] = index;
+        }
+    }
+
+    @Override
+    public void typeChanged(int index, TileType previous, TileType current) {
+        terrainChanged = true;
+    }
+
+    /**
+     * Returns the scenario being saved.
+     *
+     * @return saved scenario
+     */
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Returns the number of tiles changed since the last autosave.
+     *
+     * @return changed tile count
+     */
+    public int getDirtyCount() {
+        return dirtyCount;
+    }
+
+    /**
+     * Saves what has changed since the last autosave.
+     * <p>
+     * Appends a record to the journal, or writes a new snapshot if the terrain changed. Starts a
+     * background compaction if the journal has grown past the threshold.
+     *
+     * @throws IOException if the journal cannot be written or an earlier background compaction
+     *                     failed
+     */
+    public void autosave() throws IOException {
+        if (compaction != null && compaction.isDone()) {
+            awaitCompaction();
+        }
+        if (terrainChanged) {
+            awaitCompaction();
+            writeFile(snapshotPath, capture(false).encode());
+            journal.close();
+            Files.deleteIfExists(oldJournalPath);
+            openJournal();
+            return;
+        }
+        Logger log = scenario.getLog();
+        if (dirtyCount > 0 || log.getEventCount() > savedEvents) {
+            appendRecord(log);
+        }
+        if (journalSize >= compactThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Waits until the latest snapshot, which may still be being written on the background
+     * thread, is on disk.
+     *
+     * @throws IOException if writing the snapshot failed
+     */
+    public void awaitSnapshot() throws IOException {
+        awaitCompaction();
+    }
+
+    /**
+     * Waits for any background compaction, then stops listening to the scenario and closes the
+     * journal. Changes since the last {@link #autosave()} are not saved.
+     *
+     * @throws IOException if the journal cannot be closed or the compaction failed
+     */
+    @Override
+    public void close() throws IOException {
+        scenario.removeGridListener(this);
+        try {
+            awaitCompaction();
+        } finally {
+            compactor.shutdown();
+            journal.close();
+        }
+    }
+
+    /**
+     * Rebuilds a scenario from the autosave files at the given base path.
+     * <p>
+     * The snapshot is loaded and every complete journal record after it is replayed, restoring
+     * the map, its entities and the log. A record that was only partly written when the program
+     * stopped is ignored. The scenario is then registered with the scenario manager, without
+     * being made current, as well as returned.
+     * Its tick, random state, animal ids and animal order are those of the saved scenario.
+     *
+     * @param base path the autosave files are named after
+     * @return the recovered scenario
+     * @throws IOException      if the files cannot be read
+     * @throws BadSaveException if the snapshot is invalid
+     */
+    public static Scenario recover(Path base) throws IOException, BadSaveException {
+        Scenario scenario;
+        long sequence;
+        try (BufferedInputStream file = new BufferedInputStream(
+                Files.newInputStream(sibling(base, ".snapshot")))) {
+            DataInputStream in = new DataInputStream(file);
+            checkMagic(in, SNAPSHOT_MAGIC);
+            sequence = in.readLong();
+            int tiles = in.readInt();
+            int collected = in.readInt();
+            int points = in.readInt();
+            List<Event> events = readEvents(in);
+            // read from the shared buffer, leaving it just past the scenario
+            scenario = BinaryScenarioFormat.read(file);
+            scenario.getLog().restore(events, tiles, collected, points);
+            readTickState(in, scenario);
+            AnimalRegistry animals = scenario.getController().getRegistry();
+            restoreOrder(animals, new ArrayList<>(animals.view()), in.readLong());
+        } catch (EOFException e) {
+            throw new BadSaveException("Unexpected end of snapshot", e);
+        }
+        sequence = replay(scenario, sibling(base, ".journal.old"), sequence);
+        replay(scenario, sibling(base, ".journal"), sequence);
+        ScenarioManager.getInstance().register(scenario);
+        return scenario;
+    }
+
+    /**
+     * Returns whether there is an autosave to recover at the given base path.
+     *
+     * @param base path the autosave files are named after
+     * @return true if a snapshot exists at the base path
+     */
+    public static boolean exists(Path base) {
+        return Files.exists(sibling(base, ".snapshot"));
+    }
+
+    /**
+     * Moves the autosave files at the given base path aside, by appending {@code .bak} to their
+     * names, so that a new autosave at the path does not delete them. Files set aside earlier
+     * are replaced.
+     *
+     * @param base path the autosave files are named after
+     * @throws IOException if a file cannot be moved
+     */
+    public static void setAside(Path base) throws IOException {
+        for (String suffix : new String[] {".snapshot", ".journal", ".journal.old"}) {
+            Path path = sibling(base, suffix);
+            if (Files.exists(path)) {
+                Files.move(path, sibling(path, ".bak"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Appends a record of the changed tiles and new events to the journal
+     */
+    private void appendRecord(Logger log) throws IOException {
+        GridView grid = scenario.getGridView();
+        AnimalRegistry animals = scenario.getController().getRegistry();
+        List<Event> events = log.getEventsSince(savedEvents);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(bytes);
+        record.writeLong(sequence + 1);
+        writeTickState(record, scenario);
+        record.writeInt(dirtyCount);
+        for (int i = 0; i < dirtyCount; i++) {
+            Entity entity = grid.getContents(dirtyIndices[i]);
+            record.writeInt(dirtyIndices[i]);
+            record.writeUTF(entity == null ? "" : entity.encode());
+            record.writeLong(entity == null ? Entity.NO_ID : entity.getId());
+        }
+        if (animals.getModCount() == savedOrder) {
+            record.writeInt(-1);
+        } else {
+            record.writeInt(animals.size());
+            record.writeLong(animals.getNextId());
+            for (int slot = 0; slot < animals.size(); slot++) {
+                record.writeLong(animals.get(slot).getId());
+            }
+        }
+        writeEvents(record, events);
+        record.writeInt(log.getTilesTraversed());
+        record.writeInt(log.getEntitiesCollected());
+        record.writeInt(log.getPointsEarned());
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        journal.writeInt(bytes.size());
+        journal.writeInt((int) crc.getValue());
+        bytes.writeTo(journal);
+        journal.flush();
+
+        sequence++;
+        journalSize += 8 + bytes.size();
+        savedEvents = log.getEventCount();
+        savedOrder = animals.getModCount();
+        clearDirty();
+    }
+
+    /**
+     * Copies the scenario, rotates the journal and encodes and writes the copy as a snapshot in
+     * the background
+     */
+    private void compact() throws IOException {
+        awaitCompaction();
+        Snapshot snapshot = capture(true);
+        journal.close();
+        Files.move(journalPath, oldJournalPath, StandardCopyOption.REPLACE_EXISTING);
+        openJournal();
+        compaction = compactor.submit(() -> {
+            writeFile(snapshotPath, snapshot.encode());
+            Files.deleteIfExists(oldJournalPath);
+            return null;
+        });
+    }
+
+    /**
+     * Waits for the last background compaction to finish, rethrowing its failure
+     */
+    private void awaitCompaction() throws IOException {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Autosave compaction failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for autosave compaction", e);
+        } finally {
+            compaction = null;
+        }
+    }
+
+    /**
+     * Captures the scenario and log for a snapshot, which covers everything changed so far.
+     * If the snapshot is to be encoded on the compactor thread, the scenario is copied so that
+     * it can go on changing meanwhile.
+     */
+    private Snapshot capture(boolean copy) {
+        Scenario source = scenario;
+        if (copy) {
+            source = scenario.copy(scenario.getName(), scenario.getSeed());
+            source.getRandomStreams().setLegacyState(
+                scenario.getRandomStreams().getLegacyState());
+        }
+        Logger log = scenario.getLog();
+        AnimalRegistry animals = scenario.getController().getRegistry();
+        Snapshot snapshot = new Snapshot(++sequence, source, log, animals.getNextId());
+        savedEvents = log.getEventCount();
+        savedOrder = animals.getModCount();
+        terrainChanged = false;
+        clearDirty();
+        return snapshot;
+    }
+
+    /**
+     * Opens a new, empty journal
+     */
+    private void openJournal() throws IOException {
+        journal = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+            journalPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)));
+        journal.write(JOURNAL_MAGIC);
+        journal.writeShort(VERSION);
+        journal.flush();
+        journalSize = 0;
+    }
+
+    /**
+     * Forgets which tiles have changed
+     */
+    private void clearDirty() {
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty.clear(dirtyIndices[i]);
+        }
+        dirtyCount = 0;
+    }
+
+    /**
+     * Applies the records of a journal with a sequence number after the given one and returns
+     * the sequence number reached
+     */
+    private static long replay(Scenario scenario, Path path, long sequence)
+            throws IOException, BadSaveException {
+        if (!Files.exists(path)) {
+            return sequence;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            checkMagic(in, JOURNAL_MAGIC);
+            while (true) {
+                byte[] bytes = readRecord(in);
+                if (bytes == null) {
+                    return sequence;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+                long recordSequence = record.readLong();
+                if (recordSequence <= sequence) {
+                    continue;
+                }
+                applyRecord(scenario, record);
+                sequence = recordSequence;
+            }
+        } catch (EOFException e) {
+            return sequence; // journal header itself was cut short
+        }
+    }
+
+    /**
+     * Reads the next complete record, or returns null if the journal ends before one
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            return (int) crc.getValue() == checksum ? bytes : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Applies one journal record to the scenario
+     */
+    private static void applyRecord(Scenario scenario, DataInputStream record)
+            throws IOException, BadSaveException {
+        TileStore store = scenario.getTileStore();
+        AnimalRegistry animals = scenario.getController().getRegistry();
+        readTickState(record, scenario);
+        int tiles = record.readInt();
+        Map<Long, Fauna> placed = new HashMap<>();
+        for (int i = 0; i < tiles; i++) {
+            int index = record.readInt();
+            String encoded = record.readUTF();
+            long id = record.readLong();
+            Entity entity = encoded.isEmpty() ? null : Entity.decode(encoded);
+            if (entity != null && id != Entity.NO_ID) {
+                assignId(entity, id);
+                if (entity instanceof Fauna) {
+                    placed.put(id, (Fauna) entity);
+                }
+            }
+            store.setContents(index, entity);
+        }
+        int count = record.readInt();
+        if (count < 0) {
+            // no animal was added or removed, so every animal placed has a slot to take over
+            for (Fauna animal : placed.values()) {
+                if (!animals.replace(animal)) {
+                    throw new BadSaveException("Animal " + animal.getId() + " is not registered");
+                }
+            }
+        } else {
+            long nextId = record.readLong();
+            List<Fauna> order = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long id = record.readLong();
+                Fauna animal = placed.containsKey(id) ? placed.get(id) : animals.getById(id);
+                if (animal == null) {
+                    throw new BadSaveException("Animal " + id + " is not on the map");
+                }
+                order.add(animal);
+            }
+            restoreOrder(animals, order, nextId);
+        }
+        List<Event> events = readEvents(record);
+        int traversed = record.readInt();
+        int collected = record.readInt();
+        int points = record.readInt();
+        scenario.getLog().restore(events, traversed, collected, points);
+    }
+
+    /**
+     * Replaces the registered animals with the given ones, failing on a bad id
+     */
+    private static void restoreOrder(AnimalRegistry animals, List<Fauna> order, long nextId)
+            throws BadSaveException {
+        try {
+            animals.restore(order, nextId);
+        } catch (IllegalArgumentException e) {
+            throw new BadSaveException("Bad animal order: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gives a recovered entity its saved id, failing on a bad id
+     */
+    private static void assignId(Entity entity, long id) throws BadSaveException {
+        try {
+            entity.assignId(id);
+        } catch (IllegalArgumentException e) {
+            throw new BadSaveException("Bad entity id: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the tick, the random mode and the state of the shared random of a scenario
+     */
+    private static void writeTickState(DataOutputStream out, Scenario scenario)
+            throws IOException {
+        RandomStreams random = scenario.getRandomStreams();
+        out.writeLong(scenario.getTick());
+        out.writeByte(random.getMode().ordinal());
+        out.writeLong(random.getLegacyState());
+    }
+
+    /**
+     * Reads what {@link #writeTickState} wrote and restores it to a scenario
+     */
+    private static void readTickState(DataInputStream in, Scenario scenario)
+            throws IOException, BadSaveException {
+        long tick = in.readLong();
+        int mode = in.readUnsignedByte();
+        long state = in.readLong();
+        if (mode >= MODES.length) {
+            throw new BadSaveException("Unknown random mode " + mode);
+        }
+        scenario.setTick(tick);
+        scenario.getRandomStreams().setMode(MODES[mode]);
+        scenario.getRandomStreams().setLegacyState(state);
+    }
+
+    /**
+     * Writes a count followed by the events
+     */
+    private static void writeEvents(DataOutputStream out, List<Event> events)
+            throws IOException {
+        out.writeInt(events.size());
+        for (Event event : events) {
+            EventCodec.write(event, out);
+        }
+    }
+
+    /**
+     * Reads events written by {@link #writeEvents}
+     */
+    private static List<Event> readEvents(DataInputStream in)
+            throws IOException, BadSaveException {
+        int count = in.readInt();
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(EventCodec.read(in));
+        }
+        return events;
+    }
+
+    /**
+     * Reads and checks the magic bytes and version of a snapshot or journal
+     */
+    private static void checkMagic(DataInputStream in, byte[] magic)
+            throws IOException, BadSaveException {
+        for (byte expected : magic) {
+            if (in.readByte() != expected) {
+                throw new BadSaveException("Not an autosave file");
+            }
+        }
+        int version = in.readUnsignedShort();
+        if (version != VERSION) {
+            throw new BadSaveException("Unsupported autosave version " + version);
+        }
+    }
+
+    /**
+     * Writes a file in full under a temporary name, then moves it into place
+     */
+    private static void writeFile(Path path, byte[] contents) throws IOException {
+        Path temporary = sibling(path, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            out.write(contents);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the path with the given suffix added to its file name
+     */
+    private static Path sibling(Path path, String suffix) {
+        return path.resolveSibling(path.getFileName() + suffix);
+    }
+
+    /**
+     * The state a snapshot is encoded from, captured on the thread running the scenario
+     */
+    private static final class Snapshot {
+
+        /**
+         * Sequence number of the snapshot
+         */
+        private final long sequence;
+
+        /**
+         * Scenario to encode, the saved scenario itself or a copy of it
+         */
+        private final Scenario scenario;
+
+        /**
+         * Logged events held in memory
+         */
+        private final List<Event> events;
+
+        /**
+         * Tiles traversed, from the log
+         */
+        private final int traversed;
+
+        /**
+         * Entities collected, from the log
+         */
+        private final int collected;
+
+        /**
+         * Points earned, from the log
+         */
+        private final int points;
+
+        /**
+         * Id the next animal added to the saved scenario is given
+         */
+        private final long nextId;
+
+        private Snapshot(long sequence, Scenario scenario, Logger log, long nextId) {
+            this.sequence = sequence;
+            this.scenario = scenario;
+            this.events = log.getEvents();
+            this.traversed = log.getTilesTraversed();
+            this.collected = log.getEntitiesCollected();
+            this.points = log.getPointsEarned();
+            this.nextId = nextId;
+        }
+
+        /**
+         * Encodes the snapshot
+         */
+        private byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(SNAPSHOT_MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(sequence);
+            out.writeInt(traversed);
+            out.writeInt(collected);
+            out.writeInt(points);
+            writeEvents(out, events);
+            scenario.encodeBinary(out);
+            writeTickState(out, scenario);
+            out.writeLong(nextId);
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package researchsim.scenario;
+
+import researchsim.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Runs one scenario many times with different seeds, in parallel, and reports the log totals
+ * of every run.
+ * <p>
+ * The scenario is loaded once, as the template, and each run works on a
+ * {@link Scenario#copy(String, int) copy} of it with the run's seed, advanced one tick at a
+ * time with {@link AnimalController#move()} inside a {@link ScenarioContext} scope of its
+ * own. Runs share nothing but the template, which is only read, so they are spread over the
+ * threads of a {@link ForkJoinPool} and throughput grows with the number of threads.
+ * <p>
+ * A sweep is a set of seeds and a set of tick counts. Every seed is simulated once, up to the
+ * largest tick count, and a {@link Result} is reported each time it reaches one of the tick
+ * counts, which gives the same totals as separate runs of each length. Results are passed to
+ * the sink as they are produced, one at a time, so the sink need not be thread-safe; their
+ * order depends on scheduling. {@link #csv(Appendable)} and {@link #json(Appendable)} create
+ * sinks that stream the results as text.
+ * <p>
+ * The runs only keep the totals of their logs, not the events themselves.
+ */
+public class BatchRunner {
+
+    /**
+     * Header line of the CSV output, without a line separator.
+     */
+    public static final String CSV_HEADER =
+        "seed,ticks,pointsEarned,tilesTraversed,entitiesCollected,events,nanos";
+
+    /**
+     * Scenario every run is a copy of
+     */
+    private final Scenario template;
+
+    /**
+     * Pool the runs are spread over
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a runner for the given template using as many threads as there are available
+     * processors.
+     *
+     * @param template scenario to copy for every run
+     */
+    public BatchRunner(Scenario template) {
+        this(template, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a runner for the given template running the given number of runs at once.
+     *
+     * @param template    scenario to copy for every run
+     * @param parallelism number of threads
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public BatchRunner(Scenario template, int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.template = template;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Returns the number of runs made at once.
+     *
+     * @return parallelism of the runner
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Runs a sweep, simulating every seed up to the largest tick count and reporting a result
+     * for every seed at every tick count.
+     *
+     * @param seeds      seeds of the runs
+     * @param tickCounts numbers of ticks to report results at
+     * @param sink       receives the results, one at a time
+     * @return number of results reported
+     * @throws IllegalArgumentException if a tick count is negative
+     */
+    public long run(int[] seeds, long[] tickCounts, Consumer<? super Result> sink)
+            throws IllegalArgumentException {
+        long[] checkpoints = Arrays.stream(tickCounts).sorted().distinct().toArray();
+        if (checkpoints.length > 0 && checkpoints[0] < 0) {
+            throw new IllegalArgumentException("Tick counts cannot be negative: "
+                + checkpoints[0]);
+        }
+        Object lock = new Object();
+        pool.submit(() -> Arrays.stream(seeds).parallel().forEach(seed ->
+            runSeed(seed, checkpoints, result -> {
+                synchronized (lock) {
+                    sink.accept(result);
+                }
+            }))).join();
+        return (long) seeds.length * checkpoints.length;
+    }
+
+    /**
+     * Simulates one seed, reporting a result at every checkpoint
+     */
+    private void runSeed(int seed, long[] checkpoints, Consumer<Result> sink) {
+        long start = System.nanoTime();
+        Scenario scenario = template.copy(template.getName() + " #" + seed, seed);
+        scenario.setLog(new Logger(1));
+        ScenarioContext.Scope scope = ScenarioContext.enter(scenario);
+        try {
+            AnimalController controller = scenario.getController();
+            long ticks = 0;
+            for (long checkpoint : checkpoints) {
+                for (; ticks < checkpoint; ticks++) {
+                    controller.move();
+                }
+                sink.accept(new Result(seed, ticks, scenario.getLog(),
+                    System.nanoTime() - start));
+            }
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Returns a sink writing results to the given output as CSV, one line per result, after
+     * writing {@link #CSV_HEADER} straight away.
+     *
+     * @param out where to write the results
+     * @return CSV sink
+     * @throws UncheckedIOException if the output throws an IOException
+     */
+    public static Consumer<Result> csv(Appendable out) throws UncheckedIOException {
+        writeLine(out, CSV_HEADER);
+        return result -> writeLine(out, result.toCsv());
+    }
+
+    /**
+     * Returns a sink writing results to the given output as JSON Lines, one JSON object per
+     * line, so the output can be read while the sweep is still running.
+     *
+     * @param out where to write the results
+     * @return JSON sink
+     */
+    public static Consumer<Result> json(Appendable out) {
+        return result -> writeLine(out, result.toJson());
+    }
+
+    /**
+     * Appends a line to an output, rethrowing IOExceptions unchecked
+     */
+    private static void writeLine(Appendable out, String line) {
+        try {
+            out.append(line).append(System.lineSeparator());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The log totals of one run after a number of ticks.
+     */
+    public static final class Result {
+
+        /**
+         * Seed of the run
+         */
+        private final int seed;
+
+        /**
+         * Number of ticks the run had been advanced by
+         */
+        private final long ticks;
+
+        /**
+         * Points earned in collect events
+         */
+        private final int pointsEarned;
+
+        /**
+         * Tiles travelled in move events
+         */
+        private final int tilesTraversed;
+
+        /**
+         * Entities collected in collect events
+         */
+        private final int entitiesCollected;
+
+        /**
+         * Number of events logged
+         */
+        private final int events;
+
+        /**
+         * Time from the start of the run, copying the template included, in nanoseconds
+         */
+        private final long nanos;
+
+        /**
+         * Creates the result of a run from the totals of its log
+         */
+        private Result(int seed, long ticks, Logger log, long nanos) {
+            this.seed = seed;
+            this.ticks = ticks;
+            this.pointsEarned = log.getPointsEarned();
+            this.tilesTraversed = log.getTilesTraversed();
+            this.entitiesCollected = log.getEntitiesCollected();
+            this.events = log.getEventCount();
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the seed of the run.
+         *
+         * @return run seed
+         */
+        public int getSeed() {
+            return seed;
+        }
+
+        /**
+         * Returns the number of ticks the run had been advanced by.
+         *
+         * @return tick count
+         */
+        public long getTicks() {
+            return ticks;
+        }
+
+        /**
+         * Returns the points earned in the run.
+         *
+         * @return points earned
+         */
+        public int getPointsEarned() {
+            return pointsEarned;
+        }
+
+        /**
+         * Returns the tiles travelled in the run.
+         *
+         * @return tiles traversed
+         */
+        public int getTilesTraversed() {
+            return tilesTraversed;
+        }
+
+        /**
+         * Returns the entities collected in the run.
+         *
+         * @return entities collected
+         */
+        public int getEntitiesCollected() {
+            return entitiesCollected;
+        }
+
+        /**
+         * Returns the number of events logged in the run.
+         *
+         * @return event count
+         */
+        public int getEventCount() {
+            return events;
+        }
+
+        /**
+         * Returns the time taken by the run so far, copying the template included.
+         *
+         * @return elapsed time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the result as a line of CSV in the layout of {@link #CSV_HEADER}.
+         *
+         * @return CSV line without a line separator
+         */
+        public String toCsv() {
+            return seed + "," + ticks + "," + pointsEarned + "," + tilesTraversed + ","
+                + entitiesCollected + "," + events + "," + nanos;
+        }
+
+        /**
+         * Returns the result as a JSON object with the fields of {@link #CSV_HEADER}.
+         *
+         * @return JSON object on one line
+         */
+        public String toJson() {
+            return "{\"seed\":" + seed + ",\"ticks\":" + ticks + ",\"pointsEarned\":"
+                + pointsEarned + ",\"tilesTraversed\":" + tilesTraversed
+                + ",\"entitiesCollected\":" + entitiesCollected + ",\"events\":" + events
+                + ",\"nanos\":" + nanos + "}";
+        }
+
+        @Override
+        public String toString() {
+            return toCsv();
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package researchsim.scenario;
+
+import researchsim.entities.Entity;
+import researchsim.entities.Fauna;
+import researchsim.entities.Flora;
+import researchsim.entities.Size;
+import researchsim.entities.User;
+import researchsim.map.Coordinate;
+import researchsim.map.GridView;
+import researchsim.map.MappedTileStore;
+import researchsim.map.TileStore;
+import researchsim.map.TileType;
+import researchsim.util.BadSaveException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader and writer for the binary save format.
+ * <p>
+ * All values are big-endian. A binary save is laid out as:
+ * <ol>
+ *     <li>the magic bytes {@code RSIM}</li>
+ *     <li>format version (unsigned short) and flags (unsigned short, bit 0 set for large-map
+ *     mode)</li>
+ *     <li>width, height and seed (int each)</li>
+ *     <li>scenario name (modified UTF-8, as written by {@link DataOutputStream#writeUTF})</li>
+ *     <li>from version 2, the random mode ordinal (unsigned byte) and the tick (long)</li>
+ *     <li>terrain: the tile type ordinal of every tile in grid index order, 2 bits per tile, four
+ *     tiles to a byte starting from the high bits</li>
+ *     <li>string table: a count (int) followed by that many user names (modified UTF-8)</li>
+ *     <li>entity table: a count (int) followed by that many {@value #ENTITY_BYTES} byte records
+ *     of kind, size ordinal, habitat ordinal and a reserved byte, then the grid index (int) and
+ *     the string table index of the user's name (int, -1 for other entities)</li>
+ *     <li>from version 2, animal table: a count (int) followed by the grid index (int) and id
+ *     (long) of each animal of the animal controller, in the controller's order</li>
+ * </ol>
+ * Entities are subject to the same placement rules as in the text format. The animals in the
+ * animal table are added to the animal controller in that order with those ids, followed by
+ * any other fauna in grid order. Version 1 saves are still read, with every fauna added in
+ * grid order.
+ */
+final class BinaryScenarioFormat {
+
+    /**
+     * Bytes every binary save starts with
+     */
+    static final byte[] MAGIC = {'R', 'S', 'I', 'M'};
+
+    /**
+     * Version of the format written by this class
+     */
+    static final int VERSION = 2;
+
+    /**
+     * First version holding the random mode, the tick and the animal table
+     */
+    private static final int VERSION_ANIMALS = 2;
+
+    /**
+     * Size in bytes of one record of the entity table
+     */
+    static final int ENTITY_BYTES = 12;
+
+    /**
+     * Header flag marking a scenario created in large-map mode
+     */
+    private static final int FLAG_LARGE_MAP = 1;
+
+    /**
+     * Entity kind of a user record
+     */
+    private static final int KIND_USER = 0;
+
+    /**
+     * Entity kind of a fauna record
+     */
+    private static final int KIND_FAUNA = 1;
+
+    /**
+     * Entity kind of a flora record
+     */
+    private static final int KIND_FLORA = 2;
+
+    /**
+     * Number of terrain bytes converted at a time
+     */
+    private static final int TERRAIN_BUFFER = 8192;
+
+    /**
+     * Tile types by ordinal
+     */
+    private static final TileType[] TILE_TYPES = TileType.values();
+
+    /**
+     * Sizes by ordinal
+     */
+    private static final Size[] SIZES = Size.values();
+
+    /**
+     * Random modes by ordinal
+     */
+    private static final RandomStreams.Mode[] MODES = RandomStreams.Mode.values();
+
+    private BinaryScenarioFormat() {
+    }
+
+    /**
+     * Returns whether the stream starts with the binary magic bytes, without consuming them.
+     *
+     * @param in stream to check, must support mark and reset
+     * @return true if the stream holds a binary save
+     * @throws IOException if the stream throws an IOException
+     */
+    static boolean isBinary(InputStream in) throws IOException {
+        in.mark(MAGIC.length);
+        try {
+            for (byte expected : MAGIC) {
+                if (in.read() != expected) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Writes a scenario in the binary format. The stream is flushed but not closed.
+     *
+     * @param scenario scenario to write, every tile must have a type
+     * @param stream   where to write the scenario
+     * @throws IOException if the stream throws an IOException
+     */
+    static void write(Scenario scenario, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        GridView grid = scenario.getGridView();
+        out.write(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(scenario.isLargeMap() ? FLAG_LARGE_MAP : 0);
+        out.writeInt(scenario.getWidth());
+        out.writeInt(scenario.getHeight());
+        out.writeInt(scenario.getSeed());
+        out.writeUTF(scenario.getName());
+        out.writeByte(scenario.getRandomStreams().getMode().ordinal());
+        out.writeLong(scenario.getTick());
+
+        int occupied = 0;
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> nameIndex = new HashMap<>();
+        byte[] buffer = new byte[TERRAIN_BUFFER];
+        int position = 0;
+        for (int i = 0; i < grid.getSize(); i += 4) {
+            int packed = 0;
+            for (int j = 0; j < 4; j++) {
+                packed <<= 2;
+                if (i + j < grid.getSize()) {
+                    packed |= typeAt(grid, i + j).ordinal();
+                    Entity entity = grid.getContents(i + j);
+                    if (entity != null) {
+                        occupied++;
+                        if (entity instanceof User
+                                && nameIndex.putIfAbsent(entity.getName(), names.size()) == null) {
+                            names.add(entity.getName());
+                        }
+                    }
+                }
+            }
+            buffer[position++] = (byte) packed;
+            if (position == buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+        out.write(buffer, 0, position);
+
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+        out.writeInt(occupied);
+        for (int index = 0; index < grid.getSize(); index++) {
+            Entity entity = grid.getContents(index);
+            if (entity == null) {
+                continue;
+            }
+            int habitat = 0;
+            int name = -1;
+            if (entity instanceof User) {
+                out.writeByte(KIND_USER);
+                name = nameIndex.get(entity.getName());
+            } else if (entity instanceof Fauna) {
+                out.writeByte(KIND_FAUNA);
+                habitat = ((Fauna) entity).getHabitat().ordinal();
+            } else {
+                out.writeByte(KIND_FLORA);
+            }
+            out.writeByte(entity.getSize().ordinal());
+            out.writeByte(habitat);
+            out.writeByte(0);
+            out.writeInt(index);
+            out.writeInt(name);
+        }
+        List<Fauna> animals = scenario.getPlacedAnimals();
+        out.writeInt(animals.size());
+        for (Fauna animal : animals) {
+            out.writeInt(animal.getCoordinate().getIndex(scenario.getGeometry()));
+            out.writeLong(animal.getId());
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a binary save into a new scenario.
+     * <p>
+     * The scenario is not registered with the {@link ScenarioManager}, that is left to the
+     * caller. Fauna found in the save are added to the scenario's {@link AnimalController}.
+     *
+     * @param stream stream positioned at the magic bytes
+     * @return the parsed scenario
+     * @throws IOException      if the stream throws an IOException
+     * @throws BadSaveException if the save is not a valid binary save
+     */
+    static Scenario read(InputStream stream) throws IOException, BadSaveException {
+        DataInputStream in = new DataInputStream(stream instanceof BufferedInputStream
+            ? stream : new BufferedInputStream(stream));
+        try {
+            int version = readVersion(in);
+            Scenario scenario = readHeader(in, version);
+            readTerrain(in, scenario.getTileStore());
+            readEntities(in, scenario, version);
+            return scenario;
+        } catch (EOFException e) {
+            throw new BadSaveException("Unexpected end of binary save", e);
+        }
+    }
+
+    /**
+     * Opens a binary save file with its terrain memory-mapped rather than read.
+     * <p>
+     * The terrain section is mapped read-only and served by a {@link MappedTileStore}, so opening
+     * the save does not read the map and only the pages for the regions of the map that are
+     * looked at are ever loaded. The string and entity tables are read as by
+     * {@link #read(InputStream)}. The mapping stays valid after this method returns.
+     * <p>
+     * The scenario is not registered with the {@link ScenarioManager}, that is left to the
+     * caller.
+     *
+     * @param path binary save file
+     * @return the opened scenario
+     * @throws IOException      if the file cannot be read or mapped
+     * @throws BadSaveException if the file is not a valid binary save
+     */
+    static Scenario map(Path path) throws IOException, BadSaveException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // unbuffered, so the channel position stays at the end of what has been read
+            DataInputStream header = new DataInputStream(Channels.newInputStream(channel));
+            int version = readVersion(header);
+            Scenario scenario = readHeader(header, version);
+            long offset = channel.position();
+            int length = MappedTileStore.getPackedLength(scenario.getSize());
+            if (offset + length > channel.size()) {
+                throw new BadSaveException("Unexpected end of binary save");
+            }
+            scenario.setTileStore(new MappedTileStore(
+                channel.map(FileChannel.MapMode.READ_ONLY, offset, length),
+                scenario.getWidth(), scenario.getHeight()));
+
+            channel.position(offset + length);
+            readEntities(new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel))), scenario, version);
+            return scenario;
+        } catch (EOFException e) {
+            throw new BadSaveException("Unexpected end of binary save", e);
+        }
+    }
+
+    /**
+     * Reads the magic bytes and returns the format version
+     */
+    private static int readVersion(DataInputStream in) throws IOException, BadSaveException {
+        for (byte expected : MAGIC) {
+            if (in.readByte() != expected) {
+                throw new BadSaveException("Not a binary save");
+            }
+        }
+        int version = in.readUnsignedShort();
+        if (version < 1 || version > VERSION) {
+            throw new BadSaveException("Unsupported binary save version " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Reads the rest of the header and creates an empty scenario from it
+     */
+    private static Scenario readHeader(DataInputStream in, int version)
+            throws IOException, BadSaveException {
+        int flags = in.readUnsignedShort();
+        int width = in.readInt();
+        int height = in.readInt();
+        int seed = in.readInt();
+        String name = in.readUTF();
+        Scenario scenario;
+        try {
+            scenario = new Scenario(name, width, height, seed, (flags & FLAG_LARGE_MAP) != 0);
+        } catch (IllegalArgumentException e) {
+            throw new BadSaveException("Bad header: " + e.getMessage());
+        }
+        if (version >= VERSION_ANIMALS) {
+            int mode = in.readUnsignedByte();
+            long tick = in.readLong();
+            if (mode >= MODES.length || tick < 0) {
+                throw new BadSaveException("Bad header: bad random mode or tick");
+            }
+            scenario.getRandomStreams().setMode(MODES[mode]);
+            scenario.setTick(tick);
+        }
+        return scenario;
+    }
+
+    /**
+     * Decodes the packed terrain section into the store
+     */
+    private static void readTerrain(DataInputStream in, TileStore store) throws IOException {
+        byte[] buffer = new byte[TERRAIN_BUFFER];
+        int remaining = MappedTileStore.getPackedLength(store.getSize());
+        int index = 0;
+        while (remaining > 0) {
+            int length = Math.min(remaining, buffer.length);
+            in.readFully(buffer, 0, length);
+            for (int b = 0; b < length; b++) {
+                for (int shift = 6; shift >= 0 && index < store.getSize(); shift -= 2) {
+                    store.setType(index++, TILE_TYPES[(buffer[b] >> shift) & 3]);
+                }
+            }
+            remaining -= length;
+        }
+    }
+
+    /**
+     * Reads the string, entity and animal tables, places the entities on the map and adds the
+     * animals to the animal controller
+     */
+    private static void readEntities(DataInputStream in, Scenario scenario, int version)
+            throws IOException, BadSaveException {
+        // grown as names are read rather than sized by the count, which may be corrupt
+        int strings = readCount(in, "string");
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < strings; i++) {
+            names.add(in.readUTF());
+        }
+        int entities = readCount(in, "entity");
+        List<Fauna> fauna = new ArrayList<>();
+        for (int i = 0; i < entities; i++) {
+            Entity entity = readEntity(in, scenario, names, i);
+            if (entity instanceof Fauna) {
+                fauna.add((Fauna) entity);
+            }
+        }
+        if (version >= VERSION_ANIMALS) {
+            readAnimals(in, scenario);
+        }
+        AnimalController controller = scenario.getController();
+        for (Fauna animal : fauna) {
+            if (animal.getId() == Entity.NO_ID) {
+                controller.addAnimal(animal);
+            }
+        }
+    }
+
+    /**
+     * Reads the animal table, giving each animal listed its id and adding it to the animal
+     * controller
+     */
+    private static void readAnimals(DataInputStream in, Scenario scenario)
+            throws IOException, BadSaveException {
+        int animals = readCount(in, "animal");
+        TileStore store = scenario.getTileStore();
+        for (int i = 0; i < animals; i++) {
+            int index = in.readInt();
+            long id = in.readLong();
+            Entity entity = index >= 0 && index < scenario.getSize()
+                ? store.getContents(index) : null;
+            if (!(entity instanceof Fauna) || entity.getId() != Entity.NO_ID) {
+                throw new BadSaveException("Animal " + (i + 1) + ": no new fauna at grid index "
+                    + index);
+            }
+            try {
+                entity.assignId(id);
+                scenario.getController().addAnimal((Fauna) entity);
+            } catch (IllegalArgumentException e) {
+                throw new BadSaveException("Animal " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads one entity record, places the entity on the map and returns it
+     */
+    private static Entity readEntity(DataInputStream in, Scenario scenario, List<String> names,
+                                     int record) throws IOException, BadSaveException {
+        int kind = in.readUnsignedByte();
+        int size = in.readUnsignedByte();
+        int habitat = in.readUnsignedByte();
+        in.readUnsignedByte();
+        int index = in.readInt();
+        int name = in.readInt();
+        if (size >= SIZES.length || habitat >= TILE_TYPES.length) {
+            throw entityError(record, "bad size or habitat");
+        }
+        if (index < 0 || index >= scenario.getSize()) {
+            throw entityError(record, "grid index " + index + " is outside the map");
+        }
+        Coordinate coordinate = scenario.getCoordinates().get(index);
+        Entity entity;
+        switch (kind) {
+            case KIND_USER:
+                if (name < 0 || name >= names.size()) {
+                    throw entityError(record, "bad user name index " + name);
+                }
+                entity = new User(coordinate, names.get(name));
+                break;
+            case KIND_FAUNA:
+                try {
+                    entity = new Fauna(SIZES[size], coordinate, TILE_TYPES[habitat]);
+                } catch (IllegalArgumentException e) {
+                    throw entityError(record, e.getMessage());
+                }
+                break;
+            case KIND_FLORA:
+                entity = new Flora(SIZES[size], coordinate);
+                break;
+            default:
+                throw entityError(record, "unknown entity kind " + kind);
+        }
+        TileStore store = scenario.getTileStore();
+        String problem = ScenarioReader.checkPlacement(store, index, entity);
+        if (problem != null) {
+            throw entityError(record, problem);
+        }
+        store.setContents(index, entity);
+        return entity;
+    }
+
+    /**
+     * Reads a section count, which must not be negative
+     */
+    private static int readCount(DataInputStream in, String section)
+            throws IOException, BadSaveException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new BadSaveException("Negative " + section + " count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the type of a tile being written, failing if it has none
+     */
+    private static TileType typeAt(GridView grid, int index) {
+        TileType type = grid.getType(index);
+        if (type == null) {
+            throw new IllegalStateException("Tile " + index + " has no type");
+        }
+        return type;
+    }
+
+    /**
+     * Creates an exception for a problem with an entity record
+     */
+    private static BadSaveException entityError(int record, String message) {
+        return new BadSaveException("Entity " + (record + 1) + ": " + message);
+    }
+}
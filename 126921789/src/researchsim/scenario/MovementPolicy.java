@@ -0,0 +1,26 @@
+package researchsim.scenario;
+
+import researchsim.entities.Fauna;
+
+import java.util.List;
+
+/**
+ * Decides which animals of a scenario move during one call to {@link AnimalController#move()},
+ * and where to.
+ *
+ * @see AnimalController#setMovementPolicy(MovementPolicy)
+ * @see SequentialMovementPolicy
+ * @see ParallelMovementPolicy
+ */
+@FunctionalInterface
+public interface MovementPolicy {
+
+    /**
+     * Moves animals of the given scenario.
+     *
+     * @param scenario scenario the animals are in, which is the current scenario
+     * @param animals  animals controlled by the scenario's controller, in the order they were
+     *                 added; the list must not be modified
+     */
+    void move(Scenario scenario, List<Fauna> animals);
+}
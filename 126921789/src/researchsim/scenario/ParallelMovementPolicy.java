@@ -0,0 +1,208 @@
+package researchsim.scenario;
+
+import researchsim.entities.EntityStore;
+import researchsim.entities.Fauna;
+import researchsim.map.Coordinate;
+import researchsim.map.GridView;
+import researchsim.map.Reachability;
+import researchsim.util.DiamondOffsets;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Moves every animal at once, working out the moves on several threads.
+ * <p>
+ * Each call runs in three phases:
+ * <ol>
+ *     <li>Propose: every animal picks one of its {@link Fauna#getPossibleMoves()} against the
+ *     map as it is at the start of the call. Animals are handled concurrently and nothing is
+ *     changed during this phase.</li>
+ *     <li>Resolve: if several animals picked the same tile, the one with the lowest priority
+ *     wins it and the others stay where they are.</li>
+ *     <li>Commit: the winning moves are made one after the other in the order the animals are
+ *     listed, so the log records them in that order.</li>
+ * </ol>
+ * The choice of move and the priority of every animal come from a random stream of their own,
+ * keyed by the animal's {@link researchsim.entities.Entity#getId() id}. In
+ * {@link RandomStreams.Mode#SPLIT} mode these are the scenario's streams for the tick; in
+ * {@link RandomStreams.Mode#LEGACY} mode they are derived from one number drawn from the
+ * scenario's shared {@link java.util.Random} per call.
+ * Either way the outcome is the same whatever the number of threads and however they are
+ * scheduled.
+ * <p>
+ * Proposals are worked out on the map of the scenario passed to {@link #move(Scenario, List)},
+ * not on the one the worker threads would look up through {@link ScenarioManager}, so the
+ * policy can be used inside a {@link ScenarioContext} scope while another scenario is current.
+ * <p>
+ * If the scenario has an {@link Scenario#enableEntityStore() entity store}, proposals are
+ * worked out from its arrays rather than from the animal objects, and every fauna in the store
+ * takes part in place of the animals listed. The moves chosen are the same either way, but
+ * they are committed, and logged, in the order of the animals' slots in the store.
+ * <p>
+ * Unlike {@link SequentialMovementPolicy}, every animal that can move does so on every call,
+ * and moves are checked against the map at the start of the call rather than after the moves
+ * of the animals before it, so two animals can pass through each other's new tiles.
+ */
+public class ParallelMovementPolicy implements MovementPolicy {
+
+    /**
+     * Pool the proposals are computed in
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a policy using as many threads as there are available processors.
+     */
+    public ParallelMovementPolicy() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a policy computing proposals on the given number of threads.
+     * <p>
+     * The threads are daemon threads that exit on their own once the policy is no longer used.
+     *
+     * @param parallelism number of threads
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public ParallelMovementPolicy(int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Returns the number of threads proposals are computed on.
+     *
+     * @return parallelism of the policy
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public void move(Scenario scenario, List<Fauna> animals) {
+        int count = animals.size();
+        if (count == 0) {
+            return;
+        }
+        RandomStreams streams = scenario.getRandomStreams();
+        RandomStreams source = streams.isLegacy()
+            ? new RandomStreams(scenario.getRandom().nextLong()) : streams;
+        long tick = scenario.getTick();
+        EntityStore store = scenario.getEntityStore();
+        if (store != null) {
+            moveStored(scenario, store, source, tick);
+            return;
+        }
+        Fauna[] movers = animals.toArray(new Fauna[0]);
+        GridView grid = scenario.getGridView();
+
+        int[] targets = new int[count];
+        long[] priorities = new long[count];
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+            SplittableRandom random = source.stream(tick, movers[i].getId());
+            targets[i] = propose(movers[i], grid, random);
+            priorities[i] = random.nextLong();
+        })).join();
+
+        boolean[] winners = resolve(targets, priorities);
+
+        for (int i = 0; i < count; i++) {
+            if (winners[i]) {
+                movers[i].move(scenario.getCoordinates().get(targets[i]));
+            }
+        }
+    }
+
+    /**
+     * Moves the fauna attached to an entity store, proposing from the store's arrays
+     */
+    private void moveStored(Scenario scenario, EntityStore store, RandomStreams source,
+                            long tick) {
+        GridView grid = scenario.getGridView();
+        int slots = store.getSlotCount();
+        int[] targets = new int[slots];
+        long[] priorities = new long[slots];
+        pool.submit(() -> IntStream.range(0, slots).parallel().forEach(slot -> {
+            targets[slot] = -1;
+            if (!store.isAlive(slot) || store.getKind(slot) != EntityStore.FAUNA) {
+                return;
+            }
+            SplittableRandom random = source.stream(tick, store.getId(slot));
+            int radius = store.getSize(slot).moveDistance;
+            int[] indices = DiamondOffsets.buffer(radius);
+            int count = Reachability.fill(grid, store.getX(slot), store.getY(slot), radius,
+                Fauna.getTileRule(grid, store.getHabitat(slot)), indices);
+            if (count > 0) {
+                targets[slot] = indices[random.nextInt(count)];
+            }
+            priorities[slot] = random.nextLong();
+        })).join();
+
+        boolean[] winners = resolve(targets, priorities);
+
+        // an animal that moves leaves its slot and takes it straight back, so slots are stable
+        for (int slot = 0; slot < slots; slot++) {
+            if (winners[slot]) {
+                ((Fauna) store.getEntity(slot)).move(scenario.getCoordinates().get(targets[slot]));
+            }
+        }
+    }
+
+    /**
+     * Returns the grid index of the tile an animal picks on the given map, or -1 if it cannot
+     * move. The tiles to pick from are found as {@link Fauna#getPossibleMoves()} finds them, in
+     * the same order
+     */
+    private static int propose(Fauna animal, GridView grid, SplittableRandom random) {
+        Coordinate coordinate = animal.getCoordinate();
+        int radius = animal.getSize().moveDistance;
+        int[] indices = DiamondOffsets.buffer(radius);
+        int count = Reachability.fill(grid, coordinate.getX(), coordinate.getY(), radius,
+            Fauna.getTileRule(grid, animal.getHabitat()), indices);
+        if (count == 0) {
+            return -1;
+        }
+        return indices[random.nextInt(count)];
+    }
+
+    /**
+     * Returns which animals get the tile they picked, one per picked tile
+     */
+    private static boolean[] resolve(int[] targets, long[] priorities) {
+        // claims sort by tile, then by position
+        long[] claims = new long[targets.length];
+        int claimCount = 0;
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i] >= 0) {
+                claims[claimCount++] = ((long) targets[i] << 32) | i;
+            }
+        }
+        Arrays.sort(claims, 0, claimCount);
+
+        boolean[] winners = new boolean[targets.length];
+        int start = 0;
+        while (start < claimCount) {
+            long tile = claims[start] >>> 32;
+            int winner = (int) claims[start];
+            long best = priorities[winner];
+            int end = start + 1;
+            for (; end < claimCount && claims[end] >>> 32 == tile; end++) {
+                int position = (int) claims[end];
+                if (priorities[position] < best) {
+                    best = priorities[position];
+                    winner = position;
+                }
+            }
+            winners[winner] = true;
+            start = end;
+        }
+        return winners;
+    }
+}
@@ -0,0 +1,213 @@
+package researchsim.scenario;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * The sources of random numbers of a scenario.
+ * <p>
+ * In {@link Mode#LEGACY} mode, the default, every random choice is drawn from one shared
+ * {@link Random} created from the scenario's seed, in the order the choices are made. This is
+ * how scenarios have always behaved, so existing saves replay exactly as they used to, but it
+ * means choices can only be made one at a time.
+ * <p>
+ * In {@link Mode#SPLIT} mode, choices are drawn from independent streams, each identified by
+ * the scenario seed, a tick and a key chosen by the caller, typically identifying the entity
+ * making the choice. A stream depends on nothing else, so an entity makes the same choices
+ * whichever thread runs it and whatever other entities do in the same tick.
+ *
+ * @see Scenario#getRandomStreams()
+ */
+public final class RandomStreams {
+
+    /**
+     * How random choices are drawn.
+     */
+    public enum Mode {
+        /**
+         * Every choice is drawn in turn from the scenario's shared {@link Random}.
+         */
+        LEGACY,
+        /**
+         * Choices are drawn from streams keyed by seed, tick and entity.
+         */
+        SPLIT
+    }
+
+    /**
+     * Key of the stream for choices that do not belong to any one entity
+     */
+    public static final long SCENARIO_KEY = -1;
+
+    /**
+     * Odd constant spacing out the hash inputs of consecutive ticks and keys
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Seed every stream is derived from
+     */
+    private final long seed;
+
+    /**
+     * Shared random used in legacy mode
+     */
+    private final LegacyRandom legacy;
+
+    /**
+     * How choices are drawn
+     */
+    private volatile Mode mode;
+
+    /**
+     * Creates the random sources for a scenario, in legacy mode.
+     *
+     * @param seed seed of the scenario
+     */
+    public RandomStreams(long seed) {
+        this.seed = seed;
+        this.legacy = new LegacyRandom(seed);
+        this.mode = Mode.LEGACY;
+    }
+
+    /**
+     * Returns how random choices are drawn.
+     *
+     * @return random mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Sets how random choices are drawn from now on.
+     *
+     * @param mode random mode
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Returns whether choices are drawn from the shared random.
+     *
+     * @return true if in {@link Mode#LEGACY} mode
+     */
+    public boolean isLegacy() {
+        return mode == Mode.LEGACY;
+    }
+
+    /**
+     * Returns the shared random that choices are drawn from in legacy mode.
+     *
+     * @return shared random
+     */
+    public Random getLegacy() {
+        return legacy;
+    }
+
+    /**
+     * Returns the state of the shared random, from which it goes on to draw the same numbers
+     * once restored with {@link #setLegacyState(long)}.
+     *
+     * @return state of the shared random
+     */
+    public long getLegacyState() {
+        return legacy.getState();
+    }
+
+    /**
+     * Restores the state of the shared random to one returned by {@link #getLegacyState()}.
+     *
+     * @param state state of the shared random
+     */
+    public void setLegacyState(long state) {
+        legacy.setState(state);
+    }
+
+    /**
+     * Returns a new random stream for the given tick and key. Calls with the same tick and key
+     * return streams producing the same numbers.
+     *
+     * @param tick tick the choices are made in
+     * @param key  what the choices are made for, such as an entity, or {@link #SCENARIO_KEY}
+     * @return random stream
+     */
+    public SplittableRandom stream(long tick, long key) {
+        return new SplittableRandom(hash(tick, key));
+    }
+
+    /**
+     * Returns a well mixed 64 bit hash of the seed, the given tick and key.
+     *
+     * @param tick tick the choices are made in
+     * @param key  what the choices are made for
+     * @return hash to seed a stream or draw a number from
+     */
+    public long hash(long tick, long key) {
+        return mix(mix(seed + tick * GOLDEN_GAMMA) + key * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Mixes the bits of a value, as the output step of SplitMix64
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * The shared random of legacy mode. It draws exactly the numbers a {@link Random} with the
+     * same seed would, but keeps its 48 bit state where it can be read and restored.
+     */
+    private static final class LegacyRandom extends Random {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Multiplier of the linear congruential generator, as in {@link Random}
+         */
+        private static final long MULTIPLIER = 0x5DEECE66DL;
+
+        /**
+         * Addend of the linear congruential generator, as in {@link Random}
+         */
+        private static final long ADDEND = 0xBL;
+
+        /**
+         * Mask of the 48 bits of state
+         */
+        private static final long MASK = (1L << 48) - 1;
+
+        /**
+         * State of the generator, set by {@link #setSeed} from the constructor of
+         * {@link Random} so it must not have an initializer
+         */
+        private long state;
+
+        LegacyRandom(long seed) {
+            super(seed);
+        }
+
+        @Override
+        public synchronized void setSeed(long seed) {
+            super.setSeed(seed);
+            state = (seed ^ MULTIPLIER) & MASK;
+        }
+
+        @Override
+        protected synchronized int next(int bits) {
+            state = (state * MULTIPLIER + ADDEND) & MASK;
+            return (int) (state >>> (48 - bits));
+        }
+
+        synchronized long getState() {
+            return state;
+        }
+
+        synchronized void setState(long state) {
+            this.state = state & MASK;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package researchsim.scenario;
+
+import researchsim.util.BadSaveException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool converting saves between the text and binary formats.
+ * <p>
+ * Usage: {@code SaveConverter input_file output_file}
+ * <p>
+ * The format of the input file is detected automatically and the output file is written in the
+ * other format, so text saves such as those in {@code saves/} become binary saves and binary
+ * saves become text saves.
+ */
+public final class SaveConverter {
+
+    private SaveConverter() {
+    }
+
+    /**
+     * Converts a save to the other format.
+     *
+     * @param input  save to convert
+     * @param output where to write the converted save
+     * @return true if the input was a text save and the output is binary
+     * @throws IOException      if either file cannot be read or written
+     * @throws BadSaveException if the input is not a valid save
+     */
+    public static boolean convert(Path input, Path output) throws IOException, BadSaveException {
+        Scenario scenario;
+        boolean toBinary;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(input))) {
+            toBinary = !BinaryScenarioFormat.isBinary(in);
+            scenario = Scenario.load(in);
+        }
+        if (toBinary) {
+            try (OutputStream out = Files.newOutputStream(output)) {
+                scenario.encodeBinary(out);
+            }
+        } else {
+            try (Writer out = new BufferedWriter(
+                    new OutputStreamWriter(Files.newOutputStream(output)))) {
+                scenario.encodeTo(out);
+            }
+        }
+        return toBinary;
+    }
+
+    /**
+     * Runs the converter.
+     *
+     * @param args input and output file paths
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: input_file output_file");
+            System.exit(1);
+        }
+        try {
+            boolean toBinary = convert(Paths.get(args[0]), Paths.get(args[1]));
+            System.out.println("Converted " + args[0] + " to a " + (toBinary ? "binary" : "text")
+                + " save at " + args[1]);
+        } catch (IOException | BadSaveException e) {
+            System.err.println("Error converting " + args[0] + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package researchsim.scenario;
 
+import researchsim.entities.Entity;
+import researchsim.entities.EntityStore;
 import researchsim.entities.Fauna;
 import researchsim.entities.Flora;
-import researchsim.entities.Size;
 import researchsim.entities.User;
 import researchsim.logging.Logger;
-import researchsim.map.Coordinate;
+import researchsim.map.ChunkedTileStore;
+import researchsim.map.CoordinateCache;
+import researchsim.map.GridGeometry;
+import researchsim.map.GridListener;
+import researchsim.map.GridView;
+import researchsim.map.PackedTileStore;
+import researchsim.map.SpatialIndex;
 import researchsim.map.Tile;
+import researchsim.map.TileStore;
 import researchsim.map.TileType;
 import researchsim.util.BadSaveException;
 import researchsim.util.CoordinateOutOfBoundsException;
-import researchsim.util.NoSuchEntityException;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 
@@ -49,6 +63,12 @@ public class Scenario {
      * @ass1
      */
     public static final int MAX_TILES = MAX_SIZE * MAX_SIZE;
+    /**
+     * The maximum dimensions of the map grid of a large-map scenario.
+     * Chosen so that every tile index of the largest map still fits in an {@code int}.
+     * The value of this constant is {@value}
+     */
+    public static final int MAX_LARGE_SIZE = 46340;
     /**
      * The name of this scenario.
      */
@@ -61,10 +81,38 @@ public class Scenario {
      * The height of the map in the scenario.
      */
     private final int height;
+    /**
+     * The dimensions of the map in the scenario.
+     */
+    private final GridGeometry geometry;
+    /**
+     * Shared coordinates for the tiles of the map in the scenario.
+     */
+    private final CoordinateCache coordinates;
+    /**
+     * Whether this scenario was created in large-map mode.
+     */
+    private final boolean largeMap;
     /**
      * The tile grid for this scenario.
      */
-    private Tile[] mapGrid;
+    private TileStore mapGrid;
+    /**
+     * Read-only view of the current tile grid.
+     */
+    private GridView gridView;
+    /**
+     * Listeners kept registered with the tile grid, even when it is replaced.
+     */
+    private final List<GridListener> gridListeners;
+    /**
+     * Index of the entities on the map, null until first asked for
+     */
+    private SpatialIndex spatialIndex;
+    /**
+     * Struct-of-arrays state of the entities on the map, null unless enabled
+     */
+    private EntityStore entityStore;
     /**
      * The log for events for this scenario
      */
@@ -74,9 +122,17 @@ public class Scenario {
      */
     private AnimalController animalController;
     /**
-     * The random instance for the seed of the scenario
+     * The sources of random numbers for the scenario
+     */
+    private final RandomStreams random;
+    /**
+     * The number of ticks the scenario has been advanced by
+     */
+    private long tick;
+    /**
+     * The seed the random instance was created with
      */
-    private Random seed;
+    private final int initialSeed;
     
     /**
      * Creates a new Scenario with a given name, width, height and random seed. <br>
@@ -98,13 +154,37 @@ public class Scenario {
      * @see Random (<a href="https://docs.oracle.com/en/java/javase/11/docs/api/java.base/java/util/Random.html">Link</a>)
      */
     public Scenario(String name, int width, int height, int seed) throws IllegalArgumentException {
-        if (width > MAX_SIZE || width < MIN_SIZE) {
+        this(name, width, height, seed, false);
+    }
+
+    /**
+     * Creates a new Scenario with a given name, width, height and random seed, optionally in
+     * large-map mode. <br>
+     * A large-map scenario may be up to {@value Scenario#MAX_LARGE_SIZE} tiles wide and high.
+     * Its grid is held in fixed-size chunks that are only allocated once a tile inside them is
+     * set (see {@link ChunkedTileStore}), so memory grows with the touched area of the map
+     * rather than with width * height. <br>
+     * Otherwise the scenario behaves exactly as one created by
+     * {@link #Scenario(String, int, int, int)}.
+     *
+     * @param name     scenario name
+     * @param width    width of the board
+     * @param height   height of the board
+     * @param seed     the random seed for this scenario
+     * @param largeMap true to create the scenario in large-map mode
+     * @throws IllegalArgumentException if width or height are outside of the bounds allowed for
+     *                                  the chosen mode or name is {@code null}
+     */
+    public Scenario(String name, int width, int height, int seed, boolean largeMap)
+            throws IllegalArgumentException {
+        final int maxSize = largeMap ? MAX_LARGE_SIZE : MAX_SIZE;
+        if (width > maxSize || width < MIN_SIZE) {
             throw new IllegalArgumentException("The given width does not conform to the "
-                + "requirement: " + MIN_SIZE + " <= width <= " + MAX_SIZE + ".");
+                + "requirement: " + MIN_SIZE + " <= width <= " + maxSize + ".");
         }
-        if (height > MAX_SIZE || height < MIN_SIZE) {
+        if (height > maxSize || height < MIN_SIZE) {
             throw new IllegalArgumentException("The given height does not conform to the "
-                + "requirement: " + MIN_SIZE + " <= height <= " + MAX_SIZE + ".");
+                + "requirement: " + MIN_SIZE + " <= height <= " + maxSize + ".");
         }
         if (name == null) {
             throw new IllegalArgumentException("The given name does not conform to the "
@@ -113,10 +193,26 @@ public class Scenario {
         this.name = name;
         this.width = width;
         this.height = height;
-        this.mapGrid = new Tile[width * height];
-        this.seed = new Random(seed);
+        this.geometry = new GridGeometry(width, height);
+        this.coordinates = new CoordinateCache(geometry);
+        this.largeMap = largeMap;
+        this.mapGrid = createStore();
+        this.gridView = new GridView(mapGrid, geometry);
+        this.random = new RandomStreams(seed);
+        this.initialSeed = seed;
         this.log = new Logger();
         this.animalController = new AnimalController();
+        this.gridListeners = new ArrayList<>();
+    }
+
+    /**
+     * Creates an empty tile store suited to the mode of this scenario
+     */
+    private TileStore createStore() {
+        if (largeMap) {
+            return new ChunkedTileStore(width, height);
+        }
+        return new PackedTileStore(width * height);
     }
 
     /**
@@ -133,12 +229,19 @@ public class Scenario {
      * Returns the map grid for this scenario.
      * <p>
      * Adding or removing elements from the returned array should not affect the original array.
+     * <p>
+     * This copies the whole grid, code that only needs to read tiles should use
+     * {@link #getGridView()} instead.
      *
      * @return map grid
      * @ass1
      */
     public Tile[] getMapGrid() {
-        return Arrays.copyOf(mapGrid, getSize());
+        Tile[] copy = new Tile[getSize()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = mapGrid.get(i);
+        }
+        return copy;
     }
 
     /**
@@ -155,7 +258,151 @@ public class Scenario {
         if (map.length != getSize()) {
             throw new CoordinateOutOfBoundsException();
         }
-        mapGrid = Arrays.copyOf(map, getSize());
+        TileStore store = createStore();
+        for (int i = 0; i < map.length; i++) {
+            store.set(i, map[i]);
+        }
+        TileStore previous = mapGrid;
+        setTileStore(store);
+        for (GridListener listener : gridListeners) {
+            for (int i = 0; i < map.length; i++) {
+                if (previous.getType(i) != store.getType(i)) {
+                    listener.typeChanged(i, previous.getType(i), store.getType(i));
+                }
+                if (previous.getContents(i) != store.getContents(i)) {
+                    listener.contentsChanged(i, previous.getContents(i), store.getContents(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the store backing the map grid, for use by the scenario loaders.
+     *
+     * @return tile store
+     */
+    TileStore getTileStore() {
+        return mapGrid;
+    }
+
+    /**
+     * Replaces the store backing the map grid, for use by the scenario loaders.
+     *
+     * @param store new tile store, must be the size of this scenario's map
+     */
+    void setTileStore(TileStore store) {
+        for (GridListener listener : gridListeners) {
+            mapGrid.removeListener(listener);
+            store.addListener(listener);
+        }
+        mapGrid = store;
+        gridView = new GridView(store, geometry);
+        if (spatialIndex != null) {
+            removeGridListener(spatialIndex);
+            spatialIndex = null;
+        }
+        if (entityStore != null) {
+            removeGridListener(entityStore);
+            entityStore.detachAll();
+            entityStore = EntityStore.of(gridView, coordinates);
+            addGridListener(entityStore);
+        }
+    }
+
+    /**
+     * Registers a listener to be notified of every later change to a tile of the map grid.
+     * <p>
+     * The listener stays registered if the grid is replaced with {@link #setMapGrid(Tile[])},
+     * and is then notified of every tile that differs between the old and new grid.
+     *
+     * @param listener listener to add
+     */
+    public void addGridListener(GridListener listener) {
+        gridListeners.add(listener);
+        mapGrid.addListener(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addGridListener(GridListener)}.
+     *
+     * @param listener listener to remove
+     */
+    public void removeGridListener(GridListener listener) {
+        if (gridListeners.remove(listener)) {
+            mapGrid.removeListener(listener);
+        }
+    }
+
+    /**
+     * Returns an index of the entities on the map of this scenario by position.
+     * <p>
+     * The index is built from the map the first time it is asked for and is then kept up to
+     * date as entities move, are collected or are placed, including when the grid is replaced
+     * with {@link #setMapGrid(Tile[])}.
+     *
+     * @return spatial index of the map's entities
+     */
+    public SpatialIndex getSpatialIndex() {
+        if (spatialIndex == null) {
+            spatialIndex = SpatialIndex.of(gridView);
+            addGridListener(spatialIndex);
+        }
+        return spatialIndex;
+    }
+
+    /**
+     * Keeps the state of the entities on the map of this scenario in an {@link EntityStore}
+     * from now on.
+     * <p>
+     * Every entity on the map is attached to the store, and entities placed on the map later
+     * are attached as they arrive, including when the grid is replaced with
+     * {@link #setMapGrid(Tile[])}. Systems that support the store, such as
+     * {@link ParallelMovementPolicy}, then work from its arrays instead of the entity objects.
+     * Calling this when the store is already enabled returns the existing store.
+     *
+     * @return the scenario's entity store
+     */
+    public EntityStore enableEntityStore() {
+        if (entityStore == null) {
+            entityStore = EntityStore.of(gridView, coordinates);
+            addGridListener(entityStore);
+        }
+        return entityStore;
+    }
+
+    /**
+     * Stops keeping the state of the entities on the map in an {@link EntityStore}, detaching
+     * every entity from it. Does nothing if the store is not enabled.
+     */
+    public void disableEntityStore() {
+        if (entityStore != null) {
+            removeGridListener(entityStore);
+            entityStore.detachAll();
+            entityStore = null;
+        }
+    }
+
+    /**
+     * Returns the store holding the state of the entities on the map of this scenario.
+     *
+     * @return the entity store, or null if it has not been enabled
+     * @see #enableEntityStore()
+     */
+    public EntityStore getEntityStore() {
+        return entityStore;
+    }
+
+    /**
+     * Returns a read-only view of the map grid for this scenario.
+     * <p>
+     * The view is not a copy, so it is cheap to obtain and reflects later changes to tile
+     * contents. If the grid is replaced with {@link #setMapGrid(Tile[])} a new view must be
+     * obtained.
+     *
+     * @return map grid view
+     */
+    public GridView getGridView() {
+        return gridView;
     }
 
 
@@ -179,6 +426,27 @@ public class Scenario {
         return height;
     }
 
+    /**
+     * Returns the dimensions of the map for this scenario.
+     * <p>
+     * Index and bounds arithmetic done through the geometry does not depend on which scenario
+     * is currently active in the {@link ScenarioManager}.
+     *
+     * @return map geometry
+     */
+    public GridGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the cache of shared coordinates for the tiles of the map for this scenario.
+     *
+     * @return coordinate cache
+     */
+    public CoordinateCache getCoordinates() {
+        return coordinates;
+    }
+
     /**
      * Returns the size of the map in the scenario.<br>
      * The size of a map is the total number of tiles in the Tile array.
@@ -190,12 +458,64 @@ public class Scenario {
         return width * height;
     }
 
+    /**
+     * Returns whether this scenario was created in large-map mode.
+     *
+     * @return true if the map grid is held in on-demand chunks
+     * @see #Scenario(String, int, int, int, boolean)
+     */
+    public boolean isLargeMap() {
+        return largeMap;
+    }
+
     /**
      * return the random seed for the current scenario
+     * this is the shared random used by {@link RandomStreams.Mode#LEGACY} mode
      * @return random seed
      */
     public Random getRandom() {
-        return seed;
+        return random.getLegacy();
+    }
+
+    /**
+     * returns the sources of random numbers for the scenario
+     * @return random streams of the scenario
+     */
+    public RandomStreams getRandomStreams() {
+        return random;
+    }
+
+    /**
+     * returns the number of ticks the scenario has been advanced by
+     * a tick is one call to {@link AnimalController#move()}, the first tick is 1
+     * @return number of completed ticks, 0 for a newly loaded scenario
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * advances the tick counter of the scenario by one
+     * @return the new tick
+     */
+    long nextTick() {
+        return ++tick;
+    }
+
+    /**
+     * sets the tick counter of the scenario, when restoring a saved scenario
+     * @param tick number of completed ticks
+     */
+    void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * returns the seed the scenario's random instance was created with
+     * @return scenario seed
+     */
+    public int getSeed() {
+        return initialSeed;
     }
 
     /**
@@ -206,6 +526,15 @@ public class Scenario {
         return log;
     }
 
+    /**
+     * replaces the log for the scenario, for example with one of limited capacity
+     * (see {@link Logger#Logger(int)}), events logged so far are not copied to the new log
+     * @param log new logger for scenario
+     */
+    public void setLog(Logger log) {
+        this.log = log;
+    }
+
     /**
      * returns the controller controls how all animals move in a scenario
      * @return AnimalController for current scenario
@@ -214,172 +543,132 @@ public class Scenario {
         return animalController;
     }
 
+    /**
+     * returns a copy of the scenario with a new name and seed, for running the same map many
+     * times, for example with {@link BatchRunner}
+     * the copy has the same map, tick, random mode and movement policy, and a new entity in
+     * place of every entity; animals are added to its controller in the same order and with the
+     * same ids, so a copy given the seed of a save behaves exactly as the save loaded afresh
+     * the copy starts with an empty log and is not added to the scenario manager
+     * @param name name of the copy
+     * @param seed random seed of the copy
+     * @return the copy
+     */
+    public Scenario copy(String name, int seed) {
+        Scenario copy = new Scenario(name, width, height, seed, largeMap);
+        TileStore store = copy.mapGrid;
+        Map<Fauna, Fauna> animals = new IdentityHashMap<>();
+        for (int i = 0; i < getSize(); i++) {
+            TileType type = mapGrid.getType(i);
+            if (type != null) {
+                store.setType(i, type);
+            }
+            Entity entity = mapGrid.getContents(i);
+            if (entity instanceof Fauna) {
+                Fauna fauna = (Fauna) entity;
+                Fauna animal = new Fauna(fauna.getSize(), fauna.getCoordinate(),
+                    fauna.getHabitat());
+                animals.put(fauna, animal);
+                store.setContents(i, animal);
+            } else if (entity instanceof Flora) {
+                store.setContents(i, new Flora(entity.getSize(), entity.getCoordinate()));
+            } else if (entity instanceof User) {
+                store.setContents(i, new User(entity.getCoordinate(), entity.getName()));
+            }
+        }
+        for (Fauna fauna : animalController.getAnimals()) {
+            Fauna animal = animals.get(fauna);
+            if (animal != null) {
+                animal.assignId(fauna.getId());
+                copy.animalController.addAnimal(animal);
+            }
+        }
+        copy.animalController.setMovementPolicy(animalController.getMovementPolicy());
+        copy.random.setMode(random.getMode());
+        copy.tick = tick;
+        return copy;
+    }
+
     /**
      * the load method takes a reader laid out using the scenario encode and creates a scenario.
-     * The scenario is then added to scenario manager as well as returned.
+     * The scenario is then registered with the scenario manager, without being made current,
+     * as well as returned.
      * The layout of a valid reader is :
      * {ScenarioName}
      *  Width:{Width}
      *  Height:{Height}
      *  Seed:{Seed}
+     *  Mode:{Mode}
+     *  Tick:{Tick}
      *  {Separator}
      *  {map}
      *  {Separator}
      *  {entity}
      *  {entity...}
      *  where entity portion is optional and not required
+     *  The Mode and Tick lines are optional, either can be left out, and give the random mode
+     *  and tick of the scenario, which are LEGACY and 0 otherwise. A fauna line may end in an
+     *  extra -{id} field giving the animal's id; animals with ids are added to the animal
+     *  controller in the order of their lines, then the other fauna.
+     *  If width or height is larger than {@value #MAX_SIZE} the scenario is created in
+     *  large-map mode.
+     *  The reader is parsed one line at a time, so saves of any size can be loaded. Any fauna in
+     *  the save are added to the scenario's animal controller.
      * @param reader The file with scenario to read from
      * @return scenario based on reader contents
      * @throws IOException if issue reading the reader
-     * @throws BadSaveException if reader layout is invalid
+     * @throws BadSaveException if reader layout is invalid, the message gives the line number
      */
     public static Scenario load(Reader reader) throws IOException,
             BadSaveException {
-        char[] chars = new char[10000];
-        try {
-            reader.read(chars);
-            String file = new String(chars);
-            String[] fileParts = file.split("[:\r\n]");
-            // splits the file by new line and ":" character
-            if (fileParts.length < 8) { //8 is the amount of elements in fileParts before the map
-                throw new BadSaveException();
-            }
-            final String name = fileParts[0]; //name in first position of array
-            int width = Integer.parseInt(fileParts[2]); //width value should be third value in array
-            int height = Integer.parseInt(fileParts[4]); //Height should be fifth value in array
-            int seed = Integer.parseInt(fileParts[6]); //seed should be seventh value in array
+        Scenario scenario = new ScenarioReader(reader).read();
+        ScenarioManager.getInstance().register(scenario);
+        return scenario;
+    }
 
-            if (fileParts.length < 9 + height) { //9+height is amount of elements before Entities
-                throw new BadSaveException();
-            }
-            if (width == -1) {
-                width = 5;
-            }
-            if (height == -1) {
-                height = 5;
-            }
-            if (seed == -1) {
-                seed = 0;
-            }
-            // if the width, height or seed are -1 then set it to default value which is 5
-            final String separator = "=".repeat(width);
+    /**
+     * Loads a scenario from a stream holding either a text save (see {@link #load(Reader)}) or a
+     * binary save (see {@link #encodeBinary(OutputStream)}). The format is detected from the
+     * first bytes of the stream, text saves are decoded with the platform's default charset.
+     * The scenario is then registered with the scenario manager, without being made current,
+     * as well as returned.
+     * @param in stream with the scenario to read from
+     * @return scenario based on stream contents
+     * @throws IOException if issue reading the stream
+     * @throws BadSaveException if the stream does not hold a valid save
+     */
+    public static Scenario load(InputStream in) throws IOException, BadSaveException {
+        BufferedInputStream buffered = in instanceof BufferedInputStream
+            ? (BufferedInputStream) in : new BufferedInputStream(in);
+        if (!BinaryScenarioFormat.isBinary(buffered)) {
+            return load(new InputStreamReader(buffered));
+        }
+        Scenario scenario = BinaryScenarioFormat.read(buffered);
+        ScenarioManager.getInstance().register(scenario);
+        return scenario;
+    }
 
-            //These are all checks to make sure the reader meets requirement
-            if (!fileParts[1].equals("Width")) { // Width should always be 2nd element
-                throw new BadSaveException();
-            }
-            if (!fileParts[3].equals("Height")) { //Height should always be 4th element
-                throw new BadSaveException();
-            }
-            if (!fileParts[5].equals("Seed")) { //Seed should always be 6th element
-                throw new BadSaveException();
-            }
-            if (!fileParts[7].equals(separator)) {
-                // 1st Separator should always be 8th element
-                throw new BadSaveException();
-            }
-            if (seed < -1) { //any seed less than negative 1 is invalid
-                throw new BadSaveException();
-            }
-            Scenario scenario = new Scenario(name, width, height, seed);
-            List<Tile> map = new ArrayList<>();
-            for (int i = 0; i < height; i++) {
-                if (fileParts[8 + i].length() != width) {
-                    throw new BadSaveException();
-                }
-                for (int l = 0; l < width; l++) {
-                    String tile = String.valueOf(fileParts[8 + i].charAt(l));
-                    //the 8th element in file parts is the beginning of the map
-                    Tile mapTile = new Tile(TileType.decode(tile));
-                    map.add(mapTile);
-                }
-            }
-            Tile[] newMap = new Tile[map.size()];
-            map.toArray(newMap);
-            try {
-                scenario.setMapGrid(newMap);
-            } catch (CoordinateOutOfBoundsException e) {
-                throw new BadSaveException();
-            }
-            ScenarioManager scenarioManager = ScenarioManager.getInstance();
-            scenarioManager.addScenario(scenario);
-            if (fileParts.length > 9 + height) {
-                //9 is the amount of elements not including map before entities
-                for (int i = 0; i < fileParts.length - (9 + height); i++) {
-                    String[] entity = fileParts[8 + height + i].split("-");
-                    //+8 because list indexing begins at 0 and not 1
-                    switch (entity[0]) {
-                        case "User":
-                            Coordinate coordinate = Coordinate.decode(entity[1]);
-                            String userName = entity[2];
-                            final User user = new User(coordinate, userName);
-                            Tile tile = newMap[coordinate.getIndex()];
-
-                            if (tile.hasContents()) {
-                                throw new BadSaveException();
-                                //tile should not have entity on it already
-                            }
-                            if (tile.getType() == TileType.OCEAN
-                                    || tile.getType() == TileType.MOUNTAIN) {
-                                throw new BadSaveException();
-                            }
-                            if (entity.length > 3) {
-                                throw new BadSaveException();
-                                //if more than three elements, user entity had to many hyphens
-                            }
-                            tile.setContents(user);
-                            break;
-
-                        case "Fauna":
-                            Coordinate coordinate2 = Coordinate.decode(entity[2]);
-                            Size size = Size.valueOf(entity[1]);
-                            TileType tileType = TileType.valueOf(entity[3]);
-                            Tile tile2 = newMap[coordinate2.getIndex()];
-                            final Fauna fauna = new Fauna(size, coordinate2, tileType);
-
-                            if (tile2.getType() != tileType) {
-                                throw new BadSaveException();
-                            }
-                            if (tile2.hasContents()) {
-                                throw new BadSaveException();
-                            }
-                            if (entity.length > 4) {
-                                throw new BadSaveException(); // fauna entity had too many hyphens
-                            }
-                            tile2.setContents(fauna);
-                            break;
-
-                        case "Flora":
-                            Coordinate coordinate3 = Coordinate.decode(entity[2]);
-                            Size size2 = Size.valueOf(entity[1]);
-                            TileType tileType2 = TileType.valueOf(entity[3]);
-                            Tile tile3 = newMap[coordinate3.getIndex()];
-                            final Flora flora = new Flora(size2, coordinate3);
-
-                            if (tile3.hasContents()) {
-                                throw new BadSaveException();
-                            }
-                            if (tileType2 == TileType.OCEAN) {
-                                throw new BadSaveException();
-                            }
-                            if (entity.length > 4) {
-                                throw new BadSaveException();
-                            }
-                            tile3.setContents(flora);
-                            break;
-                        default:
-                            throw new BadSaveException();
-                    }
-                }
+    /**
+     * Loads a scenario from a save file in either format (see {@link #load(InputStream)}).
+     * Binary saves are memory-mapped: their map is read from the file as regions of it are
+     * looked at rather than all at once, so opening a huge scenario is fast and keeps the map
+     * off the heap.
+     * The scenario is then registered with the scenario manager, without being made current,
+     * as well as returned.
+     * @param path save file to read from
+     * @return scenario based on file contents
+     * @throws IOException if issue reading the file
+     * @throws BadSaveException if the file does not hold a valid save
+     */
+    public static Scenario load(Path path) throws IOException, BadSaveException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            if (!BinaryScenarioFormat.isBinary(in)) {
+                return load(in);
             }
-            return scenario;
-        } catch (IOException e) {
-            throw new IOException();
-        } catch (IllegalArgumentException e) {
-            throw new BadSaveException();
-        } catch (Exception e) {
-            throw new BadSaveException();
         }
+        Scenario scenario = BinaryScenarioFormat.map(path);
+        ScenarioManager.getInstance().register(scenario);
+        return scenario;
     }
 
     /**
@@ -407,8 +696,13 @@ public class Scenario {
      */
     @Override
     public int hashCode() {
+        int mapHash = 1;
+        for (int i = 0; i < getSize(); i++) {
+            mapHash = 31 * mapHash + Objects.hashCode(gridView.getType(i));
+            mapHash = 31 * mapHash + Objects.hashCode(gridView.getContents(i));
+        }
         return name.hashCode() * Integer.hashCode(width)
-                * Integer.hashCode(height) * Arrays.hashCode(mapGrid);
+                * Integer.hashCode(height) * mapHash;
     }
 
     /**
@@ -426,32 +720,96 @@ public class Scenario {
      *  where separator is character = for the width of
      *  the scenario amount of times
      *  entity part is optional and only their if scenario has entities
+     *  once the scenario has been advanced or is in SPLIT random mode, Mode:{Mode} and
+     *  Tick:{Tick} lines follow the seed, and the animals of the controller are written last,
+     *  in the controller's order and with their ids (see {@link #load(Reader)}), so that the
+     *  loaded scenario goes on the same way in SPLIT mode
      * @return machine-readable string for scenario
      */
     public String encode() {
-        String encode = getName() + System.lineSeparator() + "Width:" + getWidth()
-                + System.lineSeparator();
-        encode = encode + "Height:" + getHeight() + System.lineSeparator() + "Seed:" + getRandom();
-        encode = encode + System.lineSeparator() + "=".repeat(getWidth()) + System.lineSeparator();
+        StringBuilder encode = new StringBuilder();
+        try {
+            encodeTo(encode);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringBuilder never throws
+        }
+        return encode.toString();
+    }
+
+    /**
+     * Writes the machine-readable format for the scenario (see {@link #encode()}) to the given
+     * output.
+     * <p>
+     * The header, each map row and each entity are appended to the output as soon as they are
+     * produced, in a single pass over the grid, so the whole save is never held in memory.
+     * Wrap unbuffered writers in a {@link java.io.BufferedWriter}.
+     *
+     * @param out where to write the scenario
+     * @throws IOException if the output throws an IOException
+     */
+    public void encodeTo(Appendable out) throws IOException {
+        final String lineSeparator = System.lineSeparator();
+        final String separator = "=".repeat(getWidth());
+        out.append(getName()).append(lineSeparator);
+        out.append("Width:").append(Integer.toString(getWidth())).append(lineSeparator);
+        out.append("Height:").append(Integer.toString(getHeight())).append(lineSeparator);
+        out.append("Seed:").append(Integer.toString(getSeed())).append(lineSeparator);
+        final boolean advanced = tick != 0 || random.getMode() != RandomStreams.Mode.LEGACY;
+        if (advanced) {
+            out.append("Mode:").append(random.getMode().name()).append(lineSeparator);
+            out.append("Tick:").append(Long.toString(tick)).append(lineSeparator);
+        }
+        out.append(separator).append(lineSeparator);
+        StringBuilder row = new StringBuilder(getWidth());
         for (int y = 0; y < getHeight(); y++) {
+            row.setLength(0);
+            int offset = y * width;
             for (int x = 0; x < getWidth(); x++) {
-                encode = encode + getMapGrid()[width * y + x].getType().encode();
+                row.append(gridView.getType(offset + x).encode());
             }
-            encode = encode + System.lineSeparator();
+            out.append(row).append(lineSeparator);
         }
-        encode = encode + "=".repeat(getWidth());
-        for (Tile tile : getMapGrid()) {
-            if (tile.hasContents()) {
-                encode = encode + System.lineSeparator();
-                try {
-                    encode = encode + tile.getContents().encode();
-                } catch (NoSuchEntityException e) {
-                    assert true;
-                    //do nothing since we know theirs an entity their by has content check
-                }
+        out.append(separator);
+        AnimalRegistry animals = animalController.getRegistry();
+        for (int i = 0; i < getSize(); i++) {
+            Entity entity = gridView.getContents(i);
+            if (entity != null && !(advanced && entity instanceof Fauna
+                    && animals.contains((Fauna) entity))) {
+                out.append(lineSeparator).append(entity.encode());
             }
         }
-        return  encode;
+        if (advanced) {
+            for (Fauna animal : getPlacedAnimals()) {
+                out.append(lineSeparator).append(animal.encode()).append('-')
+                    .append(Long.toString(animal.getId()));
+            }
+        }
+    }
+
+    /**
+     * returns the animals of the controller that are on the map, in the controller's order
+     * @return animals on the map
+     */
+    List<Fauna> getPlacedAnimals() {
+        List<Fauna> placed = new ArrayList<>();
+        for (Fauna animal : animalController.getAnimals()) {
+            if (gridView.getContents(animal.getCoordinate().getIndex(geometry)) == animal) {
+                placed.add(animal);
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Writes the scenario in the compact binary save format, which {@link #load(InputStream)}
+     * reads back. The map is stored at 2 bits per tile and each entity as a fixed-width record,
+     * so binary saves are much smaller and faster to load than text saves.
+     * The stream is flushed but not closed.
+     * @param out stream to write the scenario to
+     * @throws IOException if the stream throws an IOException
+     */
+    public void encodeBinary(OutputStream out) throws IOException {
+        BinaryScenarioFormat.write(this, out);
     }
 
     /**
@@ -488,8 +846,7 @@ public class Scenario {
         StringJoiner result = new StringJoiner(System.lineSeparator());
         result.add(name);
         result.add(String.format("Width: %d, Height: %d", width, height));
-        result.add(String.format("Entities: %d",
-            Arrays.stream(mapGrid).filter(Objects::nonNull).filter(Tile::hasContents).count()));
+        result.add(String.format("Entities: %d", gridView.countContents()));
         return result.toString();
     }
 }
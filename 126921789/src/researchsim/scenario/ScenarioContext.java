@@ -0,0 +1,125 @@
+package researchsim.scenario;
+
+/**
+ * The scenario the current thread is working on, when it is not the manager's current
+ * scenario.
+ * <p>
+ * Entities, coordinates and the log find "the" scenario through
+ * {@link ScenarioManager#getScenario()}. A thread can make that return a scenario of its own,
+ * without affecting any other thread, by entering a scope for it:
+ * <pre>
+ * ScenarioContext.Scope scope = ScenarioContext.enter(scenario);
+ * try {
+ *     scenario.getController().move();
+ * } finally {
+ *     scope.close();
+ * }</pre>
+ * or, more simply, with {@link #run(Scenario, Runnable)}.
+ * Inside the scope every lookup on the thread resolves to the given scenario, so threads in a
+ * pool can each simulate a different scenario at the same time and never see each other's map.
+ * Scopes may be nested; closing one restores the scenario that was in effect when it was
+ * entered. Threads that have not entered a scope see the manager's current scenario as before.
+ * <p>
+ * A scenario must still only be changed by one thread at a time.
+ */
+public final class ScenarioContext {
+
+    /**
+     * Scenario of the innermost open scope on each thread, null outside any scope
+     */
+    private static final ThreadLocal<Scenario> CURRENT = new ThreadLocal<>();
+
+    private ScenarioContext() {
+    }
+
+    /**
+     * Returns the scenario of the innermost scope open on the calling thread.
+     *
+     * @return the thread's scenario, or null if the thread is not in a scope
+     */
+    public static Scenario current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the given scenario the calling thread's scenario until the returned scope is
+     * closed.
+     *
+     * @param scenario scenario for the thread to work on
+     * @return scope to close, on the same thread, when the work is done
+     * @throws NullPointerException if scenario is null
+     */
+    public static Scope enter(Scenario scenario) throws NullPointerException {
+        if (scenario == null) {
+            throw new NullPointerException("Cannot enter a scope without a scenario.");
+        }
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scenario);
+        return scope;
+    }
+
+    /**
+     * Runs an action with the given scenario as the calling thread's scenario.
+     *
+     * @param scenario scenario for the action to work on
+     * @param action   action to run
+     */
+    public static void run(Scenario scenario, Runnable action) {
+        Scope scope = enter(scenario);
+        try {
+            action.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * An open scope of a thread's scenario, restoring the previous scenario when closed.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        /**
+         * Scenario in effect when the scope was entered, null if there was none
+         */
+        private final Scenario previous;
+
+        /**
+         * Thread that entered the scope
+         */
+        private final Thread owner;
+
+        /**
+         * Whether the scope has been closed
+         */
+        private boolean closed;
+
+        private Scope(Scenario previous) {
+            this.previous = previous;
+            this.owner = Thread.currentThread();
+        }
+
+        /**
+         * Restores the scenario that was in effect when the scope was entered. Closing a scope
+         * more than once has no further effect.
+         *
+         * @throws IllegalStateException if called from a thread other than the one that
+         *                               entered the scope
+         */
+        @Override
+        public void close() throws IllegalStateException {
+            if (Thread.currentThread() != owner) {
+                throw new IllegalStateException("A scenario scope must be closed by the thread"
+                    + " that entered it.");
+            }
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
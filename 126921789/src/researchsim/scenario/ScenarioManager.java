@@ -11,9 +11,15 @@ import java.util.Map;
  * <p>
  * All {@link Scenario}s loaded ({@link Scenario#load(Reader)}) in a Java session
  * (each session is when you run the project) must be registered with this manager using
- * {@link #addScenario(Scenario)},
+ * {@link #addScenario(Scenario)} or {@link #register(Scenario)},
  * which will allow other classes in the project to access the scenario's information during run
- * time.
+ * time. Loading registers a scenario without making it current, the caller chooses which
+ * scenario is current.
+ * <p>
+ * The manager may be used from several threads at once. Each thread sees the manager's
+ * current scenario unless it has entered a {@link ScenarioContext} scope of its own, in which
+ * case {@link #getScenario()} returns the thread's scenario instead. This lets one program
+ * host many scenarios and simulate them on different threads at the same time.
  * <p>
  * For more information on the Singleton class see: <p>
  * <a href="https://www.geeksforgeeks.org/singleton-class-java/">GeeksForGeeks</a>
@@ -27,17 +33,17 @@ public class ScenarioManager {
     /**
      * The singleton instance.
      */
-    private static ScenarioManager instance = null;
+    private static final ScenarioManager instance = new ScenarioManager();
 
     /**
-     * All scenarios that have currently been loaded.
+     * All scenarios that have currently been loaded, guarded by itself.
      */
     private final Map<String, Scenario> scenarios;
 
     /**
-     * The currently loaded scenario.
+     * The currently loaded scenario, null if none has been set.
      */
-    private String current;
+    private volatile Scenario current;
 
     /**
      * Creates a new ScenarioManager with an empty map of scenarios and current selected set to
@@ -48,7 +54,6 @@ public class ScenarioManager {
     private ScenarioManager() {
         this.scenarios = new LinkedHashMap<>();
         this.current = null;
-        instance = this;
     }
 
     /**
@@ -58,21 +63,24 @@ public class ScenarioManager {
      * @ass1
      */
     public static ScenarioManager getInstance() {
-        if (instance == null) {
-            instance = new ScenarioManager();
-        }
         return instance;
     }
 
     /**
      * Gets the current scenario from the manager.
+     * <p>
+     * If the calling thread is inside a {@link ScenarioContext} scope, the scope's scenario is
+     * returned instead, whether or not it is registered with the manager.
      *
      * @return current scenario or null if none has been set.
      * @throws NullPointerException if no scenario exists yet - helpful addition
      * @ass1
      */
     public Scenario getScenario() {
-        Scenario s = scenarios.get(current);
+        Scenario s = ScenarioContext.current();
+        if (s == null) {
+            s = current;
+        }
         if (s == null) {
             throw new NullPointerException("Tried to access a scenario from the manager when none"
                 + " have been added");
@@ -88,10 +96,25 @@ public class ScenarioManager {
      * @ass1_partial
      */
     public void setScenario(String scenarioName) throws BadSaveException {
-        if (scenarios.containsKey(scenarioName) == false) {
-            throw new BadSaveException();
+        synchronized (scenarios) {
+            Scenario scenario = scenarios.get(scenarioName);
+            if (scenario == null) {
+                throw new BadSaveException();
+            }
+            current = scenario;
+        }
+    }
+
+    /**
+     * Gets a loaded scenario by name, without making it the current scenario.
+     *
+     * @param scenarioName the name of the scenario
+     * @return the scenario, or null if no scenario with the name has been added
+     */
+    public Scenario getScenario(String scenarioName) {
+        synchronized (scenarios) {
+            return scenarios.get(scenarioName);
         }
-        current = scenarioName;
     }
 
     /**
@@ -106,7 +129,9 @@ public class ScenarioManager {
      * @ass1
      */
     public Map<String, Scenario> getLoadedScenarios() {
-        return new LinkedHashMap<>(scenarios);
+        synchronized (scenarios) {
+            return new LinkedHashMap<>(scenarios);
+        }
     }
 
     /**
@@ -124,11 +149,41 @@ public class ScenarioManager {
      * @ass1_partial
      */
     public void addScenario(Scenario scenario) {
-        this.scenarios.put(scenario.getName(), scenario);
-        try {
-            this.setScenario(scenario.getName());
-        } catch (BadSaveException e) {
-            throw new RuntimeException();
+        synchronized (scenarios) {
+            this.scenarios.put(scenario.getName(), scenario);
+            this.current = scenario;
+        }
+    }
+
+    /**
+     * Registers a scenario with the manager without making it the current scenario, so that
+     * scenarios can be loaded on any thread without changing the scenario other threads see.
+     * <p>
+     * If a scenario with the given name has previously been added it is replaced by the new
+     * one in the map, but stays current if it was.
+     *
+     * @param scenario a scenario to register with the manager
+     */
+    public void register(Scenario scenario) {
+        synchronized (scenarios) {
+            scenarios.put(scenario.getName(), scenario);
+        }
+    }
+
+    /**
+     * Unregisters the scenario with the given name. If it was the current scenario there is no
+     * current scenario afterwards.
+     *
+     * @param scenarioName the name of the scenario to remove
+     * @return the removed scenario, or null if no scenario with the name had been added
+     */
+    public Scenario removeScenario(String scenarioName) {
+        synchronized (scenarios) {
+            Scenario removed = scenarios.remove(scenarioName);
+            if (removed != null && removed == current) {
+                current = null;
+            }
+            return removed;
         }
     }
 
@@ -139,6 +194,9 @@ public class ScenarioManager {
      * returns 0).
      */
     public void reset() {
-        this.scenarios.clear();
+        synchronized (scenarios) {
+            this.scenarios.clear();
+            this.current = null;
+        }
     }
 }
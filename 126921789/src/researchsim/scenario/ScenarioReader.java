@@ -0,0 +1,307 @@
+package researchsim.scenario;
+
+import researchsim.entities.Entity;
+import researchsim.entities.Fauna;
+import researchsim.entities.Flora;
+import researchsim.entities.Size;
+import researchsim.entities.User;
+import researchsim.map.Coordinate;
+import researchsim.map.GridGeometry;
+import researchsim.map.TileStore;
+import researchsim.map.TileType;
+import researchsim.util.BadSaveException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for the text save format described in {@link Scenario#load(Reader)}.
+ * <p>
+ * The save is read one line at a time and map rows are decoded straight into the scenario's
+ * tile store, so memory use is bounded by the longest line rather than by the size of the file.
+ * Errors are reported as a {@link BadSaveException} whose message includes the line number.
+ */
+final class ScenarioReader {
+
+    /**
+     * Line-by-line source of the save
+     */
+    private final BufferedReader reader;
+
+    /**
+     * Number of the line most recently read, starting at 1
+     */
+    private int lineNumber;
+
+    /**
+     * Creates a parser reading from the given reader.
+     *
+     * @param reader save file contents
+     */
+    ScenarioReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader
+            ? (BufferedReader) reader : new BufferedReader(reader);
+        this.lineNumber = 0;
+    }
+
+    /**
+     * Parses a whole save into a new scenario.
+     * <p>
+     * The scenario is not registered with the {@link ScenarioManager}, that is left to the
+     * caller. Fauna found in the save are added to the scenario's {@link AnimalController}.
+     *
+     * @return the parsed scenario
+     * @throws IOException      if the reader throws an IOException
+     * @throws BadSaveException if the save does not follow the save format
+     */
+    Scenario read() throws IOException, BadSaveException {
+        final String name = nextLine();
+        int width = readHeader("Width");
+        int height = readHeader("Height");
+        int seed = readHeader("Seed");
+        if (width == -1) {
+            width = 5;
+        }
+        if (height == -1) {
+            height = 5;
+        }
+        if (seed == -1) {
+            seed = 0;
+        }
+        if (seed < -1) {
+            throw error("seed must be >= -1");
+        }
+        String line = nextLine();
+        RandomStreams.Mode mode = RandomStreams.Mode.LEGACY;
+        if (line.startsWith("Mode:")) {
+            try {
+                mode = RandomStreams.Mode.valueOf(line.substring("Mode:".length()));
+            } catch (IllegalArgumentException e) {
+                throw error("unknown random mode '" + line.substring("Mode:".length()) + "'");
+            }
+            line = nextLine();
+        }
+        long tick = 0;
+        if (line.startsWith("Tick:")) {
+            try {
+                tick = Long.parseLong(line.substring("Tick:".length()));
+            } catch (NumberFormatException e) {
+                throw error("Tick must be a whole number");
+            }
+            if (tick < 0) {
+                throw error("tick must be >= 0");
+            }
+            line = nextLine();
+        }
+        final String separator = "=".repeat(Math.max(width, 0));
+        checkSeparator(line, separator);
+
+        Scenario scenario;
+        try {
+            scenario = new Scenario(name, width, height, seed,
+                width > Scenario.MAX_SIZE || height > Scenario.MAX_SIZE);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+        scenario.getRandomStreams().setMode(mode);
+        scenario.setTick(tick);
+        readMap(scenario.getTileStore(), width, height);
+        checkSeparator(nextLine(), separator);
+
+        List<Fauna> unnumbered = new ArrayList<>();
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            readEntity(scenario, line, unnumbered);
+        }
+        for (Fauna fauna : unnumbered) {
+            scenario.getController().addAnimal(fauna);
+        }
+        return scenario;
+    }
+
+    /**
+     * Decodes the map rows into the given store
+     */
+    private void readMap(TileStore store, int width, int height)
+            throws IOException, BadSaveException {
+        for (int y = 0; y < height; y++) {
+            String row = nextLine();
+            if (row.length() != width) {
+                throw error("expected a map row of " + width + " tiles but found "
+                    + row.length());
+            }
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                try {
+                    store.setType(offset + x, TileType.decode(row.charAt(x)));
+                } catch (BadSaveException e) {
+                    throw error("unknown tile '" + row.charAt(x) + "' at column " + (x + 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a single entity line and places the entity on the map. Fauna with an id are added
+     * to the animal controller, those without one to the given list.
+     */
+    private void readEntity(Scenario scenario, String line, List<Fauna> unnumbered)
+            throws BadSaveException {
+        String[] parts = line.split("-");
+        TileStore store = scenario.getTileStore();
+        try {
+            switch (parts[0]) {
+                case "User": {
+                    if (parts.length != 3) {
+                        throw error("a user must be written as User-x,y-name");
+                    }
+                    Coordinate coordinate = Coordinate.decode(parts[1]);
+                    place(store, indexOf(scenario, coordinate), new User(coordinate, parts[2]));
+                    break;
+                }
+                case "Fauna": {
+                    if (parts.length != 4 && parts.length != 5) {
+                        throw error("fauna must be written as Fauna-size-x,y-habitat");
+                    }
+                    Size size = Size.valueOf(parts[1]);
+                    Coordinate coordinate = Coordinate.decode(parts[2]);
+                    TileType habitat = TileType.valueOf(parts[3]);
+                    Fauna fauna = new Fauna(size, coordinate, habitat);
+                    place(store, indexOf(scenario, coordinate), fauna);
+                    if (parts.length == 5) {
+                        fauna.assignId(Long.parseLong(parts[4]));
+                        scenario.getController().addAnimal(fauna);
+                    } else {
+                        unnumbered.add(fauna);
+                    }
+                    break;
+                }
+                case "Flora": {
+                    if (parts.length != 3 && parts.length != 4) {
+                        throw error("flora must be written as Flora-size-x,y");
+                    }
+                    Size size = Size.valueOf(parts[1]);
+                    Coordinate coordinate = Coordinate.decode(parts[2]);
+                    if (parts.length == 4 && TileType.valueOf(parts[3]) == TileType.OCEAN) {
+                        throw error("flora cannot be placed on OCEAN");
+                    }
+                    place(store, indexOf(scenario, coordinate), new Flora(size, coordinate));
+                    break;
+                }
+                default:
+                    throw error("unknown entity type '" + parts[0] + "'");
+            }
+        } catch (IllegalArgumentException e) {
+            throw error("bad entity '" + line + "'");
+        } catch (BadSaveException e) {
+            if (e.getMessage() == null) {
+                throw error("bad coordinate in '" + line + "'");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Places an entity on an empty tile it is allowed to stand on
+     */
+    private void place(TileStore store, int index, Entity entity) throws BadSaveException {
+        String problem = checkPlacement(store, index, entity);
+        if (problem != null) {
+            throw error(problem);
+        }
+        store.setContents(index, entity);
+    }
+
+    /**
+     * Returns why an entity cannot be placed at the given index of a store, or null if it can.
+     * <p>
+     * The tile must be empty and of a type the entity can occupy: users cannot stand on
+     * {@link TileType#OCEAN} or {@link TileType#MOUNTAIN}, flora cannot grow on
+     * {@link TileType#OCEAN}, and fauna must be on ocean exactly when their habitat is ocean.
+     *
+     * @param store  store holding the map
+     * @param index  grid index the entity is to be placed at
+     * @param entity entity to place
+     * @return description of the problem, or null if the entity can be placed
+     */
+    static String checkPlacement(TileStore store, int index, Entity entity) {
+        if (store.getContents(index) != null) {
+            return "the tile at " + entity.getCoordinate() + " is already occupied";
+        }
+        TileType type = store.getType(index);
+        if (entity instanceof User && (type == TileType.OCEAN || type == TileType.MOUNTAIN)) {
+            return "a user cannot be placed on " + type;
+        }
+        if (entity instanceof Fauna
+                && (((Fauna) entity).getHabitat() == TileType.OCEAN) != (type == TileType.OCEAN)) {
+            return "fauna with habitat " + ((Fauna) entity).getHabitat()
+                + " cannot be placed on " + type;
+        }
+        if (entity instanceof Flora && type == TileType.OCEAN) {
+            return "flora cannot be placed on OCEAN";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the grid index of a coordinate in the scenario being read
+     */
+    private int indexOf(Scenario scenario, Coordinate coordinate) throws BadSaveException {
+        int x = coordinate.getX();
+        int y = coordinate.getY();
+        GridGeometry geometry = scenario.getGeometry();
+        if (!geometry.isInBounds(x, y)) {
+            throw error(coordinate + " is outside the map");
+        }
+        return geometry.index(x, y);
+    }
+
+    /**
+     * Reads a header line of the form key:value and returns the value
+     */
+    private int readHeader(String key) throws IOException, BadSaveException {
+        String line = nextLine();
+        if (!line.startsWith(key + ":")) {
+            throw error("expected '" + key + ":'");
+        }
+        try {
+            return Integer.parseInt(line.substring(key.length() + 1));
+        } catch (NumberFormatException e) {
+            throw error(key + " must be a whole number");
+        }
+    }
+
+    /**
+     * Checks that a line is the separator
+     */
+    private void checkSeparator(String line, String separator) throws BadSaveException {
+        if (!line.equals(separator)) {
+            throw error("expected the separator '" + separator + "'");
+        }
+    }
+
+    /**
+     * Reads the next line, failing if the save has ended
+     */
+    private String nextLine() throws IOException, BadSaveException {
+        String line = reader.readLine();
+        lineNumber++;
+        if (line == null) {
+            throw error("unexpected end of save");
+        }
+        return line;
+    }
+
+    /**
+     * Creates an exception for a problem on the current line
+     */
+    private BadSaveException error(String message) {
+        return new BadSaveException("Line " + lineNumber + ": " + message);
+    }
+}
@@ -0,0 +1,70 @@
+package researchsim.scenario;
+
+import researchsim.entities.Fauna;
+import researchsim.map.Coordinate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * The original movement rules: a random number of randomly chosen animals move one after the
+ * other, each seeing the moves made before it.
+ * <p>
+ * In {@link RandomStreams.Mode#LEGACY} random mode every number is drawn from the scenario's
+ * shared {@link Random}, in exactly the sequence described by {@link AnimalController#move()},
+ * which must not change since saved scenarios are expected to replay identically from their
+ * seed. In {@link RandomStreams.Mode#SPLIT} mode which animals move is drawn from the
+ * scenario's stream for the tick, and where each animal goes from the stream of that animal,
+ * keyed by its {@link researchsim.entities.Entity#getId() id}. An animal picked more than once
+ * in a tick goes on drawing from the same stream, so its moves are independent.
+ * <p>
+ * This is the default policy of every {@link AnimalController}.
+ */
+public class SequentialMovementPolicy implements MovementPolicy {
+
+    @Override
+    public void move(Scenario scenario, List<Fauna> animals) {
+        if (animals.isEmpty()) {
+            return;
+        }
+        RandomStreams streams = scenario.getRandomStreams();
+        if (streams.isLegacy()) {
+            moveLegacy(scenario.getRandom(), animals);
+            return;
+        }
+        long tick = scenario.getTick();
+        SplittableRandom rand = streams.stream(tick, RandomStreams.SCENARIO_KEY);
+        Map<Long, SplittableRandom> animalStreams = new HashMap<>();
+        int num1 = rand.nextInt(animals.size());
+        for (int i = 0; i <= num1; i++) {
+            Fauna animal = animals.get(rand.nextInt(animals.size()));
+            List<Coordinate> possibleMoves = animal.getPossibleMoves();
+            if (!possibleMoves.isEmpty()) {
+                int choice = animalStreams.computeIfAbsent(animal.getId(),
+                    id -> streams.stream(tick, id)).nextInt(possibleMoves.size());
+                animal.move(possibleMoves.get(choice));
+            }
+        }
+    }
+
+    /**
+     * Moves animals drawing every number from the shared random
+     */
+    private static void moveLegacy(Random rand, List<Fauna> animals) {
+        int num1 = rand.nextInt(animals.size());
+        for (int i = 0; i <= num1; i++) {
+            Fauna animal = animals.get(rand.nextInt(animals.size()));
+            List<Coordinate> possibleMoves = animal.getPossibleMoves();
+            if (possibleMoves.isEmpty()) {
+                continue;
+            } else if (possibleMoves.size() == 1) {
+                animal.move(possibleMoves.get(0));
+            } else {
+                animal.move(possibleMoves.get(rand.nextInt(possibleMoves.size())));
+            }
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package researchsim.scenario;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Advances a scenario tick by tick without any user interface.
+ * <p>
+ * One tick is one call to {@link AnimalController#move()} on the scenario's controller,
+ * the same thing the "End Turn" button of the GUI does. The engine can be driven directly,
+ * with {@link #step()} or {@link #run(long)}, which run ticks on the calling thread as fast as
+ * they can be computed, or it can run a fixed-rate loop on a thread of its own with
+ * {@link #start(double)}, which can be paused, resumed and stopped from other threads.
+ * <p>
+ * Every tick, listeners included, runs inside a {@link ScenarioContext} scope of the engine's
+ * scenario, so the engine's scenario need not be the manager's current scenario and engines
+ * for different scenarios can run on different threads at the same time. Other threads must
+ * not change the scenario while the loop is running; {@link TickListener}s are called between
+ * ticks and are the place to inspect or change it.
+ */
+public class SimulationEngine {
+
+    /**
+     * Number of ticks the fixed-rate loop may fall behind before it gives up catching up
+     */
+    private static final int MAX_CATCH_UP = 10;
+
+    /**
+     * The scenario being advanced
+     */
+    private final Scenario scenario;
+
+    /**
+     * Listeners notified around every tick
+     */
+    private final CopyOnWriteArrayList<TickListener> listeners;
+
+    /**
+     * Guards the state of the run loop, never held during a tick
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Serialises ticks, held for the whole of a tick
+     */
+    private final Object tickLock = new Object();
+
+    /**
+     * Number of ticks this engine has run
+     */
+    private volatile long ticksRun;
+
+    /**
+     * Total time spent running ticks, in nanoseconds
+     */
+    private volatile long tickNanos;
+
+    /**
+     * Thread running the fixed-rate loop, null if the loop is not running
+     */
+    private Thread thread;
+
+    /**
+     * Whether the loop has been asked to stop
+     */
+    private boolean stopping;
+
+    /**
+     * Whether the loop is paused
+     */
+    private boolean paused;
+
+    /**
+     * Exception that ended the loop, null if it has not failed
+     */
+    private volatile RuntimeException failure;
+
+    /**
+     * Creates an engine advancing the given scenario from its current tick.
+     *
+     * @param scenario scenario to advance
+     */
+    public SimulationEngine(Scenario scenario) {
+        this.scenario = scenario;
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Returns the scenario this engine advances.
+     *
+     * @return scenario being advanced
+     */
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Returns the number of ticks the scenario has been advanced by, see
+     * {@link Scenario#getTick()}.
+     *
+     * @return completed tick count
+     */
+    public long getTick() {
+        return scenario.getTick();
+    }
+
+    /**
+     * Returns the average number of ticks completed per second of time spent running them,
+     * not counting time spent paused or waiting for the next tick of a fixed-rate loop.
+     *
+     * @return ticks per second, or 0 if no ticks have been run
+     */
+    public double getTicksPerSecond() {
+        long nanos = tickNanos;
+        return nanos == 0 ? 0 : ticksRun * 1e9 / nanos;
+    }
+
+    /**
+     * Adds a listener to be notified around every later tick.
+     *
+     * @param listener listener to add
+     */
+    public void addTickListener(TickListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addTickListener(TickListener)}.
+     *
+     * @param listener listener to remove
+     */
+    public void removeTickListener(TickListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Runs a single tick on the calling thread.
+     * <p>
+     * May be called while the fixed-rate loop is paused, to advance it one tick at a time.
+     *
+     * @throws IllegalStateException if the fixed-rate loop is running and not paused
+     */
+    public void step() throws IllegalStateException {
+        synchronized (lock) {
+            if (thread != null && !paused && Thread.currentThread() != thread) {
+                throw new IllegalStateException("Cannot step while the engine is running.");
+            }
+        }
+        synchronized (tickLock) {
+            tick();
+        }
+    }
+
+    /**
+     * Runs the given number of ticks on the calling thread, as fast as possible.
+     *
+     * @param ticks number of ticks to run
+     * @throws IllegalStateException if the fixed-rate loop is running and not paused
+     */
+    public void run(long ticks) throws IllegalStateException {
+        for (long i = 0; i < ticks; i++) {
+            step();
+        }
+    }
+
+    /**
+     * Starts running ticks on a new daemon thread at the given rate.
+     * <p>
+     * If ticks take longer than the rate allows, the loop runs them back to back and catches
+     * up by at most {@value #MAX_CATCH_UP} ticks once they get faster again. A rate of 0 or less
+     * runs ticks as fast as possible. The loop runs until {@link #stop()} is called or a tick
+     * throws, see {@link #getFailure()}.
+     *
+     * @param ticksPerSecond target number of ticks per second
+     * @throws IllegalStateException if the loop is already running
+     */
+    public void start(double ticksPerSecond) throws IllegalStateException {
+        long period = ticksPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ticksPerSecond)
+            : 0;
+        synchronized (lock) {
+            if (thread != null) {
+                throw new IllegalStateException("The engine is already running.");
+            }
+            stopping = false;
+            paused = false;
+            failure = null;
+            thread = new Thread(() -> loop(period), "simulation-" + scenario.getName());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Pauses the fixed-rate loop after the tick in progress, if any. Does nothing if the loop is
+     * not running.
+     */
+    public void pause() {
+        synchronized (lock) {
+            paused = thread != null;
+        }
+    }
+
+    /**
+     * Resumes a paused fixed-rate loop. Does nothing if the loop is not paused.
+     */
+    public void resume() {
+        synchronized (lock) {
+            paused = false;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns whether the fixed-rate loop is running, paused or not.
+     *
+     * @return true if the loop is running
+     */
+    public boolean isRunning() {
+        synchronized (lock) {
+            return thread != null;
+        }
+    }
+
+    /**
+     * Returns whether the fixed-rate loop is paused.
+     *
+     * @return true if the loop is running and paused
+     */
+    public boolean isPaused() {
+        synchronized (lock) {
+            return paused;
+        }
+    }
+
+    /**
+     * Stops the fixed-rate loop and waits for the tick in progress, if any, to finish. Does
+     * nothing if the loop is not running.
+     * <p>
+     * When called on the loop's own thread, by a {@link TickListener}, the loop stops once the
+     * tick in progress completes and this returns without waiting for it.
+     *
+     * @throws InterruptedException if interrupted while waiting for the loop to stop
+     */
+    public void stop() throws InterruptedException {
+        Thread running;
+        synchronized (lock) {
+            running = thread;
+            if (running == null) {
+                return;
+            }
+            stopping = true;
+            lock.notifyAll();
+        }
+        if (running == Thread.currentThread()) {
+            return;
+        }
+        LockSupport.unpark(running);
+        running.join();
+    }
+
+    /**
+     * Returns the exception thrown by a tick that ended the fixed-rate loop.
+     *
+     * @return the exception, or null if the last loop did not fail
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Runs one tick, must be called while holding the tick lock
+     */
+    private void tick() {
+        long next = scenario.getTick() + 1;
+        long start = System.nanoTime();
+        ScenarioContext.Scope scope = ScenarioContext.enter(scenario);
+        try {
+            for (TickListener listener : listeners) {
+                listener.tickStarting(scenario, next);
+            }
+            scenario.getController().move();
+            ticksRun++;
+            for (TickListener listener : listeners) {
+                listener.tickCompleted(scenario, next);
+            }
+        } finally {
+            scope.close();
+        }
+        tickNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Body of the fixed-rate loop
+     */
+    private void loop(long period) {
+        long deadline = System.nanoTime();
+        try {
+            while (true) {
+                synchronized (lock) {
+                    boolean waited = false;
+                    while (paused && !stopping) {
+                        lock.wait();
+                        waited = true;
+                    }
+                    if (stopping) {
+                        return;
+                    }
+                    if (waited) {
+                        deadline = System.nanoTime();
+                    }
+                }
+                synchronized (tickLock) {
+                    tick();
+                }
+                if (period > 0) {
+                    deadline += period;
+                    long now = System.nanoTime();
+                    if (now - deadline > MAX_CATCH_UP * period) {
+                        deadline = now - MAX_CATCH_UP * period;
+                    }
+                    while (deadline - now > 0 && !isStopping()) {
+                        LockSupport.parkNanos(this, deadline - now);
+                        now = System.nanoTime();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            synchronized (lock) {
+                thread = null;
+                paused = false;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the loop has been asked to stop
+     */
+    private boolean isStopping() {
+        synchronized (lock) {
+            return stopping;
+        }
+    }
+}
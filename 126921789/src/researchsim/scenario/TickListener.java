@@ -0,0 +1,31 @@
+package researchsim.scenario;
+
+/**
+ * Receives notifications as a {@link SimulationEngine} advances its scenario.
+ * <p>
+ * Listeners are called synchronously by the thread running the tick, which for an engine
+ * started with {@link SimulationEngine#start(double)} is the engine's own thread. They may read
+ * and change the scenario, since nothing else is advancing it while they run.
+ *
+ * @see SimulationEngine#addTickListener(TickListener)
+ */
+@FunctionalInterface
+public interface TickListener {
+
+    /**
+     * Called after a tick has been completed.
+     *
+     * @param scenario scenario that was advanced
+     * @param tick     number of the completed tick, the first tick is 1
+     */
+    void tickCompleted(Scenario scenario, long tick);
+
+    /**
+     * Called before a tick is started. Does nothing by default.
+     *
+     * @param scenario scenario about to be advanced
+     * @param tick     number of the tick about to start, the first tick is 1
+     */
+    default void tickStarting(Scenario scenario, long tick) {
+    }
+}
@@ -0,0 +1,104 @@
+package researchsim.util;
+
+import researchsim.entities.Size;
+
+/**
+ * Precomputed Manhattan-distance "diamonds": the offsets (dx, dy) with |dx| + |dy| &le; radius.
+ * <p>
+ * Offsets are listed row by row from dy = -radius to dy = radius and, within a row, from the
+ * smallest dx to the largest, which is the order
+ * {@link Movable#checkRange(int, researchsim.map.Coordinate)} has always returned coordinates
+ * in. Tables for every {@link Size#moveDistance} are built when the class is loaded, larger
+ * radii are built on demand.
+ *
+ * @see Movable#checkRange(int, int, int, int, int, int[])
+ */
+public final class DiamondOffsets {
+
+    /**
+     * Offset tables indexed by radius, each holding dx and dy pairs
+     */
+    private static volatile int[][] tables = build(maxMoveDistance());
+
+    /**
+     * Per thread scratch buffer handed out by {@link #buffer(int)}
+     */
+    private static final ThreadLocal<int[]> BUFFERS = ThreadLocal.withInitial(() -> new int[0]);
+
+    private DiamondOffsets() {
+    }
+
+    /**
+     * Returns the number of tiles within the given Manhattan distance of a tile, itself included.
+     *
+     * @param radius distance, at least 0
+     * @return 2 * radius * (radius + 1) + 1
+     */
+    public static int count(int radius) {
+        return 2 * radius * (radius + 1) + 1;
+    }
+
+    /**
+     * Returns the offset table for a radius as dx and dy pairs: element 2i holds the dx of the
+     * i-th offset and element 2i + 1 its dy. The table is shared and must not be modified.
+     *
+     * @param radius distance, at least 0
+     * @return offsets of the diamond, {@code 2 * count(radius)} elements long
+     */
+    public static int[] offsets(int radius) {
+        int[][] current = tables;
+        if (radius >= current.length) {
+            current = build(radius);
+            tables = current;
+        }
+        return current[radius];
+    }
+
+    /**
+     * Returns a scratch buffer belonging to the calling thread that can hold at least
+     * {@code count(radius)} indices. The same buffer is returned on every call from a thread,
+     * so it must not be held on to.
+     *
+     * @param radius distance the buffer must be large enough for
+     * @return scratch buffer
+     */
+    public static int[] buffer(int radius) {
+        int[] buffer = BUFFERS.get();
+        if (buffer.length < count(radius)) {
+            buffer = new int[count(radius)];
+            BUFFERS.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Builds the tables for every radius up to the given one
+     */
+    private static int[][] build(int maxRadius) {
+        int[][] built = new int[maxRadius + 1][];
+        for (int radius = 0; radius <= maxRadius; radius++) {
+            int[] table = new int[2 * count(radius)];
+            int i = 0;
+            for (int dy = -radius; dy <= radius; dy++) {
+                int reach = radius - Math.abs(dy);
+                for (int dx = -reach; dx <= reach; dx++) {
+                    table[i++] = dx;
+                    table[i++] = dy;
+                }
+            }
+            built[radius] = table;
+        }
+        return built;
+    }
+
+    /**
+     * Returns the largest move distance of any size
+     */
+    private static int maxMoveDistance() {
+        int max = 1;
+        for (Size size : Size.values()) {
+            max = Math.max(max, size.moveDistance);
+        }
+        return max;
+    }
+}
@@ -51,31 +51,43 @@ public interface Movable {
     /**
      * Finds all tiles that can be moved to based on the starting Coordinate and the radius
      * Returns all tiles that can be moved to, doesnt matter if tile is out of bounds
+     * Coordinates are listed row by row, see {@link DiamondOffsets}
      * @param radius the distance that can be travelled
      * @param initialCoordinate the starting coordinate
      * @return list of coordinates that can be moved to based on radius and intialCoordinate
      */
     default List<Coordinate> checkRange(int radius, Coordinate initialCoordinate) {
-        ArrayList<Coordinate> coordinates = new ArrayList<Coordinate>();
-        for (int y = (radius * -1); y <= radius; y++) {
-            for (int x = (radius * -1); x <= radius; x++) {
-                coordinates.add(initialCoordinate.translate(x, y));
-                //This will loop to add all coordinates in a (radius*2)+1 grid to the list
-                //coordinates that cant be moved to will be taken out
-            }
+        int[] offsets = DiamondOffsets.offsets(radius);
+        List<Coordinate> moves = new ArrayList<>(offsets.length / 2);
+        for (int i = 0; i < offsets.length; i += 2) {
+            moves.add(initialCoordinate.translate(offsets[i], offsets[i + 1]));
         }
-        ArrayList<Coordinate> moves = new ArrayList<>();
-        moves.addAll(coordinates);
-        for (Coordinate coordinate : coordinates) {
-            int x = coordinate.distance(initialCoordinate).getAbsX();
-            int y = coordinate.distance(initialCoordinate).getAbsY();
-            if (x + y > radius) {
-                moves.remove(coordinate);
-                //Removes coordinate if moving to it takes more moves then radium given
+        return moves;
+    }
+
+    /**
+     * Finds the grid indices of all tiles within radius moves of the starting tile that are on a
+     * map of the given size, and writes them to the given buffer.
+     * Indices are written in the same order as {@link #checkRange(int, Coordinate)} lists
+     * coordinates, the starting tile is included
+     * @param radius the distance that can be travelled
+     * @param x x coordinate of the starting tile
+     * @param y y coordinate of the starting tile
+     * @param width width of the map
+     * @param height height of the map
+     * @param indices buffer to write to, at least {@link DiamondOffsets#count(int)} long
+     * @return number of indices written
+     */
+    default int checkRange(int radius, int x, int y, int width, int height, int[] indices) {
+        int[] offsets = DiamondOffsets.offsets(radius);
+        int count = 0;
+        for (int i = 0; i < offsets.length; i += 2) {
+            int tileX = x + offsets[i];
+            int tileY = y + offsets[i + 1];
+            if (tileX >= 0 && tileX < width && tileY >= 0 && tileY < height) {
+                indices[count++] = tileX + tileY * width;
             }
         }
-        return moves;
+        return count;
     }
-    
-    
 }
@@ -1,17 +1,24 @@
 package researchsim;
 
 import org.junit.Test;
+import researchsim.entities.Fauna;
+import researchsim.entities.Size;
 import researchsim.map.Tile;
 import researchsim.map.TileType;
+import researchsim.scenario.RandomStreams;
 import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioContext;
 import researchsim.scenario.ScenarioManager;
 import researchsim.util.BadSaveException;
 import researchsim.util.CoordinateOutOfBoundsException;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.fail;
 
@@ -218,6 +225,124 @@ public class TestUtil {
         return s;
     }
 
+    /**
+     * Generates the text save of a square scenario with randomly placed entities, for tests
+     * that need more entities than a literal save can sensibly hold.
+     * <p>
+     * The map is LAND, except that every {@code oceanEvery}th row, starting with the first, is
+     * OCEAN. Entities are placed on random empty tiles: fauna with an OCEAN habitat on ocean,
+     * and on land every {@code floraEvery}th entity placed is flora and the rest are fauna with
+     * a LAND habitat. The top left tile is always left empty, so that a test can place
+     * something there. The same arguments always give the same save.
+     *
+     * @param name       name of the scenario
+     * @param side       width and height of the map
+     * @param oceanEvery every how many rows are OCEAN, or 0 for no ocean
+     * @param entities   number of entities to place, less than the number of tiles
+     * @param floraEvery every how many entities placed on land are flora, or 0 for no flora
+     * @param seed       seed of the scenario, also used to place the entities
+     * @return text save of the scenario
+     */
+    public static String randomSave(String name, int side, int oceanEvery, int entities,
+                                    int floraEvery, int seed) {
+        Random random = new Random(seed);
+        StringBuilder save = new StringBuilder(name + "\nWidth:" + side + "\nHeight:" + side
+            + "\nSeed:" + seed + "\n" + "=".repeat(side) + "\n");
+        for (int y = 0; y < side; y++) {
+            save.append((isOcean(y, oceanEvery) ? "O" : "L").repeat(side)).append('\n');
+        }
+        save.append("=".repeat(side));
+        boolean[] used = new boolean[side * side];
+        used[0] = true;
+        Size[] sizes = Size.values();
+        for (int placed = 0; placed < entities; ) {
+            int x = random.nextInt(side);
+            int y = random.nextInt(side);
+            if (used[x + y * side]) {
+                continue;
+            }
+            used[x + y * side] = true;
+            String entity = sizes[random.nextInt(sizes.length)] + "-" + x + "," + y;
+            if (isOcean(y, oceanEvery)) {
+                save.append("\nFauna-").append(entity).append("-OCEAN");
+            } else if (floraEvery > 0 && placed % floraEvery == 0) {
+                save.append("\nFlora-").append(entity);
+            } else {
+                save.append("\nFauna-").append(entity).append("-LAND");
+            }
+            placed++;
+        }
+        return save.toString();
+    }
+
+    /**
+     * Loads a small random scenario in the given random mode, advances it and removes its first
+     * animal, so that its tick is not 0, its animal ids have a gap and its animals are no
+     * longer in id order.
+     *
+     * @param name name of the scenario
+     * @param mode random mode of the scenario
+     * @return the advanced scenario
+     * @throws IOException      never, the save is read from memory
+     * @throws BadSaveException never, the save is valid
+     */
+    public static Scenario advancedScenario(String name, RandomStreams.Mode mode)
+            throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(randomSave(name, 12, 4, 30, 0, 7)));
+        scenario.getRandomStreams().setMode(mode);
+        advance(scenario, 5);
+        removeFirstAnimal(scenario);
+        return scenario;
+    }
+
+    /**
+     * Advances a scenario by the given number of ticks, with it as the current scenario of
+     * the calling thread.
+     *
+     * @param scenario scenario to advance
+     * @param ticks    number of ticks
+     * @return the encoded scenario after the last tick
+     */
+    public static String advance(Scenario scenario, int ticks) {
+        ScenarioContext.run(scenario, () -> {
+            for (int i = 0; i < ticks; i++) {
+                scenario.getController().move();
+            }
+        });
+        return scenario.encode();
+    }
+
+    /**
+     * Removes the first animal of a scenario's animal controller from the map and the
+     * controller, as collecting it would.
+     *
+     * @param scenario scenario to remove the animal from
+     * @return the removed animal
+     */
+    public static Fauna removeFirstAnimal(Scenario scenario) {
+        Fauna first = scenario.getController().getAnimals().get(0);
+        scenario.getGridView().getTile(first.getCoordinate()).setContents(null);
+        scenario.getController().removeAnimal(first);
+        return first;
+    }
+
+    /**
+     * Returns the ids of the animals of a scenario's animal controller, in its order.
+     *
+     * @param scenario scenario whose animals to list
+     * @return animal ids
+     */
+    public static long[] animalIds(Scenario scenario) {
+        return scenario.getController().getAnimals().stream().mapToLong(Fauna::getId).toArray();
+    }
+
+    /**
+     * Returns whether a row of a map generated by {@link #randomSave} is OCEAN
+     */
+    private static boolean isOcean(int y, int oceanEvery) {
+        return oceanEvery > 0 && y % oceanEvery == 0;
+    }
+
     // Dummy test that always passes to avoid "No runnable methods" error for this class
     @Test
     public void dummyTest() {
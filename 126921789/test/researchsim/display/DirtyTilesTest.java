@@ -0,0 +1,115 @@
+package researchsim.display;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.entities.Fauna;
+import researchsim.entities.Size;
+import researchsim.map.Coordinate;
+import researchsim.map.Tile;
+import researchsim.map.TileType;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+import researchsim.util.CoordinateOutOfBoundsException;
+
+import static org.junit.Assert.*;
+
+public class DirtyTilesTest {
+
+    private DirtyTiles dirty;
+
+    @Before
+    public void setUp() throws CoordinateOutOfBoundsException {
+        Scenario scenario = new Scenario("Dirty", 10, 10, 0);
+        Tile[] grid = new Tile[100];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = new Tile(TileType.LAND);
+        }
+        scenario.setMapGrid(grid);
+        ScenarioManager.getInstance().addScenario(scenario);
+        dirty = new DirtyTiles();
+        dirty.reset(10, 10);
+    }
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    @Test
+    public void testStartsAllDirty() {
+        assertTrue(dirty.isAllDirty());
+        assertEquals(100, dirty.count());
+        assertEquals(99, dirty.next(99));
+        assertEquals(-1, dirty.next(100));
+        dirty.clear();
+        assertFalse(dirty.isAllDirty());
+        assertEquals(0, dirty.count());
+        assertEquals(-1, dirty.next(0));
+    }
+
+    @Test
+    public void testMarksChangedTiles() {
+        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        scenario.addGridListener(dirty);
+        dirty.clear();
+
+        Fauna fauna = new Fauna(Size.MEDIUM, new Coordinate(2, 3), TileType.LAND);
+        scenario.getGridView().getTile(2, 3).setContents(fauna);
+        scenario.getGridView().getTile(9, 9).setContents(fauna);
+        assertEquals(0, scenario.getLog().getEventCount());
+        assertEquals(2, dirty.count());
+        assertTrue(dirty.isDirty(2, 3));
+        assertTrue(dirty.isDirty(9, 9));
+        assertFalse(dirty.isDirty(0, 0));
+        assertEquals(32, dirty.next(0));
+
+        dirty.clear();
+        scenario.getGridView().getTile(2, 3).setContents(fauna);
+        assertEquals(0, dirty.count());
+
+        scenario.removeGridListener(dirty);
+        scenario.getGridView().getTile(2, 3).setContents(null);
+        assertEquals(0, dirty.count());
+    }
+
+    @Test
+    public void testMarksChangedTilesOfReplacedGrid() throws CoordinateOutOfBoundsException {
+        Scenario scenario = ScenarioManager.getInstance().getScenario();
+        scenario.addGridListener(dirty);
+        dirty.clear();
+
+        Tile[] grid = scenario.getMapGrid();
+        grid[4 + 6 * 10] = new Tile(TileType.OCEAN);
+        scenario.setMapGrid(grid);
+        assertEquals(1, dirty.count());
+        assertTrue(dirty.isDirty(4, 6));
+    }
+
+    @Test
+    public void testMarkIndex() {
+        dirty.clear();
+        dirty.mark(45);
+        dirty.mark(-1);
+        dirty.mark(100);
+        assertEquals(1, dirty.count());
+        assertTrue(dirty.isDirty(5, 4));
+    }
+
+    @Test
+    public void testMarkArea() {
+        dirty.clear();
+        dirty.markArea(3, 1, 1, 2, 0);
+        assertEquals(6, dirty.count());
+        assertTrue(dirty.isDirty(1, 1));
+        assertTrue(dirty.isDirty(3, 2));
+        assertFalse(dirty.isDirty(4, 2));
+
+        dirty.clear();
+        dirty.markArea(0, 0, 0, 0, 1);
+        assertEquals(4, dirty.count());
+        dirty.mark(-1, 4);
+        dirty.mark(10, 4);
+        assertEquals(4, dirty.count());
+    }
+}
@@ -0,0 +1,103 @@
+package researchsim.display;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.entities.Fauna;
+import researchsim.entities.Size;
+import researchsim.logging.Event;
+import researchsim.logging.Logger;
+import researchsim.logging.MoveEvent;
+import researchsim.map.Coordinate;
+import researchsim.map.TileType;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LogWindowTest {
+
+    private List<Event> moves;
+
+    @Before
+    public void setUp() {
+        ScenarioManager.getInstance().addScenario(new Scenario("Window", 10, 10, 0));
+        moves = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Fauna fauna = new Fauna(Size.MEDIUM, new Coordinate(i % 10, 0), TileType.LAND);
+            moves.add(new MoveEvent(fauna, new Coordinate(i % 10, 1)));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    private List<String> strings(int from, int to) {
+        List<String> strings = new ArrayList<>();
+        for (Event event : moves.subList(from, to)) {
+            strings.add(event.toString());
+        }
+        return strings;
+    }
+
+    @Test
+    public void testAppendsOnlyNewEvents() {
+        Logger log = new Logger();
+        LogWindow window = new LogWindow(10);
+        assertEquals(0, window.update(log));
+        for (int i = 0; i < 4; i++) {
+            log.add(moves.get(i));
+        }
+        assertEquals(4, window.update(log));
+        assertEquals(0, window.update(log));
+        log.add(moves.get(4));
+        assertEquals(1, window.update(log));
+        assertEquals(strings(0, 5), window.getEntries());
+    }
+
+    @Test
+    public void testDropsOldestEntries() {
+        Logger log = new Logger();
+        LogWindow window = new LogWindow(10);
+        for (int i = 0; i < 8; i++) {
+            log.add(moves.get(i));
+        }
+        window.update(log);
+        for (int i = 8; i < 14; i++) {
+            log.add(moves.get(i));
+        }
+        assertEquals(6, window.update(log));
+        assertEquals(strings(4, 14), window.getEntries());
+
+        for (int i = 14; i < 30; i++) {
+            log.add(moves.get(i));
+        }
+        assertEquals(10, window.update(log));
+        assertEquals(strings(20, 30), window.getEntries());
+    }
+
+    @Test
+    public void testNewLogReplacesEntries() {
+        Logger first = new Logger();
+        first.add(moves.get(0));
+        LogWindow window = new LogWindow(10);
+        window.update(first);
+
+        Logger second = new Logger(3);
+        for (int i = 1; i < 8; i++) {
+            second.add(moves.get(i));
+        }
+        assertEquals(3, window.update(second));
+        assertEquals(strings(5, 8), window.getEntries());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntriesReadOnly() {
+        new LogWindow().getEntries().add("event");
+    }
+}
@@ -0,0 +1,128 @@
+package researchsim.entities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.map.Coordinate;
+import researchsim.map.GridView;
+import researchsim.map.Tile;
+import researchsim.map.TileType;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+import researchsim.util.BadSaveException;
+import researchsim.util.CoordinateOutOfBoundsException;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class EntityStoreTest {
+
+    private Scenario scenario;
+    private EntityStore store;
+    private Fauna dog;
+    private Flora flower;
+    private User user;
+
+    @Before
+    public void setUp() throws IOException, BadSaveException {
+        scenario = Scenario.load(new StringReader("Store\nWidth:5\nHeight:5\nSeed:3\n=====\n"
+            + "LLLLL\nLLLLL\nLLOOO\nLLLLL\nLLLLL\n=====\n"
+            + "Fauna-MEDIUM-1,1-LAND\nFlora-SMALL-3,3\nUser-0,4-Bob"));
+        ScenarioManager.getInstance().addScenario(scenario);
+        GridView grid = scenario.getGridView();
+        dog = (Fauna) grid.getContents(new Coordinate(1, 1).getIndex(grid.getGeometry()));
+        flower = (Flora) grid.getContents(new Coordinate(3, 3).getIndex(grid.getGeometry()));
+        user = (User) grid.getContents(new Coordinate(0, 4).getIndex(grid.getGeometry()));
+        store = scenario.enableEntityStore();
+    }
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    @Test
+    public void testAttachesEntitiesOnMap() {
+        assertEquals(3, store.size());
+        assertSame(store, dog.getStore());
+        assertSame(store, flower.getStore());
+        assertSame(store, user.getStore());
+        assertSame(store, scenario.enableEntityStore());
+
+        int slot = dog.getSlot();
+        assertTrue(store.isAlive(slot));
+        assertSame(dog, store.getEntity(slot));
+        assertEquals(EntityStore.FAUNA, store.getKind(slot));
+        assertEquals(1, store.getX(slot));
+        assertEquals(1, store.getY(slot));
+        assertEquals(Size.MEDIUM, store.getSize(slot));
+        assertEquals(TileType.LAND, store.getHabitat(slot));
+        assertEquals(dog.getId(), store.getId(slot));
+
+        assertEquals(EntityStore.FLORA, store.getKind(flower.getSlot()));
+        assertNull(store.getHabitat(flower.getSlot()));
+        assertEquals(EntityStore.USER, store.getKind(user.getSlot()));
+    }
+
+    @Test
+    public void testHandleReadsAndWritesStore() {
+        int slot = dog.getSlot();
+        assertEquals(new Coordinate(1, 1), dog.getCoordinate());
+        assertSame(scenario.getCoordinates().get(1, 1), dog.getCoordinate());
+
+        dog.move(new Coordinate(2, 1));
+        assertEquals(slot, dog.getSlot());
+        assertEquals(2, store.getX(slot));
+        assertEquals(new Coordinate(2, 1), dog.getCoordinate());
+        assertEquals("Fauna-MEDIUM-2,1-LAND", dog.encode());
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    public void testCollectFreesSlot() {
+        int slot = flower.getSlot();
+        flower.collect(user);
+        assertNull(flower.getStore());
+        assertFalse(store.isAlive(slot));
+        assertNull(store.getEntity(slot));
+        assertEquals(new Coordinate(3, 3), flower.getCoordinate());
+        assertEquals(2, store.size());
+
+        Flora bush = new Flora(Size.LARGE, new Coordinate(4, 4));
+        Tile tile = scenario.getGridView().getTile(new Coordinate(4, 4)
+            .getIndex(scenario.getGeometry()));
+        tile.setContents(bush);
+        assertEquals(slot, bush.getSlot());
+        assertEquals(3, store.getSlotCount());
+        assertEquals(Size.LARGE, store.getSize(slot));
+    }
+
+    @Test
+    public void testDisableRestoresCoordinates() {
+        dog.move(new Coordinate(0, 1));
+        scenario.disableEntityStore();
+        assertNull(scenario.getEntityStore());
+        assertNull(dog.getStore());
+        assertEquals(new Coordinate(0, 1), dog.getCoordinate());
+        assertEquals(new Coordinate(0, 4), user.getCoordinate());
+    }
+
+    @Test
+    public void testReplacedGridReattached() throws CoordinateOutOfBoundsException {
+        Tile[] map = scenario.getMapGrid();
+        map[new Coordinate(1, 1).getIndex(scenario.getGeometry())].setContents(null);
+        scenario.setMapGrid(map);
+        EntityStore replaced = scenario.getEntityStore();
+        assertEquals(2, replaced.size());
+        assertNull(dog.getStore());
+        assertSame(replaced, flower.getStore());
+        assertEquals(new Coordinate(1, 1), dog.getCoordinate());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAttachTwice() {
+        new EntityStore(scenario.getCoordinates()).attach(dog);
+    }
+}
@@ -0,0 +1,122 @@
+package researchsim.logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import researchsim.entities.Fauna;
+import researchsim.entities.Size;
+import researchsim.map.Coordinate;
+import researchsim.map.TileType;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LoggerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Event> moves;
+
+    @Before
+    public void setUp() {
+        ScenarioManager.getInstance().addScenario(new Scenario("Log", 10, 10, 0));
+        moves = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Fauna fauna = new Fauna(Size.SMALL, new Coordinate(i % 10, 0), TileType.LAND);
+            moves.add(new MoveEvent(fauna, new Coordinate(i % 10, i % 3 + 1)));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    private static List<String> strings(List<Event> events) {
+        List<String> strings = new ArrayList<>();
+        for (Event event : events) {
+            strings.add(event.toString());
+        }
+        return strings;
+    }
+
+    private static int tiles(List<Event> events) {
+        int tiles = 0;
+        for (Event event : events) {
+            Coordinate distance = event.getInitialCoordinate().distance(event.getCoordinate());
+            tiles += distance.getAbsX() + distance.getAbsY();
+        }
+        return tiles;
+    }
+
+    @Test
+    public void testUnboundedKeepsEverything() {
+        Logger log = new Logger();
+        for (Event move : moves) {
+            log.add(move);
+        }
+        assertEquals(Logger.UNBOUNDED, log.getCapacity());
+        assertEquals(moves, log.getEvents());
+        assertEquals(25, log.getEventCount());
+        assertEquals(moves.subList(20, 25), log.getEventsSince(20));
+        assertEquals(String.join("", strings(moves)), log.toString());
+    }
+
+    @Test
+    public void testBoundedKeepsRecentEvents() {
+        Logger log = new Logger(8);
+        for (Event move : moves) {
+            log.add(move);
+        }
+        assertEquals(moves.subList(17, 25), log.getEvents());
+        assertEquals(25, log.getEventCount());
+        assertEquals(tiles(moves), log.getTilesTraversed());
+        assertEquals(moves.subList(20, 25), log.getEventsSince(20));
+        assertEquals(moves.subList(17, 25), log.getEventsSince(3));
+
+        List<Event> history = new ArrayList<>();
+        log.forEachEvent(history::add);
+        assertEquals(moves.subList(17, 25), history);
+    }
+
+    @Test
+    public void testSpillKeepsFullHistory() throws IOException {
+        try (Logger log = new Logger(8, folder.getRoot().toPath().resolve("log.spill"))) {
+            for (Event move : moves) {
+                log.add(move);
+            }
+            assertEquals(moves.subList(17, 25), log.getEvents());
+
+            List<Event> history = new ArrayList<>();
+            log.forEachEvent(history::add);
+            assertEquals(strings(moves), strings(history));
+            assertEquals(tiles(moves), tiles(history));
+            assertEquals(strings(moves.subList(5, 25)), strings(log.getEventsSince(5)));
+            assertSame(moves.get(24), log.getEventsSince(24).get(0));
+        }
+    }
+
+    @Test
+    public void testRestoreAppends() {
+        Logger log = new Logger(4);
+        log.restore(moves.subList(0, 10), 12, 3, 7);
+        assertEquals(moves.subList(6, 10), log.getEvents());
+        assertEquals(10, log.getEventCount());
+        assertEquals(12, log.getTilesTraversed());
+        assertEquals(3, log.getEntitiesCollected());
+        assertEquals(7, log.getPointsEarned());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadCapacity() {
+        new Logger(0);
+    }
+}
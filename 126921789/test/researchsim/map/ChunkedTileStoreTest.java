@@ -0,0 +1,108 @@
+package researchsim.map;
+
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.entities.Entity;
+import researchsim.entities.Flora;
+import researchsim.entities.Size;
+import researchsim.util.NoSuchEntityException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ChunkedTileStoreTest {
+
+    private ChunkedTileStore store;
+
+    @Before
+    public void setUp() {
+        store = new ChunkedTileStore(10000, 10000);
+    }
+
+    @Test
+    public void testGetSize() {
+        assertEquals(100000000, store.getSize());
+    }
+
+    @Test
+    public void testUntouchedIsEmpty() {
+        assertNull(store.get(0));
+        assertNull(store.getType(store.getSize() - 1));
+        assertNull(store.getContents(store.getSize() - 1));
+        assertEquals(0, store.getAllocatedChunks());
+    }
+
+    @Test
+    public void testSetAndGet() {
+        store.set(0, new Tile(TileType.LAND));
+        store.set(9999 * 10000 + 9999, new Tile(TileType.OCEAN));
+        assertEquals(TileType.LAND, store.get(0).getType());
+        assertEquals(TileType.OCEAN, store.get(9999 * 10000 + 9999).getType());
+        assertNull(store.get(1));
+        assertEquals(2, store.getAllocatedChunks());
+    }
+
+    @Test
+    public void testChunkBoundaries() {
+        int size = ChunkedTileStore.CHUNK_SIZE;
+        store.setType(size - 1, TileType.SAND);
+        store.setType(size, TileType.MOUNTAIN);
+        assertEquals(TileType.SAND, store.getType(size - 1));
+        assertEquals(TileType.MOUNTAIN, store.getType(size));
+        assertEquals(2, store.getAllocatedChunks());
+    }
+
+    @Test
+    public void testClearUntouchedDoesNotAllocate() {
+        store.set(12345, null);
+        assertEquals(0, store.getAllocatedChunks());
+    }
+
+    @Test
+    public void testTileViewWritesThrough() throws NoSuchEntityException {
+        Flora flora = new Flora(Size.SMALL, new Coordinate(5, 0));
+        Tile source = new Tile(TileType.LAND);
+        source.setContents(flora);
+        store.set(5, source);
+        assertEquals(1, store.countContents());
+
+        Tile view = store.get(5);
+        assertEquals(source, view);
+        assertSame(flora, view.getContents());
+        view.setContents(null);
+        assertFalse(store.get(5).hasContents());
+        assertNull(store.getContents(5));
+        assertEquals(0, store.countContents());
+        assertTrue(source.hasContents());
+    }
+
+    @Test
+    public void testListener() {
+        List<String> changes = new ArrayList<>();
+        Flora flora = new Flora(Size.SMALL, new Coordinate(7, 0));
+        store.addListener(new GridListener() {
+            @Override
+            public void contentsChanged(int index, Entity previous, Entity current) {
+                changes.add(index + ":" + previous + "->" + current);
+            }
+
+            @Override
+            public void typeChanged(int index, TileType previous, TileType current) {
+                changes.add(index + ":" + previous + "->" + current);
+            }
+        });
+        store.setType(7, TileType.LAND);
+        store.setType(7, TileType.LAND);
+        store.setContents(7, flora);
+        store.setType(7, null);
+        assertEquals(List.of("7:null->LAND", "7:null->" + flora, "7:" + flora + "->null",
+            "7:LAND->null"), changes);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        store.get(store.getSize());
+    }
+}
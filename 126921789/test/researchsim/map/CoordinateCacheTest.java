@@ -0,0 +1,31 @@
+package researchsim.map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CoordinateCacheTest {
+
+    private final CoordinateCache cache = new CoordinateCache(new GridGeometry(100, 90));
+
+    @Test
+    public void testSharedInstances() {
+        Coordinate coordinate = cache.get(4321);
+        assertEquals(new Coordinate(21, 43), coordinate);
+        assertSame(coordinate, cache.get(21, 43));
+        assertSame(coordinate, cache.translate(new Coordinate(20, 42), 1, 1));
+    }
+
+    @Test
+    public void testOutsideMap() {
+        Coordinate coordinate = cache.get(-1, 3);
+        assertEquals(new Coordinate(-1, 3), coordinate);
+        assertNotSame(coordinate, cache.get(-1, 3));
+        assertEquals(new Coordinate(100, 0), cache.translate(new Coordinate(99, 0), 1, 0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutsideMap() {
+        cache.get(9000);
+    }
+}
@@ -9,6 +9,8 @@ import researchsim.util.BadSaveException;
 import researchsim.util.CoordinateOutOfBoundsException;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -287,6 +289,16 @@ public class CoordinateTest {
         }
     }
 
+    @Test
+    public void testHashCodeNoCollisions() {
+        Set<Integer> hashes = new HashSet<>();
+        for (int x = -50; x < 200; x++) {
+            for (int y = -50; y < 200; y++) {
+                assertTrue(hashes.add(new Coordinate(x, y).hashCode()));
+            }
+        }
+    }
+
     @Test
     public void testEncode() {
         assertEquals("1,1",coordinate11.encode());
@@ -300,7 +312,7 @@ public class CoordinateTest {
         Coordinate coordinate2 = new Coordinate(-1,0);
         Coordinate coordinate3 = new Coordinate (0,0);
         Coordinate coordinate4 = new Coordinate(3,2);
-        Coordinate coordinate5 = new Coordinate(-1,0);
+        Coordinate coordinate5 = new Coordinate(-3,-2);
 
         assertEquals(coordinate,coordinate11.distance(coordinate21));
         assertEquals(coordinate2, coordinate21.distance(coordinate11));
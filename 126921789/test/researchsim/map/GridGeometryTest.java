@@ -0,0 +1,44 @@
+package researchsim.map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GridGeometryTest {
+
+    private final GridGeometry geometry = new GridGeometry(7, 5);
+
+    @Test
+    public void testIndex() {
+        assertEquals(35, geometry.getSize());
+        assertEquals(0, geometry.index(0, 0));
+        assertEquals(20, geometry.index(6, 2));
+        assertEquals(6, geometry.getX(20));
+        assertEquals(2, geometry.getY(20));
+        assertEquals(new Coordinate(6, 2), geometry.toCoordinate(20));
+    }
+
+    @Test
+    public void testBounds() {
+        assertTrue(geometry.isInBounds(6, 4));
+        assertFalse(geometry.isInBounds(7, 0));
+        assertFalse(geometry.isInBounds(0, -1));
+        assertTrue(geometry.isInBounds(34));
+        assertFalse(geometry.isInBounds(35));
+    }
+
+    @Test
+    public void testCoordinateWithoutScenario() {
+        // none of these look at the active scenario
+        Coordinate coordinate = new Coordinate(20, geometry);
+        assertEquals(new Coordinate(6, 2), coordinate);
+        assertEquals(20, coordinate.getIndex(geometry));
+        assertTrue(coordinate.isInBounds(geometry));
+        assertFalse(coordinate.isInBounds(new GridGeometry(6, 5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSize() {
+        new GridGeometry(-1, 5);
+    }
+}
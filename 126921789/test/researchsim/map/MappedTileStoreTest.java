@@ -0,0 +1,66 @@
+package researchsim.map;
+
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.entities.Flora;
+import researchsim.entities.Size;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class MappedTileStoreTest {
+
+    private ByteBuffer terrain;
+    private MappedTileStore store;
+
+    @Before
+    public void setUp() {
+        // 3 x 2 map: LAND OCEAN SAND / MOUNTAIN LAND LAND
+        terrain = ByteBuffer.wrap(new byte[] {(byte) 0b00011011, (byte) 0b00000000})
+            .asReadOnlyBuffer();
+        store = new MappedTileStore(terrain, 3, 2);
+    }
+
+    @Test
+    public void testGetType() {
+        assertEquals(6, store.getSize());
+        assertEquals(TileType.LAND, store.getType(0));
+        assertEquals(TileType.OCEAN, store.getType(1));
+        assertEquals(TileType.SAND, store.getType(2));
+        assertEquals(TileType.MOUNTAIN, store.getType(3));
+        assertEquals(TileType.LAND, store.getType(5));
+    }
+
+    @Test
+    public void testSetTypeLeavesBufferUntouched() {
+        store.setType(1, TileType.MOUNTAIN);
+        store.setType(2, null);
+        assertEquals(TileType.MOUNTAIN, store.getType(1));
+        assertNull(store.getType(2));
+        assertNull(store.get(2));
+        assertEquals(TileType.LAND, store.getType(0));
+        assertEquals((byte) 0b00011011, terrain.get(0));
+    }
+
+    @Test
+    public void testContents() {
+        Flora flora = new Flora(Size.SMALL, new Coordinate(2, 1));
+        store.setContents(5, flora);
+        assertSame(flora, store.getContents(5));
+        assertEquals(1, store.countContents());
+        store.setType(5, null);
+        assertNull(store.getContents(5));
+        assertEquals(0, store.countContents());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBufferTooSmall() {
+        new MappedTileStore(ByteBuffer.allocate(1), 3, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        store.getType(6);
+    }
+}
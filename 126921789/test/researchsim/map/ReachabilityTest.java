@@ -0,0 +1,87 @@
+package researchsim.map;
+
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.util.DiamondOffsets;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReachabilityTest {
+
+    private PackedTileStore store;
+    private GridView grid;
+    private Reachability.TileRule land;
+
+    @Before
+    public void setUp() {
+        store = new PackedTileStore(25);
+        for (int i = 0; i < 25; i++) {
+            store.setType(i, TileType.LAND);
+        }
+        grid = new GridView(store, 5, 5);
+        land = index -> store.getType(index) == TileType.LAND;
+    }
+
+    @Test
+    public void testOpenMap() {
+        int[] indices = DiamondOffsets.buffer(2);
+        int count = Reachability.fill(grid, 2, 2, 2, land, indices);
+        assertEquals(DiamondOffsets.count(2) - 1, count);
+        // row order, starting from the top of the diamond
+        assertEquals(2, indices[0]);
+        assertEquals(6, indices[1]);
+        assertFalse(Reachability.canReach(grid, 2, 2, 2, 2, land));
+    }
+
+    @Test
+    public void testClippedAtEdge() {
+        int[] indices = DiamondOffsets.buffer(2);
+        int count = Reachability.fill(grid, 0, 0, 2, land, indices);
+        assertEquals(5, count);
+        assertArrayEquals(new int[] {1, 2, 5, 6, 10}, Arrays.copyOf(indices, count));
+    }
+
+    @Test
+    public void testOnlyStraightOrLShapedPaths() {
+        // both L-shaped paths from (0, 0) to (1, 1) are blocked
+        store.setType(1, TileType.MOUNTAIN);
+        store.setType(5, TileType.MOUNTAIN);
+        assertFalse(Reachability.canReach(grid, 0, 0, 1, 1, land));
+        assertEquals(0, Reachability.fill(grid, 0, 0, 3, land, DiamondOffsets.buffer(3)));
+
+        // (2, 0) is only reachable by going around (1, 0), which is not a straight line
+        store.setType(5, TileType.LAND);
+        assertTrue(Reachability.canReach(grid, 0, 0, 1, 1, land));
+        assertFalse(Reachability.canReach(grid, 0, 0, 2, 0, land));
+    }
+
+    @Test
+    public void testFillMatchesCanReach() {
+        Random random = new Random(7);
+        TileType[] types = TileType.values();
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 25; i++) {
+                store.setType(i, types[random.nextInt(types.length)]);
+            }
+            int x = random.nextInt(5);
+            int y = random.nextInt(5);
+            int radius = 1 + random.nextInt(4);
+            int[] indices = DiamondOffsets.buffer(radius);
+            int count = Reachability.fill(grid, x, y, radius, land, indices);
+            boolean[] found = new boolean[25];
+            for (int i = 0; i < count; i++) {
+                found[indices[i]] = true;
+            }
+            for (int i = 0; i < 25; i++) {
+                int tx = i % 5;
+                int ty = i / 5;
+                boolean expected = Math.abs(tx - x) + Math.abs(ty - y) <= radius
+                    && Reachability.canReach(grid, x, y, tx, ty, land);
+                assertEquals("round " + round + " tile " + i, expected, found[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package researchsim.map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.TestUtil;
+import researchsim.entities.Entity;
+import researchsim.entities.Fauna;
+import researchsim.entities.Flora;
+import researchsim.entities.Size;
+import researchsim.entities.User;
+import researchsim.scenario.Scenario;
+import researchsim.scenario.ScenarioManager;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SpatialIndexTest {
+
+    private static final int SIDE = 50;
+
+    private Scenario scenario;
+    private SpatialIndex index;
+
+    @Before
+    public void setUp() throws IOException, BadSaveException {
+        String save = TestUtil.randomSave("Spatial", SIDE, 0, 300, 3, 1) + "\nUser-0,0-Bob";
+        scenario = Scenario.load(new StringReader(save));
+        ScenarioManager.getInstance().addScenario(scenario);
+        index = scenario.getSpatialIndex();
+    }
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    private <T extends Entity> List<T> scan(int x, int y, int radius, Class<T> type) {
+        List<T> found = new ArrayList<>();
+        GridView grid = scenario.getGridView();
+        for (int i = 0; i < grid.getSize(); i++) {
+            Entity entity = grid.getContents(i);
+            if (type.isInstance(entity) && Math.abs(i % SIDE - x) + Math.abs(i / SIDE - y)
+                    <= radius) {
+                found.add(type.cast(entity));
+            }
+        }
+        return found;
+    }
+
+    private void assertMatchesScan() {
+        assertEquals(scenario.getGridView().countContents(), index.size());
+        Random random = new Random(9);
+        for (int i = 0; i < 50; i++) {
+            int x = random.nextInt(SIDE);
+            int y = random.nextInt(SIDE);
+            int radius = random.nextInt(30);
+            assertEquals(new HashSet<>(scan(x, y, radius, Fauna.class)),
+                new HashSet<>(index.withinRadius(x, y, radius, Fauna.class)));
+            assertEquals(scan(x, y, radius, Flora.class).size(),
+                index.withinRadius(x, y, radius, Flora.class).size());
+        }
+    }
+
+    @Test
+    public void testQueriesMatchScan() {
+        assertMatchesScan();
+        assertEquals(index.size(), index.inRegion(-5, -5, SIDE + 5, SIDE + 5,
+            Entity.class).size());
+        assertEquals(1, index.inRegion(0, 0, 0, 0, User.class).size());
+    }
+
+    @Test
+    public void testKeptUpToDate() {
+        for (int i = 0; i < 30; i++) {
+            scenario.getController().move();
+        }
+        assertMatchesScan();
+
+        scenario.getGridView().getTile(0).setContents(null);
+        assertTrue(index.inRegion(0, 0, 0, 0, User.class).isEmpty());
+        assertMatchesScan();
+    }
+
+    @Test
+    public void testNearest() {
+        for (Size size : Size.values()) {
+            Flora nearest = index.nearest(25, 25, Flora.class, f -> f.getSize() == size);
+            int best = Integer.MAX_VALUE;
+            for (Flora flora : scan(25, 25, 2 * SIDE, Flora.class)) {
+                if (flora.getSize() == size) {
+                    best = Math.min(best, Math.abs(flora.getCoordinate().getX() - 25)
+                        + Math.abs(flora.getCoordinate().getY() - 25));
+                }
+            }
+            if (best == Integer.MAX_VALUE) {
+                assertNull(nearest);
+            } else {
+                assertEquals(best, Math.abs(nearest.getCoordinate().getX() - 25)
+                    + Math.abs(nearest.getCoordinate().getY() - 25));
+            }
+        }
+        assertSame(scenario.getGridView().getContents(0),
+            index.nearest(SIDE - 1, SIDE - 1, User.class, u -> true));
+    }
+}
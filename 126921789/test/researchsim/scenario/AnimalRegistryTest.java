@@ -0,0 +1,155 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.entities.Entity;
+import researchsim.entities.Fauna;
+import researchsim.entities.Size;
+import researchsim.entities.User;
+import researchsim.map.Coordinate;
+import researchsim.map.TileType;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AnimalRegistryTest {
+
+    private AnimalRegistry registry;
+    private Fauna mouse;
+    private Fauna dog;
+    private Fauna horse;
+
+    @Before
+    public void setUp() {
+        registry = new AnimalRegistry();
+        mouse = new Fauna(Size.SMALL, new Coordinate(1, 1), TileType.LAND);
+        dog = new Fauna(Size.MEDIUM, new Coordinate(2, 1), TileType.LAND);
+        horse = new Fauna(Size.LARGE, new Coordinate(3, 1), TileType.LAND);
+        registry.add(mouse);
+        registry.add(dog);
+        registry.add(horse);
+    }
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    @Test
+    public void testIds() {
+        assertEquals(0, mouse.getId());
+        assertEquals(1, dog.getId());
+        assertEquals(2, horse.getId());
+        assertSame(dog, registry.getById(1));
+        assertNull(registry.getById(3));
+        assertFalse(registry.add(dog));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    public void testSwapRemove() {
+        List<Fauna> view = registry.view();
+        assertEquals(List.of(mouse, dog, horse), view);
+        assertTrue(registry.remove(mouse));
+        assertFalse(registry.remove(mouse));
+        assertEquals(List.of(horse, dog), view);
+        assertSame(horse, registry.getById(2));
+        assertNull(registry.getById(0));
+
+        Fauna fish = new Fauna(Size.SMALL, new Coordinate(0, 0), TileType.OCEAN);
+        registry.add(fish);
+        assertEquals(3, fish.getId());
+        assertEquals(List.of(horse, dog, fish), view);
+    }
+
+    @Test
+    public void testRemovesOnlyTheAnimalItself() {
+        Fauna twin = new Fauna(Size.MEDIUM, new Coordinate(2, 1), TileType.LAND);
+        assertEquals(dog, twin);
+        assertFalse(registry.remove(twin));
+        assertTrue(registry.contains(dog));
+    }
+
+    @Test
+    public void testReplaceKeepsSlot() {
+        Fauna moved = new Fauna(Size.MEDIUM, new Coordinate(2, 2), TileType.LAND);
+        moved.assignId(dog.getId());
+        assertTrue(registry.replace(moved));
+        assertEquals(List.of(mouse, moved, horse), registry.view());
+        assertSame(moved, registry.getById(dog.getId()));
+        assertFalse(registry.replace(new Fauna(Size.SMALL, new Coordinate(4, 4),
+            TileType.LAND)));
+    }
+
+    @Test
+    public void testRestore() {
+        registry.remove(horse);
+        registry.restore(List.of(horse, mouse), 10);
+        assertEquals(List.of(horse, mouse), registry.view());
+        assertNull(registry.getById(dog.getId()));
+        Fauna cat = new Fauna(Size.SMALL, new Coordinate(4, 4), TileType.LAND);
+        registry.add(cat);
+        assertEquals(10, cat.getId());
+    }
+
+    @Test
+    public void testSparseIds() {
+        Fauna cat = new Fauna(Size.SMALL, new Coordinate(4, 4), TileType.LAND);
+        cat.assignId(2_000_000_000L);
+        registry.add(cat);
+        assertSame(cat, registry.getById(2_000_000_000L));
+        assertEquals(2_000_000_001L, registry.getNextId());
+        registry.remove(mouse);
+        assertEquals(List.of(cat, dog, horse), registry.view());
+        assertSame(cat, registry.getById(2_000_000_000L));
+        assertTrue(registry.remove(cat));
+        assertNull(registry.getById(2_000_000_000L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIdTooLarge() {
+        Fauna cat = new Fauna(Size.SMALL, new Coordinate(4, 4), TileType.LAND);
+        cat.assignId(Long.MAX_VALUE);
+        registry.add(cat);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateId() {
+        Fauna impostor = new Fauna(Size.SMALL, new Coordinate(4, 4), TileType.LAND);
+        impostor.assignId(1);
+        registry.add(impostor);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewIsReadOnly() {
+        registry.view().remove(0);
+    }
+
+    @Test
+    public void testRandom() {
+        assertSame(registry.get(new Random(4).nextInt(3)), registry.random(new Random(4)));
+        assertNull(new AnimalRegistry().random(new Random()));
+    }
+
+    @Test
+    public void testCollectRemovesAnimal() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(String.join("\n",
+            "Registry", "Width:5", "Height:5", "Seed:0", "=====",
+            "LLLLL", "LLLLL", "LLLLL", "LLLLL", "LLLLL", "=====",
+            "Fauna-SMALL-1,0-LAND", "Fauna-SMALL-3,3-LAND", "User-0,0-Ann")));
+        ScenarioManager.getInstance().addScenario(scenario);
+        Fauna first = (Fauna) scenario.getGridView().getContents(1);
+        User user = (User) scenario.getGridView().getContents(0);
+        user.move(new Coordinate(1, 0));
+        assertFalse(scenario.getController().getRegistry().contains(first));
+        assertEquals(1, scenario.getController().getAnimals().size());
+        assertSame(user, scenario.getGridView().getContents(1));
+        assertEquals(Entity.NO_ID, user.getId());
+    }
+}
@@ -0,0 +1,230 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import researchsim.TestUtil;
+import researchsim.entities.Fauna;
+import researchsim.entities.User;
+import researchsim.map.Coordinate;
+import researchsim.map.TileType;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class AutosaveTest {
+
+    private static final String SAVE = String.join("\n",
+        "Autosave",
+        "Width:5",
+        "Height:5",
+        "Seed:0",
+        "=====",
+        "LLLLS",
+        "LLSSO",
+        "LLSOO",
+        "LLSSS",
+        "LLLLL",
+        "=====",
+        "Fauna-SMALL-1,1-LAND",
+        "Fauna-MEDIUM-4,2-OCEAN",
+        "Flora-LARGE-0,4",
+        "User-2,0-Dave");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Scenario scenario;
+    private Path base;
+
+    @Before
+    public void setUp() throws IOException, BadSaveException {
+        scenario = Scenario.load(new StringReader(SAVE));
+        ScenarioManager.getInstance().addScenario(scenario);
+        base = folder.getRoot().toPath().resolve("autosave");
+    }
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    private void play() {
+        Fauna fauna = (Fauna) scenario.getGridView().getContents(6);
+        fauna.move(new Coordinate(1, 2));
+        User user = (User) scenario.getGridView().getContents(2);
+        user.move(new Coordinate(1, 0));
+        user.move(new Coordinate(1, 1));
+        user.move(new Coordinate(1, 2)); // collects the fauna
+    }
+
+    private void assertRecovered(Scenario recovered) {
+        assertEquals(scenario.encode(), recovered.encode());
+        assertEquals(scenario.getLog().toString(), recovered.getLog().toString());
+        assertEquals(scenario.getLog().getTilesTraversed(),
+            recovered.getLog().getTilesTraversed());
+        assertEquals(scenario.getLog().getEntitiesCollected(),
+            recovered.getLog().getEntitiesCollected());
+        assertEquals(scenario.getLog().getPointsEarned(), recovered.getLog().getPointsEarned());
+        assertEquals(scenario.getController().getAnimals().size(),
+            recovered.getController().getAnimals().size());
+    }
+
+    private void assertCarriesOn(RandomStreams.Mode mode, long compactThreshold)
+            throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(
+            TestUtil.randomSave("Carry on", 12, 4, 30, 0, 7)));
+        scenario.getRandomStreams().setMode(mode);
+        try (Autosave autosave = new Autosave(scenario, base, compactThreshold)) {
+            TestUtil.advance(scenario, 5);
+            autosave.autosave();
+            TestUtil.removeFirstAnimal(scenario);
+            TestUtil.advance(scenario, 5);
+            autosave.autosave();
+        }
+        ScenarioManager.getInstance().reset();
+        Scenario recovered = Autosave.recover(base);
+        assertEquals(scenario.getTick(), recovered.getTick());
+        assertEquals(mode, recovered.getRandomStreams().getMode());
+        assertEquals(scenario.getRandomStreams().getLegacyState(),
+            recovered.getRandomStreams().getLegacyState());
+        assertArrayEquals(TestUtil.animalIds(scenario), TestUtil.animalIds(recovered));
+        assertEquals(scenario.getController().getRegistry().getNextId(),
+            recovered.getController().getRegistry().getNextId());
+        assertEquals(TestUtil.advance(scenario, 10), TestUtil.advance(recovered, 10));
+    }
+
+    @Test
+    public void testRecoveredScenarioCarriesOn() throws IOException, BadSaveException {
+        assertCarriesOn(RandomStreams.Mode.LEGACY, Autosave.DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    @Test
+    public void testRecoveredSplitScenarioCarriesOn() throws IOException, BadSaveException {
+        assertCarriesOn(RandomStreams.Mode.SPLIT, Autosave.DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    @Test
+    public void testCompactedScenarioCarriesOn() throws IOException, BadSaveException {
+        assertCarriesOn(RandomStreams.Mode.SPLIT, 1);
+    }
+
+    @Test
+    public void testJournalOnlyChangedTiles() throws IOException, BadSaveException {
+        try (Autosave autosave = new Autosave(scenario, base)) {
+            autosave.awaitSnapshot();
+            long snapshot = Files.size(folder.getRoot().toPath().resolve("autosave.snapshot"));
+            play();
+            assertEquals(4, autosave.getDirtyCount());
+            autosave.autosave();
+            assertEquals(0, autosave.getDirtyCount());
+            assertEquals(snapshot,
+                Files.size(folder.getRoot().toPath().resolve("autosave.snapshot")));
+        }
+        ScenarioManager.getInstance().reset();
+        assertRecovered(Autosave.recover(base));
+    }
+
+    @Test
+    public void testNothingChanged() throws IOException {
+        try (Autosave autosave = new Autosave(scenario, base)) {
+            Path journal = folder.getRoot().toPath().resolve("autosave.journal");
+            long size = Files.size(journal);
+            autosave.autosave();
+            assertEquals(size, Files.size(journal));
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException, BadSaveException {
+        try (Autosave autosave = new Autosave(scenario, base, 1)) {
+            play();
+            autosave.autosave();
+        }
+        assertFalse(Files.exists(folder.getRoot().toPath().resolve("autosave.journal.old")));
+        ScenarioManager.getInstance().reset();
+        assertRecovered(Autosave.recover(base));
+    }
+
+    @Test
+    public void testCompactionSnapshotsAutosavedState() throws IOException, BadSaveException {
+        String saved;
+        try (Autosave autosave = new Autosave(scenario, base, 1)) {
+            play();
+            autosave.autosave();
+            saved = scenario.encode();
+            User user = (User) scenario.getGridView().getContents(11);
+            user.move(new Coordinate(1, 3)); // while the compaction may still be running
+        }
+        ScenarioManager.getInstance().reset();
+        assertEquals(saved, Autosave.recover(base).encode());
+    }
+
+    @Test
+    public void testTornRecordIgnored() throws IOException, BadSaveException {
+        String before;
+        try (Autosave autosave = new Autosave(scenario, base)) {
+            Fauna fauna = (Fauna) scenario.getGridView().getContents(6);
+            fauna.move(new Coordinate(1, 2));
+            autosave.autosave();
+            before = scenario.encode();
+            User user = (User) scenario.getGridView().getContents(2);
+            user.move(new Coordinate(1, 0));
+            autosave.autosave();
+        }
+        Path journal = folder.getRoot().toPath().resolve("autosave.journal");
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        ScenarioManager.getInstance().reset();
+        assertEquals(before, Autosave.recover(base).encode());
+    }
+
+    @Test
+    public void testFirstSnapshot() throws IOException, BadSaveException {
+        String saved = scenario.encode();
+        assertFalse(Autosave.exists(base));
+        try (Autosave autosave = new Autosave(scenario, base)) {
+            play(); // while the first snapshot may still be being written
+            autosave.awaitSnapshot();
+            assertTrue(Autosave.exists(base));
+            assertEquals(saved, Autosave.recover(base).encode());
+        }
+    }
+
+    @Test
+    public void testSetAside() throws IOException, BadSaveException {
+        try (Autosave autosave = new Autosave(scenario, base)) {
+            play();
+            autosave.autosave();
+        }
+        Autosave.setAside(base);
+        assertFalse(Autosave.exists(base));
+        new Autosave(scenario.copy("Other", 1), base).close();
+        Path aside = folder.getRoot().toPath().resolve("aside");
+        Files.move(folder.getRoot().toPath().resolve("autosave.snapshot.bak"),
+            folder.getRoot().toPath().resolve("aside.snapshot"));
+        Files.move(folder.getRoot().toPath().resolve("autosave.journal.bak"),
+            folder.getRoot().toPath().resolve("aside.journal"));
+        ScenarioManager.getInstance().reset();
+        assertRecovered(Autosave.recover(aside));
+    }
+
+    @Test
+    public void testTerrainChangeWritesSnapshot() throws IOException, BadSaveException {
+        try (Autosave autosave = new Autosave(scenario, base)) {
+            scenario.getTileStore().setType(0, TileType.SAND);
+            autosave.autosave();
+        }
+        ScenarioManager.getInstance().reset();
+        assertEquals(scenario.encode(), Autosave.recover(base).encode());
+    }
+}
@@ -0,0 +1,125 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Test;
+import researchsim.TestUtil;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchRunnerTest {
+
+    private static final String SAVE = String.join("\n",
+        "Batch",
+        "Width:6",
+        "Height:6",
+        "Seed:%d",
+        "======",
+        "LLLLSS",
+        "LLSSOO",
+        "LLSOOO",
+        "LLSSSO",
+        "LLLLLL",
+        "LLLLLL",
+        "======",
+        "Fauna-SMALL-1,1-LAND",
+        "Fauna-MEDIUM-4,2-OCEAN",
+        "Fauna-LARGE-0,5-LAND",
+        "Fauna-SMALL-5,3-OCEAN",
+        "Flora-LARGE-0,4",
+        "User-2,0-Dave");
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    private static Scenario load(int seed) throws IOException, BadSaveException {
+        return Scenario.load(new StringReader(String.format(SAVE, seed)));
+    }
+
+    @Test
+    public void testCopyMatchesLoad() throws IOException, BadSaveException {
+        Scenario template = load(0);
+        ScenarioManager.getInstance().addScenario(template);
+        Scenario copy = template.copy("Batch", 7);
+        assertSame(template, ScenarioManager.getInstance().getScenario());
+        Scenario loaded = load(7);
+        assertEquals(loaded.encode(), copy.encode());
+        assertNotSame(template.getGridView().getContents(7), copy.getGridView().getContents(7));
+        assertEquals(template.getController().getAnimals(), copy.getController().getAnimals());
+        assertEquals(template.getController().getAnimals().get(2).getId(),
+            copy.getController().getAnimals().get(2).getId());
+
+        assertEquals(TestUtil.advance(loaded, 20), TestUtil.advance(copy, 20));
+        assertEquals(load(0).encode(), template.encode());
+    }
+
+    @Test
+    public void testResultsMatchSeparateRuns() throws IOException, BadSaveException {
+        Scenario template = load(0);
+        List<BatchRunner.Result> results = new ArrayList<>();
+        long count = new BatchRunner(template, 3).run(new int[] {1, 2, 3, 4},
+            new long[] {30, 5, 30}, results::add);
+        assertEquals(8, count);
+        assertEquals(8, results.size());
+        results.sort(Comparator.comparingInt(BatchRunner.Result::getSeed)
+            .thenComparingLong(BatchRunner.Result::getTicks));
+
+        for (int i = 0; i < results.size(); i++) {
+            BatchRunner.Result result = results.get(i);
+            assertEquals(i / 2 + 1, result.getSeed());
+            assertEquals(i % 2 == 0 ? 5 : 30, result.getTicks());
+            ScenarioManager.getInstance().reset();
+            Scenario expected = load(result.getSeed());
+            TestUtil.advance(expected, (int) result.getTicks());
+            assertEquals(expected.getLog().getTilesTraversed(), result.getTilesTraversed());
+            assertEquals(expected.getLog().getEventCount(), result.getEventCount());
+            assertEquals(expected.getLog().getPointsEarned(), result.getPointsEarned());
+        }
+    }
+
+    @Test
+    public void testParallelPolicyTemplate() throws IOException, BadSaveException {
+        Scenario template = load(0);
+        template.getController().setMovementPolicy(new ParallelMovementPolicy(2));
+        List<BatchRunner.Result> results = new ArrayList<>();
+        new BatchRunner(template, 2).run(new int[] {1, 2}, new long[] {20}, results::add);
+        results.sort(Comparator.comparingInt(BatchRunner.Result::getSeed));
+
+        for (BatchRunner.Result result : results) {
+            ScenarioManager.getInstance().reset();
+            Scenario expected = load(result.getSeed());
+            expected.getController().setMovementPolicy(new ParallelMovementPolicy(2));
+            TestUtil.advance(expected, 20);
+            assertEquals(expected.getLog().getTilesTraversed(), result.getTilesTraversed());
+            assertEquals(expected.getLog().getEventCount(), result.getEventCount());
+        }
+    }
+
+    @Test
+    public void testCsvAndJson() throws IOException, BadSaveException {
+        BatchRunner runner = new BatchRunner(load(0), 2);
+        StringBuilder csv = new StringBuilder();
+        runner.run(new int[] {5, 6}, new long[] {10}, BatchRunner.csv(csv));
+        String[] lines = csv.toString().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        assertEquals(BatchRunner.CSV_HEADER, lines[0]);
+        assertTrue(lines[1].startsWith("5,10,") || lines[1].startsWith("6,10,"));
+
+        StringBuilder json = new StringBuilder();
+        runner.run(new int[] {5}, new long[] {10}, BatchRunner.json(json));
+        assertTrue(json.toString().startsWith("{\"seed\":5,\"ticks\":10,\"pointsEarned\":0,"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTicks() throws IOException, BadSaveException {
+        new BatchRunner(load(0), 1).run(new int[] {1}, new long[] {-1}, result -> { });
+    }
+}
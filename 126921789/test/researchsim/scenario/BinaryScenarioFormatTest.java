@@ -0,0 +1,214 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Test;
+import researchsim.TestUtil;
+import researchsim.entities.Fauna;
+import researchsim.entities.Size;
+import researchsim.entities.User;
+import researchsim.map.Coordinate;
+import researchsim.map.MappedTileStore;
+import researchsim.map.TileType;
+import researchsim.util.BadSaveException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BinaryScenarioFormatTest {
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    private static byte[] toBinary(Scenario scenario) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        scenario.encodeBinary(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testRoundTripSaves() throws IOException, BadSaveException {
+        try (DirectoryStream<Path> saves = Files.newDirectoryStream(Paths.get("saves"), "*.txt")) {
+            for (Path save : saves) {
+                ScenarioManager.getInstance().reset();
+                Scenario text;
+                try (Reader reader = Files.newBufferedReader(save)) {
+                    text = Scenario.load(reader);
+                }
+                ScenarioManager.getInstance().reset();
+                Scenario binary = Scenario.load(new ByteArrayInputStream(toBinary(text)));
+                assertEquals(save.toString(), text.encode(), binary.encode());
+                assertEquals(save.toString(), text.getController().getAnimals().size(),
+                    binary.getController().getAnimals().size());
+            }
+        }
+    }
+
+    @Test
+    public void testLoadDetectsText() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new ByteArrayInputStream(
+            Files.readAllBytes(Paths.get("saves/default.txt"))));
+        assertSame(scenario, ScenarioManager.getInstance().getScenario(scenario.getName()));
+    }
+
+    @Test
+    public void testLayout() throws IOException, BadSaveException {
+        Scenario scenario = new Scenario("Binary", 5, 5, 7);
+        for (int i = 0; i < scenario.getSize(); i++) {
+            scenario.getTileStore().setType(i, i == 24 ? TileType.OCEAN : TileType.LAND);
+        }
+        scenario.getTileStore().setContents(3, new User(new Coordinate(3, 0), "Dave"));
+        byte[] bytes = toBinary(scenario);
+        int header = 4 + 2 + 2 + 4 * 3 + 2 + "Binary".length() + 1 + 8;
+        int terrain = (25 + 3) / 4;
+        int strings = 4 + 2 + "Dave".length();
+        int entities = 4 + BinaryScenarioFormat.ENTITY_BYTES;
+        int animals = 4;
+        assertEquals(header + terrain + strings + entities + animals, bytes.length);
+        assertArrayEquals(BinaryScenarioFormat.MAGIC, Arrays.copyOf(bytes, 4));
+
+        ScenarioManager.getInstance().reset();
+        Scenario loaded = Scenario.load(new ByteArrayInputStream(bytes));
+        assertEquals(7, loaded.getSeed());
+        assertEquals(TileType.OCEAN, loaded.getGridView().getType(24));
+        assertEquals("Dave", loaded.getGridView().getContents(3).getName());
+    }
+
+    @Test
+    public void testSplitRunSurvivesSaveLoad() throws IOException, BadSaveException {
+        Scenario scenario = TestUtil.advancedScenario("Split", RandomStreams.Mode.SPLIT);
+        Scenario loaded = Scenario.load(new ByteArrayInputStream(toBinary(scenario)));
+        assertEquals(RandomStreams.Mode.SPLIT, loaded.getRandomStreams().getMode());
+        assertEquals(scenario.getTick(), loaded.getTick());
+        assertArrayEquals(TestUtil.animalIds(scenario), TestUtil.animalIds(loaded));
+        assertEquals(TestUtil.advance(scenario, 5), TestUtil.advance(loaded, 5));
+    }
+
+    @Test
+    public void testLargeAnimalId() throws IOException, BadSaveException {
+        Scenario scenario = new Scenario("Ids", 5, 5, 0);
+        for (int i = 0; i < scenario.getSize(); i++) {
+            scenario.getTileStore().setType(i, TileType.LAND);
+        }
+        Fauna fauna = new Fauna(Size.SMALL, new Coordinate(1, 1), TileType.LAND);
+        fauna.assignId(2_000_000_000L);
+        scenario.getTileStore().setContents(6, fauna);
+        scenario.getController().addAnimal(fauna);
+        byte[] bytes = toBinary(scenario);
+        Scenario loaded = Scenario.load(new ByteArrayInputStream(bytes));
+        assertNotNull(loaded.getController().getRegistry().getById(2_000_000_000L));
+
+        ByteBuffer.wrap(bytes).putLong(bytes.length - 8, Long.MAX_VALUE);
+        try {
+            Scenario.load(new ByteArrayInputStream(bytes));
+            fail("Loading an animal id too large for the next id to follow should fail");
+        } catch (BadSaveException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Animal 1:"));
+        }
+    }
+
+    @Test
+    public void testReadsVersion1() throws IOException, BadSaveException {
+        Scenario scenario = loadDefault();
+        byte[] bytes = toBinary(scenario);
+        int name = 4 + 2 + 2 + 4 * 3 + 2 + scenario.getName().length();
+        int animals = 4 + 12 * scenario.getController().getAnimals().size();
+        ByteArrayOutputStream version1 = new ByteArrayOutputStream();
+        version1.write(bytes, 0, name);
+        version1.write(bytes, name + 1 + 8, bytes.length - name - 1 - 8 - animals);
+        byte[] old = version1.toByteArray();
+        old[5] = 1;
+        ScenarioManager.getInstance().reset();
+        Scenario loaded = Scenario.load(new ByteArrayInputStream(old));
+        assertEquals(scenario.encode(), loaded.encode());
+        assertEquals(scenario.getController().getAnimals().size(),
+            loaded.getController().getAnimals().size());
+    }
+
+    @Test
+    public void testLargeMapFlag() throws IOException, BadSaveException {
+        Scenario scenario = new Scenario("Large", 70, 5, 0, true);
+        for (int i = 0; i < scenario.getSize(); i++) {
+            scenario.getTileStore().setType(i, TileType.OCEAN);
+        }
+        scenario.getTileStore().setContents(69,
+            new Fauna(Size.GIANT, new Coordinate(69, 0), TileType.OCEAN));
+        Scenario loaded = Scenario.load(new ByteArrayInputStream(toBinary(scenario)));
+        assertTrue(loaded.isLargeMap());
+        assertEquals(1, loaded.getController().getAnimals().size());
+        assertEquals(scenario.encode(), loaded.encode());
+    }
+
+    @Test
+    public void testLoadPathMapsBinary() throws IOException, BadSaveException {
+        Scenario text = loadDefault();
+        Path binary = Files.createTempFile("scenario", ".rsim");
+        try {
+            Files.write(binary, toBinary(text));
+            ScenarioManager.getInstance().reset();
+            Scenario mapped = Scenario.load(binary);
+            assertTrue(mapped.getTileStore() instanceof MappedTileStore);
+            assertEquals(text.encode(), mapped.encode());
+            assertEquals(text.getController().getAnimals().size(),
+                mapped.getController().getAnimals().size());
+        } finally {
+            Files.delete(binary);
+        }
+    }
+
+    @Test
+    public void testLoadPathReadsText() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(Paths.get("saves/default.txt"));
+        assertFalse(scenario.getTileStore() instanceof MappedTileStore);
+    }
+
+    @Test(expected = BadSaveException.class)
+    public void testUnsupportedVersion() throws IOException, BadSaveException {
+        byte[] bytes = toBinary(loadDefault());
+        bytes[5] = 99;
+        ScenarioManager.getInstance().reset();
+        Scenario.load(new ByteArrayInputStream(bytes));
+    }
+
+    @Test
+    public void testHugeStringCount() throws IOException {
+        Scenario scenario = new Scenario("Binary", 5, 5, 7);
+        for (int i = 0; i < scenario.getSize(); i++) {
+            scenario.getTileStore().setType(i, TileType.LAND);
+        }
+        byte[] bytes = toBinary(scenario);
+        int strings = 4 + 2 + 2 + 4 * 3 + 2 + "Binary".length() + 1 + 8 + (25 + 3) / 4;
+        ByteBuffer.wrap(bytes).putInt(strings, Integer.MAX_VALUE);
+        try {
+            Scenario.load(new ByteArrayInputStream(bytes));
+            fail("Loading a save with more strings than it holds should fail");
+        } catch (BadSaveException e) {
+            assertEquals("Unexpected end of binary save", e.getMessage());
+        }
+    }
+
+    @Test(expected = BadSaveException.class)
+    public void testTruncated() throws IOException, BadSaveException {
+        byte[] bytes = toBinary(loadDefault());
+        ScenarioManager.getInstance().reset();
+        Scenario.load(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    private static Scenario loadDefault() throws IOException, BadSaveException {
+        try (InputStream in = Files.newInputStream(Paths.get("saves/default.txt"))) {
+            return Scenario.load(in);
+        }
+    }
+}
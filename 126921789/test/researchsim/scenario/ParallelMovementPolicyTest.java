@@ -0,0 +1,93 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Test;
+import researchsim.TestUtil;
+import researchsim.entities.Fauna;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ParallelMovementPolicyTest {
+
+    private static final int SIDE = 40;
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    private static String generate(int animals) {
+        return TestUtil.randomSave("Parallel", SIDE, 8, animals, 0, 5);
+    }
+
+    private static Scenario run(int parallelism, int ticks) throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(generate(400)));
+        scenario.getController().setMovementPolicy(new ParallelMovementPolicy(parallelism));
+        TestUtil.advance(scenario, ticks);
+        return scenario;
+    }
+
+    @Test
+    public void testSameResultForAnyParallelism() throws IOException, BadSaveException {
+        String single = run(1, 10).encode();
+        assertEquals(single, run(4, 10).encode());
+        assertEquals(single, run(3, 10).encode());
+    }
+
+    @Test
+    public void testSplitModeSameResultForAnyParallelism() throws IOException, BadSaveException {
+        String[] results = new String[2];
+        int[] parallelism = {1, 4};
+        for (int run = 0; run < 2; run++) {
+            ScenarioManager.getInstance().reset();
+            Scenario scenario = Scenario.load(new StringReader(generate(400)));
+            scenario.getRandomStreams().setMode(RandomStreams.Mode.SPLIT);
+            scenario.getController().setMovementPolicy(
+                new ParallelMovementPolicy(parallelism[run]));
+            results[run] = TestUtil.advance(scenario, 10);
+        }
+        assertEquals(results[0], results[1]);
+    }
+
+    @Test
+    public void testEntityStoreSameResult() throws IOException, BadSaveException {
+        String expected = run(2, 10).encode();
+        ScenarioManager.getInstance().reset();
+        Scenario scenario = Scenario.load(new StringReader(generate(400)));
+        scenario.enableEntityStore();
+        scenario.getController().setMovementPolicy(new ParallelMovementPolicy(2));
+        TestUtil.advance(scenario, 10);
+        assertEquals(400, scenario.getEntityStore().size());
+        scenario.disableEntityStore();
+        assertEquals(expected, scenario.encode());
+    }
+
+    @Test
+    public void testNoCollisions() throws IOException, BadSaveException {
+        Scenario scenario = run(4, 10);
+        assertEquals(400, scenario.getGridView().countContents());
+        Set<Integer> occupied = new HashSet<>();
+        for (Fauna animal : scenario.getController().getAnimals()) {
+            int index = animal.getCoordinate().getIndex(scenario.getGeometry());
+            assertTrue(occupied.add(index));
+            assertSame(animal, scenario.getGridView().getContents(index));
+        }
+    }
+
+    @Test
+    public void testMovesAnimals() throws IOException, BadSaveException {
+        Scenario scenario = run(2, 1);
+        assertTrue(scenario.getLog().getEvents().size() > 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadParallelism() {
+        new ParallelMovementPolicy(0);
+    }
+}
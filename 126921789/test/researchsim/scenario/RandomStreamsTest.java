@@ -0,0 +1,137 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Test;
+import researchsim.TestUtil;
+import researchsim.entities.Fauna;
+import researchsim.map.Coordinate;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class RandomStreamsTest {
+
+    private static final String SAVE = String.join("\n",
+        "Streams",
+        "Width:5",
+        "Height:5",
+        "Seed:11",
+        "=====",
+        "LLLLS",
+        "LLSSO",
+        "LLSOO",
+        "LLSSS",
+        "LLLLL",
+        "=====",
+        "Fauna-SMALL-1,1-LAND",
+        "Fauna-LARGE-0,3-LAND",
+        "Fauna-MEDIUM-4,2-OCEAN",
+        "Fauna-SMALL-3,0-LAND");
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    @Test
+    public void testLegacyIsSeededRandom() {
+        RandomStreams streams = new RandomStreams(42);
+        assertEquals(RandomStreams.Mode.LEGACY, streams.getMode());
+        Random expected = new Random(42);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected.nextInt(), streams.getLegacy().nextInt());
+        }
+    }
+
+    @Test
+    public void testLegacyStateRestores() {
+        RandomStreams streams = new RandomStreams(42);
+        streams.getLegacy().nextInt(10);
+        long state = streams.getLegacyState();
+        int[] expected = new int[10];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = streams.getLegacy().nextInt(100);
+        }
+        RandomStreams restored = new RandomStreams(7);
+        restored.setLegacyState(state);
+        for (int value : expected) {
+            assertEquals(value, restored.getLegacy().nextInt(100));
+        }
+    }
+
+    @Test
+    public void testStreamsAreReproducible() {
+        RandomStreams streams = new RandomStreams(42);
+        SplittableRandom first = streams.stream(7, 3);
+        SplittableRandom second = new RandomStreams(42).stream(7, 3);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+        assertNotEquals(streams.hash(7, 3), streams.hash(7, 4));
+        assertNotEquals(streams.hash(7, 3), streams.hash(8, 3));
+        assertNotEquals(streams.hash(7, 3), new RandomStreams(43).hash(7, 3));
+    }
+
+    @Test
+    public void testSplitModeDoesNotUseSharedRandom() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(SAVE));
+        scenario.getRandomStreams().setMode(RandomStreams.Mode.SPLIT);
+        Random untouched = new Random(11);
+        TestUtil.advance(scenario, 10);
+        assertEquals(10, scenario.getTick());
+        assertEquals(untouched.nextInt(), scenario.getRandom().nextInt());
+    }
+
+    @Test
+    public void testSplitModeIsReproducible() throws IOException, BadSaveException {
+        String[] results = new String[2];
+        for (int run = 0; run < 2; run++) {
+            ScenarioManager.getInstance().reset();
+            Scenario scenario = Scenario.load(new StringReader(SAVE));
+            scenario.getRandomStreams().setMode(RandomStreams.Mode.SPLIT);
+            results[run] = TestUtil.advance(scenario, 20) + scenario.getLog();
+        }
+        assertEquals(results[0], results[1]);
+    }
+
+    @Test
+    public void testAnimalPickedTwiceKeepsDrawing() throws IOException, BadSaveException {
+        StringBuilder save = new StringBuilder(
+            "Twice\nWidth:12\nHeight:12\nSeed:11\n============\n");
+        for (int y = 0; y < 12; y++) {
+            save.append("LLLLLLLLLLLL\n");
+        }
+        save.append("============\nFauna-SMALL-2,2-LAND\nFauna-SMALL-9,9-LAND");
+        Scenario scenario = Scenario.load(new StringReader(save.toString()));
+        RandomStreams streams = scenario.getRandomStreams();
+        streams.setMode(RandomStreams.Mode.SPLIT);
+        // find a tick in which both picks are of the same animal
+        long tick = 0;
+        int picked;
+        SplittableRandom picks;
+        do {
+            picks = streams.stream(++tick, RandomStreams.SCENARIO_KEY);
+            picked = picks.nextInt(2);
+        } while (picked != 1 || (picked = picks.nextInt(2)) != picks.nextInt(2));
+
+        scenario.setTick(tick - 1);
+        Scenario expected = scenario.copy(scenario.getName(), scenario.getSeed());
+        expected.setTick(tick);
+        Fauna animal = expected.getController().getAnimals().get(picked);
+        SplittableRandom stream = streams.stream(tick, animal.getId());
+        ScenarioContext.run(expected, () -> {
+            for (int i = 0; i < 2; i++) {
+                List<Coordinate> moves = animal.getPossibleMoves();
+                animal.move(moves.get(stream.nextInt(moves.size())));
+            }
+        });
+        ScenarioContext.run(scenario, () -> scenario.getController().move());
+        assertEquals(expected.encode(), scenario.encode());
+    }
+}
@@ -0,0 +1,144 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Test;
+import researchsim.TestUtil;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ScenarioContextTest {
+
+    private static final int SIDE = 15;
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    private static String generate(String name, int seed) {
+        return TestUtil.randomSave(name, SIDE, 5, 40, 0, seed);
+    }
+
+    private static String simulate(Scenario scenario, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            scenario.getController().move();
+        }
+        return scenario.encode() + scenario.getLog();
+    }
+
+    @Test
+    public void testScopesNestAndRestore() throws IOException, BadSaveException {
+        Scenario first = Scenario.load(new StringReader(generate("First", 1)));
+        Scenario second = Scenario.load(new StringReader(generate("Second", 2)));
+        ScenarioManager manager = ScenarioManager.getInstance();
+        manager.setScenario("Second");
+        assertNull(ScenarioContext.current());
+        assertSame(second, manager.getScenario());
+
+        ScenarioContext.Scope outer = ScenarioContext.enter(first);
+        assertSame(first, manager.getScenario());
+        ScenarioContext.run(second, () -> assertSame(second, manager.getScenario()));
+        assertSame(first, manager.getScenario());
+        outer.close();
+        assertSame(second, manager.getScenario());
+        outer.close();
+        assertNull(ScenarioContext.current());
+    }
+
+    @Test
+    public void testRegistry() throws IOException, BadSaveException {
+        Scenario first = Scenario.load(new StringReader(generate("First", 1)));
+        Scenario second = Scenario.load(new StringReader(generate("Second", 2)));
+        ScenarioManager manager = ScenarioManager.getInstance();
+        manager.setScenario("Second");
+        assertSame(first, manager.getScenario("First"));
+        assertNull(manager.getScenario("Third"));
+
+        assertSame(first, manager.removeScenario("First"));
+        assertSame(second, manager.getScenario());
+        assertSame(second, manager.removeScenario("Second"));
+        assertTrue(manager.getLoadedScenarios().isEmpty());
+        ScenarioContext.run(first, () -> assertSame(first, manager.getScenario()));
+    }
+
+    @Test
+    public void testParallelPolicyUsesScopeScenario() throws IOException, BadSaveException {
+        String land = String.join("\n", "Land", "Width:6", "Height:6", "Seed:3", "======",
+            "LLLLLL", "LLLLLL", "LLLLLL", "LLLLLL", "LLLLLL", "LLLLLL", "======",
+            "Fauna-SMALL-1,1-LAND", "Fauna-MEDIUM-4,2-LAND", "Fauna-LARGE-2,4-LAND");
+        String ocean = String.join("\n", "Ocean", "Width:6", "Height:6", "Seed:3", "======",
+            "OOOOOO", "OOOOOO", "OOOOOO", "OOOOOO", "OOOOOO", "OOOOOO", "======");
+        Scenario current = Scenario.load(new StringReader(land));
+        ScenarioManager.getInstance().addScenario(current);
+        current.getController().setMovementPolicy(new ParallelMovementPolicy(2));
+        String expected = simulate(current, 5);
+        assertNotEquals(land, current.encode());
+
+        ScenarioManager.getInstance().reset();
+        Scenario scoped = Scenario.load(new StringReader(land));
+        scoped.getController().setMovementPolicy(new ParallelMovementPolicy(2));
+        Scenario other = Scenario.load(new StringReader(ocean));
+        ScenarioManager.getInstance().addScenario(other);
+        assertSame(other, ScenarioManager.getInstance().getScenario());
+        String[] actual = new String[1];
+        ScenarioContext.run(scoped, () -> actual[0] = simulate(scoped, 5));
+        assertEquals(expected, actual[0]);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNoCurrentAfterRemove() throws IOException, BadSaveException {
+        ScenarioManager.getInstance().addScenario(
+            Scenario.load(new StringReader(generate("First", 1))));
+        ScenarioManager.getInstance().removeScenario("First");
+        ScenarioManager.getInstance().getScenario();
+    }
+
+    @Test
+    public void testThreadsDoNotShareScenarios() throws Exception {
+        int threads = 4;
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            ScenarioManager.getInstance().reset();
+            Scenario scenario = Scenario.load(new StringReader(generate("S" + i, i)));
+            ScenarioManager.getInstance().addScenario(scenario);
+            expected.add(simulate(scenario, 100));
+        }
+
+        ScenarioManager.getInstance().reset();
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            scenarios.add(Scenario.load(new StringReader(generate("S" + i, i))));
+        }
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (Scenario scenario : scenarios) {
+                results.add(pool.submit(() -> {
+                    barrier.await();
+                    ScenarioContext.Scope scope = ScenarioContext.enter(scenario);
+                    try {
+                        return simulate(scenario, 100);
+                    } finally {
+                        scope.close();
+                    }
+                }));
+            }
+            for (int i = 0; i < threads; i++) {
+                assertEquals(expected.get(i), results.get(i).get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
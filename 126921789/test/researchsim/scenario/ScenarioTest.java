@@ -0,0 +1,195 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Test;
+import researchsim.TestUtil;
+import researchsim.entities.Fauna;
+import researchsim.entities.User;
+import researchsim.map.Coordinate;
+import researchsim.map.TileType;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class ScenarioTest {
+
+    private static final String SAVE = String.join("\r\n",
+        "Scenario X",
+        "Width:5",
+        "Height:5",
+        "Seed:0",
+        "=====",
+        "LLLLS",
+        "LLSSO",
+        "LLSOO",
+        "LLSSS",
+        "LLLLL",
+        "=====",
+        "Fauna-SMALL-1,1-LAND",
+        "Fauna-MEDIUM-4,2-OCEAN",
+        "Flora-LARGE-0,4",
+        "User-2,0-Dave");
+
+    @After
+    public void tearDown() {
+        ScenarioManager.getInstance().reset();
+    }
+
+    @Test
+    public void testLoad() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(SAVE));
+        assertEquals("Scenario X", scenario.getName());
+        assertEquals(5, scenario.getWidth());
+        assertEquals(5, scenario.getHeight());
+        assertFalse(scenario.isLargeMap());
+        assertEquals(TileType.SAND, scenario.getGridView().getType(4));
+        assertEquals(TileType.OCEAN, scenario.getGridView().getType(14));
+        assertEquals(4, scenario.getGridView().countContents());
+        assertTrue(scenario.getGridView().getContents(2) instanceof User);
+        assertEquals(2, scenario.getController().getAnimals().size());
+        assertSame(scenario, ScenarioManager.getInstance().getScenario("Scenario X"));
+    }
+
+    @Test
+    public void testLoadKeepsCurrentScenario() throws IOException, BadSaveException {
+        Scenario current = new Scenario("Current", 5, 5, 0);
+        ScenarioManager.getInstance().addScenario(current);
+        Scenario loaded = Scenario.load(new StringReader(SAVE));
+        assertSame(current, ScenarioManager.getInstance().getScenario());
+        assertSame(loaded, ScenarioManager.getInstance().getScenario("Scenario X"));
+    }
+
+    @Test
+    public void testLoadLargeMap() throws IOException, BadSaveException {
+        int width = 70;
+        StringBuilder save = new StringBuilder("Big\nWidth:70\nHeight:5\nSeed:3\n");
+        save.append("=".repeat(width)).append('\n');
+        for (int y = 0; y < 5; y++) {
+            save.append("O".repeat(width)).append('\n');
+        }
+        save.append("=".repeat(width)).append('\n');
+        save.append("Fauna-GIANT-69,4-OCEAN\n");
+        Scenario scenario = Scenario.load(new StringReader(save.toString()));
+        assertTrue(scenario.isLargeMap());
+        assertTrue(scenario.getGridView().getContents(69 + 4 * width) instanceof Fauna);
+    }
+
+    @Test
+    public void testLoadReportsLineNumber() throws IOException {
+        String bad = SAVE.replace("LLSOO", "LLSQO");
+        try {
+            Scenario.load(new StringReader(bad));
+            fail("Loading a map with an unknown tile should fail");
+        } catch (BadSaveException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 8:"));
+        }
+    }
+
+    @Test
+    public void testLoadLargeAnimalId() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(
+            SAVE + "\r\nFauna-SMALL-1,0-LAND-2000000000"));
+        assertEquals(new Coordinate(1, 0),
+            scenario.getController().getRegistry().getById(2_000_000_000L).getCoordinate());
+        try {
+            Scenario.load(new StringReader(SAVE + "\r\nFauna-SMALL-1,0-LAND-" + Long.MAX_VALUE));
+            fail("Loading an animal id too large for the next id to follow should fail");
+        } catch (BadSaveException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 16:"));
+        }
+    }
+
+    @Test(expected = BadSaveException.class)
+    public void testLoadOccupiedTile() throws IOException, BadSaveException {
+        Scenario.load(new StringReader(SAVE + "\r\nFlora-SMALL-1,1"));
+    }
+
+    @Test(expected = BadSaveException.class)
+    public void testLoadMissingSeparator() throws IOException, BadSaveException {
+        Scenario.load(new StringReader(SAVE.substring(0, SAVE.lastIndexOf("=====") - 2)));
+    }
+
+    @Test(expected = BadSaveException.class)
+    public void testLoadFaunaOutsideHabitat() throws IOException, BadSaveException {
+        Scenario.load(new StringReader(SAVE + "\r\nFauna-SMALL-3,3-OCEAN"));
+    }
+
+    @Test
+    public void testEncodeRoundTrip() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(SAVE));
+        String expected = String.join(System.lineSeparator(),
+            "Scenario X",
+            "Width:5",
+            "Height:5",
+            "Seed:0",
+            "=====",
+            "LLLLS",
+            "LLSSO",
+            "LLSOO",
+            "LLSSS",
+            "LLLLL",
+            "=====",
+            "User-2,0-Dave",
+            "Fauna-SMALL-1,1-LAND",
+            "Fauna-MEDIUM-4,2-OCEAN",
+            "Flora-LARGE-0,4");
+        assertEquals(expected, scenario.encode());
+
+        StringWriter writer = new StringWriter();
+        scenario.encodeTo(writer);
+        assertEquals(expected, writer.toString());
+
+        ScenarioManager.getInstance().reset();
+        Scenario reloaded = Scenario.load(new StringReader(writer.toString()));
+        assertEquals(expected, reloaded.encode());
+    }
+
+    @Test
+    public void testEncodeModeAndTick() throws IOException, BadSaveException {
+        Scenario scenario = Scenario.load(new StringReader(SAVE));
+        scenario.getRandomStreams().setMode(RandomStreams.Mode.SPLIT);
+        scenario.setTick(3);
+        String expected = String.join(System.lineSeparator(),
+            "Scenario X",
+            "Width:5",
+            "Height:5",
+            "Seed:0",
+            "Mode:SPLIT",
+            "Tick:3",
+            "=====",
+            "LLLLS",
+            "LLSSO",
+            "LLSOO",
+            "LLSSS",
+            "LLLLL",
+            "=====",
+            "User-2,0-Dave",
+            "Flora-LARGE-0,4",
+            "Fauna-SMALL-1,1-LAND-0",
+            "Fauna-MEDIUM-4,2-OCEAN-1");
+        assertEquals(expected, scenario.encode());
+
+        ScenarioManager.getInstance().reset();
+        Scenario reloaded = Scenario.load(new StringReader(expected));
+        assertEquals(RandomStreams.Mode.SPLIT, reloaded.getRandomStreams().getMode());
+        assertEquals(3, reloaded.getTick());
+        assertEquals(expected, reloaded.encode());
+    }
+
+    @Test
+    public void testSplitRunSurvivesSaveLoad() throws IOException, BadSaveException {
+        Scenario scenario = TestUtil.advancedScenario("Split", RandomStreams.Mode.SPLIT);
+        Scenario reloaded = Scenario.load(new StringReader(scenario.encode()));
+        assertArrayEquals(TestUtil.animalIds(scenario), TestUtil.animalIds(reloaded));
+        assertEquals(TestUtil.advance(scenario, 5), TestUtil.advance(reloaded, 5));
+    }
+
+    @Test(expected = BadSaveException.class)
+    public void testLoadUnknownMode() throws IOException, BadSaveException {
+        Scenario.load(new StringReader(SAVE.replace("Seed:0", "Seed:0\r\nMode:FAST")));
+    }
+}
@@ -0,0 +1,173 @@
+package researchsim.scenario;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import researchsim.TestUtil;
+import researchsim.util.BadSaveException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class SimulationEngineTest {
+
+    private static final String SAVE = String.join("\n",
+        "Engine",
+        "Width:5",
+        "Height:5",
+        "Seed:3",
+        "=====",
+        "LLLLS",
+        "LLSSO",
+        "LLSOO",
+        "LLSSS",
+        "LLLLL",
+        "=====",
+        "Fauna-SMALL-1,1-LAND",
+        "Fauna-LARGE-0,3-LAND",
+        "Fauna-MEDIUM-4,2-OCEAN",
+        "Flora-LARGE-0,4");
+
+    private Scenario scenario;
+    private SimulationEngine engine;
+
+    @Before
+    public void setUp() throws IOException, BadSaveException {
+        scenario = Scenario.load(new StringReader(SAVE));
+        engine = new SimulationEngine(scenario);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        engine.stop();
+        ScenarioManager.getInstance().reset();
+    }
+
+    @Test
+    public void testRunMatchesController() throws IOException, BadSaveException {
+        engine.run(20);
+        assertEquals(20, engine.getTick());
+        String expected = scenario.encode();
+
+        Scenario manual = Scenario.load(new StringReader(SAVE));
+        assertEquals(expected, TestUtil.advance(manual, 20));
+    }
+
+    @Test
+    public void testListeners() {
+        List<String> calls = new ArrayList<>();
+        engine.addTickListener(new TickListener() {
+            @Override
+            public void tickStarting(Scenario scenario, long tick) {
+                calls.add("start " + tick);
+            }
+
+            @Override
+            public void tickCompleted(Scenario scenario, long tick) {
+                calls.add("end " + tick);
+            }
+        });
+        engine.run(2);
+        assertEquals(List.of("start 1", "end 1", "start 2", "end 2"), calls);
+    }
+
+    @Test
+    public void testNotCurrentScenario() throws BadSaveException {
+        Scenario other = new Scenario("Other", 5, 5, 0);
+        ScenarioManager.getInstance().addScenario(other);
+        List<Scenario> seen = new ArrayList<>();
+        engine.addTickListener((ticked, tick) -> seen.add(
+            ScenarioManager.getInstance().getScenario()));
+        engine.step();
+        assertEquals(1, scenario.getTick());
+        assertEquals(0, other.getTick());
+        assertEquals(List.of(scenario), seen);
+        assertSame(other, ScenarioManager.getInstance().getScenario());
+    }
+
+    @Test
+    public void testFixedRateLoop() throws InterruptedException {
+        engine.start(0);
+        while (engine.getTick() < 50) {
+            Thread.sleep(1);
+        }
+        engine.pause();
+        assertTrue(engine.isPaused());
+        Thread.sleep(20);
+        long paused = engine.getTick();
+        Thread.sleep(20);
+        assertEquals(paused, engine.getTick());
+        engine.step();
+        assertEquals(paused + 1, engine.getTick());
+
+        engine.resume();
+        while (engine.getTick() < paused + 50) {
+            Thread.sleep(1);
+        }
+        engine.stop();
+        assertFalse(engine.isRunning());
+        assertNull(engine.getFailure());
+        assertTrue(engine.getTicksPerSecond() > 0);
+    }
+
+    @Test(timeout = 10000)
+    public void testStopFromListener() throws InterruptedException {
+        engine.addTickListener((ticked, tick) -> {
+            if (tick == 3) {
+                try {
+                    engine.stop();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        engine.start(0);
+        while (engine.isRunning()) {
+            Thread.sleep(1);
+        }
+        assertNull(engine.getFailure());
+        assertEquals(3, engine.getTick());
+    }
+
+    @Test(timeout = 10000)
+    public void testStateNotBlockedByTick() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        engine.addTickListener(new TickListener() {
+            @Override
+            public void tickStarting(Scenario scenario, long tick) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void tickCompleted(Scenario scenario, long tick) {
+            }
+        });
+        engine.start(0);
+        started.await();
+        assertTrue(engine.isRunning());
+        assertFalse(engine.isPaused());
+        engine.pause();
+        assertTrue(engine.isPaused());
+        assertEquals(0, engine.getTick());
+        release.countDown();
+        engine.stop();
+        assertEquals(1, engine.getTick());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStepWhileRunning() {
+        engine.start(10);
+        engine.step();
+    }
+}
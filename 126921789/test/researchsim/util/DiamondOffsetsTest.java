@@ -0,0 +1,83 @@
+package researchsim.util;
+
+import org.junit.Test;
+import researchsim.map.Coordinate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DiamondOffsetsTest {
+
+    private final Movable movable = new Movable() {
+        @Override
+        public List<Coordinate> getPossibleMoves() {
+            return List.of();
+        }
+
+        @Override
+        public void move(Coordinate coordinate) {
+        }
+
+        @Override
+        public boolean canMove(Coordinate coordinate) {
+            return false;
+        }
+    };
+
+    @Test
+    public void testCount() {
+        for (int radius = 0; radius <= 6; radius++) {
+            assertEquals(DiamondOffsets.count(radius), DiamondOffsets.offsets(radius).length / 2);
+        }
+        assertEquals(1, DiamondOffsets.count(0));
+        assertEquals(25, DiamondOffsets.count(3));
+    }
+
+    @Test
+    public void testOffsetsInRowOrder() {
+        for (int radius = 0; radius <= 6; radius++) {
+            int[] offsets = DiamondOffsets.offsets(radius);
+            int i = 0;
+            for (int dy = -radius; dy <= radius; dy++) {
+                for (int dx = -radius; dx <= radius; dx++) {
+                    if (Math.abs(dx) + Math.abs(dy) <= radius) {
+                        assertEquals(dx, offsets[i++]);
+                        assertEquals(dy, offsets[i++]);
+                    }
+                }
+            }
+            assertEquals(offsets.length, i);
+        }
+    }
+
+    @Test
+    public void testCheckRange() {
+        List<Coordinate> range = movable.checkRange(2, new Coordinate(5, 5));
+        assertEquals(13, range.size());
+        assertEquals(new Coordinate(5, 3), range.get(0));
+        assertEquals(new Coordinate(5, 7), range.get(12));
+    }
+
+    @Test
+    public void testCheckRangeIndicesClipped() {
+        int[] indices = DiamondOffsets.buffer(2);
+        int count = movable.checkRange(2, 0, 1, 4, 3, indices);
+        List<Integer> expected = new ArrayList<>();
+        for (int[] tile : new int[][] {{0, 0}, {1, 0}, {0, 1}, {1, 1}, {2, 1}, {0, 2}, {1, 2}}) {
+            expected.add(tile[0] + tile[1] * 4);
+        }
+        List<Integer> actual = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            actual.add(indices[i]);
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testBufferReused() {
+        assertSame(DiamondOffsets.buffer(1), DiamondOffsets.buffer(1));
+        assertTrue(DiamondOffsets.buffer(5).length >= DiamondOffsets.count(5));
+    }
+}